@@ -0,0 +1,70 @@
+package admin.rating;
+
+/**
+ * A player's Glicko-2 rating: an estimate of their strength on the familiar Elo-like scale, how
+ * uncertain that estimate is, and how erratic their results have been.
+ */
+public class Rating {
+
+  // Rating, deviation and volatility of a player who has not played yet
+  public static final double INITIAL_RATING = 1500;
+  public static final double INITIAL_DEVIATION = 350;
+  public static final double INITIAL_VOLATILITY = 0.06;
+
+  private final double rating;
+  private final double deviation;
+  private final double volatility;
+  private final int games;
+  private final int cheats;
+
+  public Rating(double rating, double deviation, double volatility, int games, int cheats) {
+    this.rating = rating;
+    this.deviation = deviation;
+    this.volatility = volatility;
+    this.games = games;
+    this.cheats = cheats;
+  }
+
+  /**
+   * Returns the rating of a player who has not played yet.
+   */
+  public static Rating initial() {
+    return new Rating(INITIAL_RATING, INITIAL_DEVIATION, INITIAL_VOLATILITY, 0, 0);
+  }
+
+  public double getRating() {
+    return rating;
+  }
+
+  // returns the rating deviation, the true rating is within two of it of the rating 95% of the time
+  public double getDeviation() {
+    return deviation;
+  }
+
+  public double getVolatility() {
+    return volatility;
+  }
+
+  // returns the number of games rated, including ones lost by cheating
+  public int getGames() {
+    return games;
+  }
+
+  // returns the number of games lost by cheating
+  public int getCheats() {
+    return cheats;
+  }
+
+  /**
+   * Returns a rating the player is very likely above, the rating less two deviations. Ranking by
+   * this keeps players with a lucky few games from topping players with long records.
+   */
+  public double getConservativeRating() {
+    return rating - 2 * deviation;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%.0f (+/- %.0f)", rating, 2 * deviation);
+  }
+}
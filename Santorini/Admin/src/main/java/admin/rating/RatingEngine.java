@@ -0,0 +1,307 @@
+package admin.rating;
+
+import admin.result.GameResult;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps Glicko-2 ratings for players by name, updated one GameResult at a time, so ratings stay
+ * current over any number of games without keeping or replaying their history.
+ *
+ * Every game is rated as its own rating period, the usual way to run Glicko-2 on a stream of
+ * games, so deviations only ever shrink with play and never grow back with time away.
+ *
+ * A game lost by cheating, such as one turned around by GameResult.disqualifyWinner, counts as a
+ * loss for the cheater but leaves the winner's rating alone, since the winner did not have to beat
+ * anyone to win it. A cheater found out after their games were rated is penalized with disqualify.
+ *
+ * Ratings can be saved to and loaded from a compact binary file, about 50 bytes per player.
+ */
+public class RatingEngine {
+
+  // Converts between the Glicko and Glicko-2 scales
+  private static final double SCALE = 173.7178;
+  // How much volatility can change in a game, the paper suggests 0.3 to 1.2
+  private static final double DEFAULT_TAU = 0.5;
+  // Precision the volatility is solved to
+  private static final double EPSILON = 0.000001;
+  // Marks a ratings file, and the version of its layout
+  private static final int FILE_MAGIC = 0x53524154;
+  private static final int FILE_VERSION = 1;
+
+  private final double tau;
+  private final Map<String, Rating> ratings = new HashMap<>();
+
+  public RatingEngine() {
+    this(DEFAULT_TAU);
+  }
+
+  /**
+   * Creates an engine with no ratings.
+   *
+   * @param tau the Glicko-2 system constant, how much volatility can change in a game, more than 0
+   */
+  public RatingEngine(double tau) {
+    if (tau <= 0) {
+      throw new IllegalArgumentException(String.format("%f is not a legal system constant", tau));
+    }
+    this.tau = tau;
+  }
+
+  /**
+   * Rates the given game, naming the players by their player names.
+   *
+   * @param result the result of a game or meet up
+   */
+  public void record(GameResult result) {
+    record(result.getWinner().getPlayerName(), result.getLoser().getPlayerName(), result.didLoserCheat());
+  }
+
+  /**
+   * Rates a game between the given players.
+   *
+   * @param winner name of the player who won
+   * @param loser name of the player who lost
+   * @param loserCheated whether the loser lost by cheating
+   */
+  public synchronized void record(String winner, String loser, boolean loserCheated) {
+    if (winner.equals(loser)) {
+      throw new IllegalArgumentException(String.format("%s cannot play themselves", winner));
+    }
+    Rating winnerRating = getRatingOrInitial(winner);
+    Rating loserRating = getRatingOrInitial(loser);
+
+    if (!loserCheated) {
+      ratings.put(winner, update(winnerRating, loserRating, 1, false));
+    }
+    ratings.put(loser, update(loserRating, winnerRating, 0, loserCheated));
+  }
+
+  /**
+   * Disqualifies the winner of a game already rated as won fairly, for a cheater found out only
+   * after the fact. Ratings are not kept per game, so the win cannot be taken back. The cheater is
+   * instead rated as having also lost the game by cheating, which costs them as it would have, and
+   * the opponent's rating is left as it is. The game is not counted twice.
+   *
+   * @param cheater name of the player who won by cheating
+   * @param opponent name of the player they beat
+   */
+  public synchronized void disqualify(String cheater, String opponent) {
+    if (cheater.equals(opponent)) {
+      throw new IllegalArgumentException(String.format("%s cannot play themselves", cheater));
+    }
+    Rating cheaterRating = getRatingOrInitial(cheater);
+    Rating penalized = update(cheaterRating, getRatingOrInitial(opponent), 0, true);
+    ratings.put(cheater, new Rating(penalized.getRating(), penalized.getDeviation(), penalized.getVolatility(),
+        cheaterRating.getGames(), penalized.getCheats()));
+  }
+
+  /**
+   * Returns the rating of the given player, if they have played.
+   *
+   * @param name name of the player
+   * @return their rating, or empty if no game of theirs has been rated
+   */
+  public synchronized Optional<Rating> getRating(String name) {
+    return Optional.ofNullable(ratings.get(name));
+  }
+
+  /**
+   * Returns the names of every rated player, ranked by conservative rating, best first. Ties are
+   * broken by name.
+   *
+   * @return the ranked names
+   */
+  public synchronized List<String> getRanking() {
+    List<String> names = new ArrayList<>(ratings.keySet());
+    names.sort(Comparator.comparing((String name) -> -ratings.get(name).getConservativeRating())
+                         .thenComparing(name -> name));
+    return names;
+  }
+
+  // returns the number of players rated
+  public synchronized int size() {
+    return ratings.size();
+  }
+
+  private Rating getRatingOrInitial(String name) {
+    Rating rating = ratings.get(name);
+    return rating == null ? Rating.initial() : rating;
+  }
+
+  /**
+   * Computes a player's rating after one game, following the steps of Glickman's "Example of the
+   * Glicko-2 system".
+   *
+   * @param player the player's rating before the game
+   * @param opponent the opponent's rating before the game
+   * @param score 1 for a win, 0 for a loss
+   * @param cheated whether the player lost by cheating
+   * @return the player's rating after the game
+   */
+  private Rating update(Rating player, Rating opponent, double score, boolean cheated) {
+    double mu = (player.getRating() - Rating.INITIAL_RATING) / SCALE;
+    double phi = player.getDeviation() / SCALE;
+    double opponentMu = (opponent.getRating() - Rating.INITIAL_RATING) / SCALE;
+    double opponentPhi = opponent.getDeviation() / SCALE;
+
+    double g = 1 / Math.sqrt(1 + 3 * opponentPhi * opponentPhi / (Math.PI * Math.PI));
+    double expected = 1 / (1 + Math.exp(-g * (mu - opponentMu)));
+    double variance = 1 / (g * g * expected * (1 - expected));
+    double delta = variance * g * (score - expected);
+
+    double sigma = newVolatility(phi, player.getVolatility(), variance, delta);
+    double phiStar = Math.sqrt(phi * phi + sigma * sigma);
+    double newPhi = 1 / Math.sqrt(1 / (phiStar * phiStar) + 1 / variance);
+    double newMu = mu + newPhi * newPhi * g * (score - expected);
+
+    return new Rating(newMu * SCALE + Rating.INITIAL_RATING, newPhi * SCALE, sigma, player.getGames() + 1,
+        player.getCheats() + (cheated ? 1 : 0));
+  }
+
+  /**
+   * Solves for the new volatility with the Illinois algorithm, step 5 of the Glicko-2 example.
+   */
+  private double newVolatility(double phi, double sigma, double variance, double delta) {
+    double a = Math.log(sigma * sigma);
+    double low = a;
+    double high;
+    if (delta * delta > phi * phi + variance) {
+      high = Math.log(delta * delta - phi * phi - variance);
+    } else {
+      int k = 1;
+      while (volatilityFunction(a - k * tau, phi, variance, delta, a) < 0) {
+        k += 1;
+      }
+      high = a - k * tau;
+    }
+
+    double fLow = volatilityFunction(low, phi, variance, delta, a);
+    double fHigh = volatilityFunction(high, phi, variance, delta, a);
+    while (Math.abs(high - low) > EPSILON) {
+      double next = low + (low - high) * fLow / (fHigh - fLow);
+      double fNext = volatilityFunction(next, phi, variance, delta, a);
+      if (fNext * fHigh <= 0) {
+        low = high;
+        fLow = fHigh;
+      } else {
+        fLow = fLow / 2;
+      }
+      high = next;
+      fHigh = fNext;
+    }
+    return Math.exp(low / 2);
+  }
+
+  private double volatilityFunction(double x, double phi, double variance, double delta, double a) {
+    double ex = Math.exp(x);
+    double denominator = phi * phi + variance + ex;
+    return ex * (delta * delta - phi * phi - variance - ex) / (2 * denominator * denominator)
+        - (x - a) / (tau * tau);
+  }
+
+  /**
+   * Saves every rating to the given file, replacing it only once the new ratings are written in
+   * full, so a crash never leaves a half written file. The file is replaced atomically where the
+   * file system can, and with a plain move otherwise.
+   *
+   * @param file file to save to
+   * @throws IOException if the file cannot be written, in which case it is left as it was
+   */
+  public synchronized void save(Path file) throws IOException {
+    Path parent = file.toAbsolutePath().getParent();
+    Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+    try {
+      try (OutputStream out = Files.newOutputStream(temp)) {
+        write(out);
+      }
+      try {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException | RuntimeException e) {
+      // do not leave the unfinished ratings behind
+      try {
+        Files.deleteIfExists(temp);
+      } catch (IOException deleteFailure) {
+        e.addSuppressed(deleteFailure);
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Writes every rating to the given stream, as a header followed by one record per player.
+   *
+   * @param out stream to write to, left open
+   * @throws IOException if the stream cannot be written
+   */
+  public synchronized void write(OutputStream out) throws IOException {
+    DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+    data.writeInt(FILE_MAGIC);
+    data.writeInt(FILE_VERSION);
+    data.writeInt(ratings.size());
+    for (Map.Entry<String, Rating> entry : ratings.entrySet()) {
+      Rating rating = entry.getValue();
+      data.writeUTF(entry.getKey());
+      data.writeDouble(rating.getRating());
+      data.writeDouble(rating.getDeviation());
+      data.writeDouble(rating.getVolatility());
+      data.writeInt(rating.getGames());
+      data.writeInt(rating.getCheats());
+    }
+    data.flush();
+  }
+
+  /**
+   * Loads ratings saved with save, replacing the ratings of any player in the file.
+   *
+   * @param file file to load from
+   * @throws IOException if the file cannot be read or is not a ratings file
+   */
+  public void load(Path file) throws IOException {
+    try (InputStream in = Files.newInputStream(file)) {
+      read(in);
+    }
+  }
+
+  /**
+   * Reads ratings written with write, replacing the ratings of any player read.
+   *
+   * @param in stream to read from, left open
+   * @throws IOException if the stream cannot be read or does not hold ratings
+   */
+  public synchronized void read(InputStream in) throws IOException {
+    DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+    if (data.readInt() != FILE_MAGIC) {
+      throw new IOException("Not a ratings file");
+    }
+    int version = data.readInt();
+    if (version != FILE_VERSION) {
+      throw new IOException(String.format("Unsupported ratings file version %d", version));
+    }
+
+    int count = data.readInt();
+    for (int i = 0; i < count; i += 1) {
+      String name = data.readUTF();
+      ratings.put(name, new Rating(data.readDouble(), data.readDouble(), data.readDouble(), data.readInt(),
+          data.readInt()));
+    }
+  }
+}
@@ -0,0 +1,338 @@
+package admin.referee;
+
+import common.board.IReadonlyBoard;
+import common.data.Action;
+import common.interfaces.IObserver;
+import common.interfaces.IPlayer;
+import java.io.Flushable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Wraps an observer so that updates are delivered to it on its own thread, letting the referee
+ * get on with the game while the observer prints or sends them.
+ *
+ * Updates wait in a fixed size ring buffer and are delivered one at a time, in the order they
+ * were given, so one AsyncObserver can be shared by referees on several threads. Boards are copied
+ * when given, as the referee goes on changing its board. When the buffer is full, the overflow
+ * policy decides whether the referee waits for room or an update is dropped.
+ *
+ * Closing the observer delivers every update still waiting, flushes the observer if it is
+ * Flushable, and then stops its thread.
+ */
+public class AsyncObserver implements IObserver, AutoCloseable {
+
+  /**
+   * What to do with an update given while the buffer is full.
+   */
+  public enum Overflow {
+    // wait for the observer to take an update, so none are lost
+    BLOCK,
+    // drop the oldest waiting update to make room
+    DROP_OLDEST,
+    // drop a waiting board, which a later board shows the changes of, or wait if none is waiting.
+    // Only for an observer of one game at a time, with several the board dropped may be the only
+    // one of its game that was waiting
+    COALESCE_BOARDS
+  }
+
+  public static final int DEFAULT_CAPACITY = 1024;
+
+  private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+  private final IObserver observer;
+  private final Overflow overflow;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final Condition notFull = lock.newCondition();
+  // waiting updates, size of them starting at head, wrapping around
+  private final Update[] buffer;
+  private int head;
+  private int size;
+  // whether the delivery thread is in the middle of delivering an update
+  private boolean delivering;
+  private boolean closed;
+  // whether the delivery thread has stopped, after which updates are dropped instead of waiting
+  private boolean stopped;
+
+  private long dropped;
+  private long failures;
+
+  private final Thread thread;
+
+  // Creates an observer that never drops an update, the referee waits for room instead
+  public AsyncObserver(IObserver observer) {
+    this(observer, DEFAULT_CAPACITY, Overflow.BLOCK);
+  }
+
+  /**
+   * Creates an observer that delivers updates to the given observer on a new daemon thread.
+   *
+   * @param observer observer to deliver updates to
+   * @param capacity number of updates that can wait to be delivered, at least 1
+   * @param overflow what to do with an update given while capacity updates are waiting
+   */
+  public AsyncObserver(IObserver observer, int capacity, Overflow overflow) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException(String.format("%d is not a legal capacity", capacity));
+    }
+    this.observer = observer;
+    this.overflow = overflow;
+    this.buffer = new Update[capacity];
+
+    thread = new Thread(this::deliverUpdates, "observer-" + THREAD_COUNT.incrementAndGet());
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @Override
+  public void update(IReadonlyBoard board) {
+    IReadonlyBoard copy = board.toBoard();
+    offer(new Update(o -> o.update(copy), true));
+  }
+
+  @Override
+  public void update(List<Action> turn) {
+    List<Action> copy = new ArrayList<>(turn);
+    offer(new Update(o -> o.update(copy), false));
+  }
+
+  @Override
+  public void updateGiveUp(IPlayer player) {
+    offer(new Update(o -> o.updateGiveUp(player), false));
+  }
+
+  @Override
+  public void updateWin(IPlayer player) {
+    offer(new Update(o -> o.updateWin(player), false));
+  }
+
+  @Override
+  public void updateError(String error) {
+    offer(new Update(o -> o.updateError(error), false));
+  }
+
+  /**
+   * Adds the given update to the end of the buffer, making room by the overflow policy.
+   */
+  private void offer(Update update) {
+    lock.lock();
+    try {
+      if (closed) {
+        throw new IllegalStateException("Observer is closed");
+      }
+      if (stopped) {
+        // Nothing will take the update, waiting for room would hold up the game forever
+        dropped += 1;
+        return;
+      }
+
+      while (size == buffer.length) {
+        if (overflow == Overflow.DROP_OLDEST) {
+          removeAt(0);
+          dropped += 1;
+        } else if (overflow == Overflow.COALESCE_BOARDS && removeOldestBoard()) {
+          dropped += 1;
+        } else {
+          notFull.awaitUninterruptibly();
+          if (stopped) {
+            dropped += 1;
+            return;
+          }
+        }
+      }
+
+      buffer[(head + size) % buffer.length] = update;
+      size += 1;
+      notEmpty.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes the oldest waiting board from the buffer, if any is waiting.
+   *
+   * @return whether a board was removed
+   */
+  private boolean removeOldestBoard() {
+    for (int i = 0; i < size; i += 1) {
+      if (buffer[(head + i) % buffer.length].board) {
+        removeAt(i);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Removes the update at the given position from the front of the buffer, keeping the order of
+   * the others.
+   */
+  private void removeAt(int position) {
+    for (int i = position; i > 0; i -= 1) {
+      buffer[(head + i) % buffer.length] = buffer[(head + i - 1) % buffer.length];
+    }
+    buffer[head] = null;
+    head = (head + 1) % buffer.length;
+    size -= 1;
+  }
+
+  /**
+   * Delivers updates to the observer until closed and every update has been delivered, then lets
+   * anything still waiting for room know that none will come.
+   */
+  private void deliverUpdates() {
+    try {
+      deliverUntilClosed();
+    } finally {
+      lock.lock();
+      try {
+        stopped = true;
+        delivering = false;
+        notFull.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  private void deliverUntilClosed() {
+    while (true) {
+      Update update;
+      lock.lock();
+      try {
+        delivering = false;
+        notFull.signalAll();
+        while (size == 0 && !closed) {
+          notEmpty.awaitUninterruptibly();
+        }
+        if (size == 0) {
+          break;
+        }
+        update = buffer[head];
+        removeAt(0);
+        delivering = true;
+      } finally {
+        lock.unlock();
+      }
+
+      try {
+        update.delivery.accept(observer);
+      } catch (Throwable e) {
+        // A broken observer must not stop later updates, the referee never sees its errors, and
+        // neither an exception nor an error may stop the thread while the referee relies on it
+        lock.lock();
+        try {
+          failures += 1;
+        } finally {
+          lock.unlock();
+        }
+      }
+    }
+
+    if (observer instanceof Flushable) {
+      try {
+        ((Flushable) observer).flush();
+      } catch (Throwable e) {
+        lock.lock();
+        try {
+          failures += 1;
+        } finally {
+          lock.unlock();
+        }
+      }
+    }
+  }
+
+  /**
+   * Waits until every update given so far has been delivered.
+   *
+   * @param timeout longest time to wait
+   * @param unit unit of the timeout
+   * @return whether every update was delivered in time
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public boolean flush(long timeout, TimeUnit unit) throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    lock.lock();
+    try {
+      while (size > 0 || delivering) {
+        if (nanos <= 0 || !thread.isAlive()) {
+          return false;
+        }
+        nanos = notFull.awaitNanos(nanos);
+      }
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Stops taking updates, delivers the ones still waiting, flushes the observer if it buffers
+   * output, and waits for the delivery thread to stop.
+   */
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      closed = true;
+      notEmpty.signal();
+    } finally {
+      lock.unlock();
+    }
+
+    boolean interrupted = false;
+    while (thread.isAlive()) {
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // returns the number of updates dropped by the overflow policy
+  public long getDropped() {
+    lock.lock();
+    try {
+      return dropped;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // returns the number of updates the observer threw an exception on
+  public long getFailures() {
+    lock.lock();
+    try {
+      return failures;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * An update waiting to be delivered.
+   */
+  private static class Update {
+    private final Consumer<IObserver> delivery;
+    // whether this update is a board, which COALESCE_BOARDS may drop
+    private final boolean board;
+
+    Update(Consumer<IObserver> delivery, boolean board) {
+      this.delivery = delivery;
+      this.board = board;
+    }
+  }
+}
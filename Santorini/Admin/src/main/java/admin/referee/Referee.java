@@ -5,6 +5,7 @@ import common.board.Board;
 import common.board.IBoard;
 import common.data.Action;
 import common.data.PlaceWorkerAction;
+import common.data.Worker;
 import common.interfaces.IObserver;
 import common.interfaces.IPlayer;
 import common.rules.IRulesEngine;
@@ -17,14 +18,20 @@ import utils.Utils;
 
 /**
  * Facilitates running game(s) of Santorini between two players.
+ *
+ * Observers are updated on the thread playing the game, so observers that print or send updates
+ * should be wrapped in an AsyncObserver to keep them from slowing the game down.
  */
 public class Referee implements IReferee {
 
   // Length of time to wait for action in seconds
   private static final int TIMEOUT = 2;
+  // Max turns value for games that run until someone wins
+  public static final int NO_TURN_LIMIT = 0;
 
   private final IRulesEngine rules;
   private final List<IObserver> observers;
+  private final int maxTurns;
 
   public Referee() {
     this(new StandardSantoriniRulesEngine(), new ArrayList<>());
@@ -39,8 +46,24 @@ public class Referee implements IReferee {
   }
 
   public Referee(IRulesEngine rules, List<IObserver> observers) {
+    this(rules, observers, NO_TURN_LIMIT);
+  }
+
+  /**
+   * Creates a referee that ends games after the given number of turns, counting both players'
+   * turns. A game that reaches the limit goes to the player chosen by breakTie.
+   *
+   * @param rules rules to play by
+   * @param observers observers to update on every game
+   * @param maxTurns turns to play before breaking the tie, or NO_TURN_LIMIT
+   */
+  public Referee(IRulesEngine rules, List<IObserver> observers, int maxTurns) {
+    if (maxTurns < 0) {
+      throw new IllegalArgumentException(String.format("%d is not a legal turn limit", maxTurns));
+    }
     this.rules = rules;
     this.observers = observers;
+    this.maxTurns = maxTurns;
   }
 
   @Override
@@ -169,29 +192,62 @@ public class Referee implements IReferee {
   }
 
   /**
-   * Runs the game with the given players on the given board.
+   * Runs the game with the given players on the given board, one turn at a time until it ends or
+   * reaches the turn limit.
    *
    * @param board IBoard the game is played on
-   * @param active IPlayer that is currently making a turn
-   * @param waiting IPlayer that is waiting for the other player to complete their turn
+   * @param first IPlayer that makes the first turn
+   * @param second IPlayer that makes the second turn
    * @return GameResult representing the result of the game
    */
-  private GameResult runGame(IBoard board, IPlayer active, IPlayer waiting) {
-    updateObservers(observer -> observer.update(board));
-    // Return result if active player won
-    if (rules.didPlayerWin(board, active.getPlayerName())) {
+  private GameResult runGame(IBoard board, IPlayer first, IPlayer second) {
+    IPlayer active = first;
+    IPlayer waiting = second;
+
+    for (int turnsPlayed = 0; ; turnsPlayed += 1) {
       updateObservers(observer -> observer.update(board));
-      updateObservers(observer -> observer.updateWin(active));
-      return new GameResult(active, waiting, false);
-    }
+      // Return result if active player won
+      if (rules.didPlayerWin(board, active.getPlayerName())) {
+        IPlayer winner = active;
+        updateObservers(observer -> observer.update(board));
+        updateObservers(observer -> observer.updateWin(winner));
+        return new GameResult(active, waiting, false);
+      }
 
-    // Return result if active player lost
-    if (rules.didPlayerLose(board, active.getPlayerName())) {
-      updateObservers(observer -> observer.updateGiveUp(active));
-      updateObservers(observer -> observer.updateWin(waiting));
-      return new GameResult(waiting, active, false);
+      // Return result if active player lost
+      if (rules.didPlayerLose(board, active.getPlayerName())) {
+        IPlayer loser = active;
+        IPlayer winner = waiting;
+        updateObservers(observer -> observer.updateGiveUp(loser));
+        updateObservers(observer -> observer.updateWin(winner));
+        return new GameResult(waiting, active, false);
+      }
+
+      if (maxTurns != NO_TURN_LIMIT && turnsPlayed >= maxTurns) {
+        return breakTie(board, first, second);
+      }
+
+      GameResult result = playTurn(board, active, waiting);
+      if (result != null) {
+        return result;
+      }
+
+      // Next turn with waiting and active players swapped
+      IPlayer next = waiting;
+      waiting = active;
+      active = next;
     }
+  }
 
+  /**
+   * Asks the active player for a turn and plays it on the given board.
+   *
+   * @param board IBoard the game is played on
+   * @param active IPlayer that is currently making a turn
+   * @param waiting IPlayer that is waiting for the other player to complete their turn
+   * @return GameResult if the turn ended the game, or null if the game goes on
+   */
+  private GameResult playTurn(IBoard board, IPlayer active, IPlayer waiting) {
     Optional<List<Action>> optionalTurn = Utils.timedCall(active, p -> p.getTurn(board), TIMEOUT);
     if (!optionalTurn.isPresent()) {
       return activeCheated(active, waiting);
@@ -223,8 +279,35 @@ public class Referee implements IReferee {
     board.build(build.getWorkerId(), build.getDirection());
 
     updateObservers(observer -> observer.update(turn));
-    // Run a turn with waiting and active players swapped
-    return runGame(board, waiting, active);
+    return null;
+  }
+
+  /**
+   * Decides a game that reached the turn limit. The player whose workers stand higher in total
+   * wins, as they are closer to climbing to the third floor. If both stand equally high, the
+   * second player wins, having been a turn behind the first all game.
+   *
+   * @param board IBoard the game was played on
+   * @param first IPlayer that made the first turn
+   * @param second IPlayer that made the second turn
+   * @return GameResult naming the tie break's winner, where nobody cheated
+   */
+  private GameResult breakTie(IBoard board, IPlayer first, IPlayer second) {
+    int firstHeight = totalWorkerHeight(board, first.getPlayerName());
+    int secondHeight = totalWorkerHeight(board, second.getPlayerName());
+
+    IPlayer winner = firstHeight > secondHeight ? first : second;
+    IPlayer loser = winner == first ? second : first;
+    updateObservers(observer -> observer.updateWin(winner));
+    return new GameResult(winner, loser, false);
+  }
+
+  private int totalWorkerHeight(IBoard board, String playerName) {
+    int total = 0;
+    for (Worker worker : board.getPlayerWorkers(playerName)) {
+      total += board.height(worker.getRow(), worker.getColumn());
+    }
+    return total;
   }
 
   /**
@@ -0,0 +1,182 @@
+package admin.tournament;
+
+import admin.result.GameResult;
+import common.interfaces.IPlayer;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facilitates a knockout tournament, where players are out after losing one meet up (single
+ * elimination) or two (double elimination). That takes about n or 2n meet ups for n players,
+ * against the n^2 of a round-robin, at the cost of ranking everyone but the top less precisely.
+ *
+ * Each round, players meet players who have lost as many meet ups as they have, so double
+ * elimination plays a winners' and a losers' bracket side by side. Within a bracket the best
+ * seed, by the order players were given in, meets the worst, and an odd player out gets a bye,
+ * the best seed first. When every bracket is down to one player, the last two players left meet,
+ * and in double elimination meet again if the player from the losers' bracket wins.
+ *
+ * Players are ranked by how long they lasted, the champion first. Cheaters are out as soon as
+ * they are caught, and lose the meet ups they won as in a round-robin.
+ */
+public class EliminationTournamentManager extends TournamentManager {
+
+  /**
+   * How many meet ups a player can lose before being out.
+   */
+  public enum Bracket {
+    SINGLE(1),
+    DOUBLE(2);
+
+    private final int lives;
+
+    Bracket(int lives) {
+      this.lives = lives;
+    }
+  }
+
+  private final Bracket bracket;
+
+  // meet ups lost by each player, and players in the order they were knocked out
+  private Map<IPlayer, Integer> losses = new HashMap<>();
+  private List<IPlayer> knockedOut = new ArrayList<>();
+  private List<IPlayer> seeds = new ArrayList<>();
+
+  public EliminationTournamentManager(Bracket bracket) {
+    this(new BufferedReader(new InputStreamReader(System.in)), 1, bracket);
+  }
+
+  public EliminationTournamentManager(Reader read, Bracket bracket) {
+    this(read, 1, bracket);
+  }
+
+  public EliminationTournamentManager(Reader read, int threads, Bracket bracket) {
+    super(read, threads);
+    this.bracket = bracket;
+  }
+
+  @Override
+  protected void playMeetUps(List<? extends IPlayer> players) {
+    seeds = new ArrayList<>(players);
+    losses = new HashMap<>();
+    knockedOut = new ArrayList<>();
+    for (IPlayer player : players) {
+      losses.put(player, 0);
+    }
+
+    List<IPlayer> remaining = remainingPlayers();
+    while (remaining.size() > 1) {
+      for (GameResult result : playRound(pairRound(remaining))) {
+        IPlayer loser = result.getLoser();
+        int lost = losses.merge(loser, 1, Integer::sum);
+        if (lost >= bracket.lives || isCheater(loser)) {
+          knockedOut.add(loser);
+        }
+      }
+      remaining = remainingPlayers();
+    }
+  }
+
+  /**
+   * Returns the players still in the tournament, ordered by meet ups lost and then by seed.
+   * Cheaters who were never knocked out in a meet up, such as those caught giving their name,
+   * are knocked out here.
+   */
+  private List<IPlayer> remainingPlayers() {
+    List<IPlayer> remaining = new ArrayList<>();
+    for (IPlayer player : seeds) {
+      if (isCheater(player) && !knockedOut.contains(player)) {
+        knockedOut.add(player);
+      }
+      if (!knockedOut.contains(player)) {
+        remaining.add(player);
+      }
+    }
+    remaining.sort(Comparator.comparing((IPlayer p) -> losses.get(p)));
+    return remaining;
+  }
+
+  /**
+   * Pairs the remaining players for a round, within each bracket, or the last two players left
+   * if every bracket is down to one player.
+   *
+   * @param remaining players still in, ordered by meet ups lost and then by seed
+   * @return the pairings of the round, the better seed going first
+   */
+  private List<Pairing> pairRound(List<IPlayer> remaining) {
+    List<Pairing> pairings = new ArrayList<>();
+    int start = 0;
+    while (start < remaining.size()) {
+      int end = start;
+      while (end < remaining.size() && losses.get(remaining.get(end)).equals(losses.get(remaining.get(start)))) {
+        end += 1;
+      }
+      pairings.addAll(pairBracket(remaining.subList(start, end)));
+      start = end;
+    }
+
+    if (pairings.isEmpty()) {
+      pairings.add(new Pairing(remaining.get(0), remaining.get(1)));
+    }
+    return pairings;
+  }
+
+  /**
+   * Pairs the best seed of a bracket with the worst, the second best with the second worst and so
+   * on. With an odd number of players, the best seed sits the round out.
+   */
+  private List<Pairing> pairBracket(List<IPlayer> players) {
+    List<Pairing> pairings = new ArrayList<>();
+    int first = players.size() % 2;
+    int last = players.size() - 1;
+    while (first < last) {
+      pairings.add(new Pairing(players.get(first), players.get(last)));
+      first += 1;
+      last -= 1;
+    }
+    return pairings;
+  }
+
+  /**
+   * Ranks the players by how long they lasted: the champion, then the other players, the ones
+   * knocked out later first. Cheaters come last in the order they were caught.
+   */
+  @Override
+  protected List<IPlayer> rankPlayers() {
+    List<IPlayer> ranking = new ArrayList<>(determineWinners());
+    List<IPlayer> cheaters = new ArrayList<>();
+
+    for (int i = knockedOut.size() - 1; i >= 0; i -= 1) {
+      IPlayer player = knockedOut.get(i);
+      if (isCheater(player)) {
+        cheaters.add(0, player);
+      } else {
+        ranking.add(player);
+      }
+    }
+    ranking.addAll(cheaters);
+    return ranking;
+  }
+
+  /**
+   * Determines the winner of the tournament: the last player left, who is never a cheater.
+   *
+   * @return the champion, or an empty list if every player was knocked out
+   */
+  @Override
+  protected List<IPlayer> determineWinners() {
+    List<IPlayer> winners = new ArrayList<>();
+    for (IPlayer player : seeds) {
+      if (!knockedOut.contains(player)) {
+        winners.add(player);
+      }
+    }
+    return winners;
+  }
+}
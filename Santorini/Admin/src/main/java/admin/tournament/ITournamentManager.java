@@ -7,15 +7,15 @@ import java.util.Optional;
 
 /**
  *
- * The tournament manager allows a number of players to participate in an round-robin tournament.
- * To start a tournament a user needs to call runTournament with a list of players.
+ * The tournament manager allows a number of players to participate in a tournament. How players
+ * are paired, how many meet ups they play and how they are ranked depend on the format of the
+ * implementation, such as a round-robin, a Swiss-system or a knockout tournament. To start a
+ * tournament a user needs to call runTournament with a list of players.
  *
  * If a player breaks, disconnects, or cheats they are booted from the tournament.
  *
- * The results will be returned as the player who won the most matches.
- *
- * If any amount of  players had the same amount of victories and a winner cannot be determined
- * empty will be returned.
+ * The results will be returned as the players who came out on top in the format's own ranking,
+ * more than one if the format allows ties and they are tied.
  *
  * A tournament must have at least 2 players.
  *
@@ -23,17 +23,20 @@ import java.util.Optional;
 public interface ITournamentManager {
   /**
    *
-   * This method runs a round-robin tournament of Santorini games and determines a winner.
+   * This method runs a tournament of Santorini games in the format of this manager and
+   * determines its winners.
    *
    * @param players The players participating in the tournament. Must have at least 2 players
-   * @return a list of winning players (in the case of a tie) or an empty list if a tournament was not run
+   * @return a list of winning players (more than one in the case of a tie), or an empty list if a
+   *         tournament was not run or no player is left to win it
    */
   List<IPlayer> runTournament(List<? extends IPlayer> players);
 
   /**
-   * Reads the input configuration for this tournament manager and returns the maybe player who won
+   * Reads the input configuration for this tournament manager, runs the tournament it describes
+   * and returns the players who won
    *
-   * @return the winning players of the tournament, or an empty list of a tournament was not run
+   * @return the winning players of the tournament, or an empty list if a tournament was not run
    */
   List<IPlayer> readInput();
 
@@ -54,5 +57,13 @@ public interface ITournamentManager {
    */
   Optional<List<String>> getCheatersNames();
 
+  /**
+   * Returns a summary of the tournament if one has been run: the ranking of the players, the
+   * number of meet ups played and how well the ranking agrees with their results.
+   *
+   * @return a TournamentSummary, or empty if a tournament has not been run.
+   */
+  Optional<TournamentSummary> getSummary();
+
 }
 
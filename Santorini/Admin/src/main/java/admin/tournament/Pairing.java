@@ -0,0 +1,36 @@
+package admin.tournament;
+
+import common.interfaces.IPlayer;
+
+/**
+ * A meet up between two players scheduled in a tournament. The first player goes first in every
+ * game of the meet up.
+ */
+public class Pairing {
+
+  private final IPlayer player1;
+  private final IPlayer player2;
+
+  public Pairing(IPlayer player1, IPlayer player2) {
+    this.player1 = player1;
+    this.player2 = player2;
+  }
+
+  public IPlayer getPlayer1() {
+    return player1;
+  }
+
+  public IPlayer getPlayer2() {
+    return player2;
+  }
+
+  /**
+   * Returns whether the given player takes part in this pairing.
+   *
+   * @param player IPlayer to look for
+   * @return true if the player is either player of this pairing
+   */
+  public boolean involves(IPlayer player) {
+    return player1.equals(player) || player2.equals(player);
+  }
+}
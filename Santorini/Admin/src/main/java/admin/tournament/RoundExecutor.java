@@ -0,0 +1,132 @@
+package admin.tournament;
+
+import admin.referee.IReferee;
+import admin.result.GameResult;
+import common.interfaces.IPlayer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Plays the rounds of a tournament one after another, playing the meet ups within each round in
+ * parallel, each with its own referee. One executor serves every round of a tournament, so the
+ * threads are started once and not for every round; close it when the tournament is over. With a
+ * single thread the meet ups are played on the calling thread and no threads are started at all.
+ *
+ * Cheaters are handled between rounds: a player who cheated in a round plays none of their
+ * meet ups in later rounds, the way runMeetUp skips the meet ups of known cheaters. As rounds
+ * are recorded in order, the outcome does not depend on which meet up finishes first.
+ */
+public class RoundExecutor implements AutoCloseable {
+
+  private final int threads;
+  private final Supplier<IReferee> referees;
+  private final int games;
+  // plays the meet ups of a round in parallel, started by the first round that needs it
+  private ExecutorService executor;
+
+  /**
+   * Creates an executor for rounds of meet ups.
+   *
+   * @param threads number of meet ups to play at once, at least 1
+   * @param referees makes the referee for each meet up
+   * @param games number of games in each meet up
+   */
+  public RoundExecutor(int threads, Supplier<IReferee> referees, int games) {
+    if (threads < 1) {
+      throw new IllegalArgumentException(String.format("%d is not a legal number of threads", threads));
+    }
+    this.threads = threads;
+    this.referees = referees;
+    this.games = games;
+  }
+
+  /**
+   * Plays the given rounds. Meet ups involving a known cheater are not played, and the loser of
+   * every meet up lost by cheating is added to the cheaters.
+   *
+   * @param rounds the rounds to play, each of disjoint pairings
+   * @param cheaters the players known to have cheated, added to as players cheat
+   * @return the results of the meet ups played, in the order of the rounds and their pairings
+   */
+  public List<GameResult> runRounds(List<List<Pairing>> rounds, List<IPlayer> cheaters) {
+    List<GameResult> results = new ArrayList<>();
+    for (List<Pairing> round : rounds) {
+      results.addAll(runRound(round, cheaters));
+    }
+    return results;
+  }
+
+  /**
+   * Plays one round, for formats that pair each round from the results of the one before. Meet
+   * ups involving a known cheater are not played, and the loser of every meet up lost by cheating
+   * is added to the cheaters.
+   *
+   * @param round pairings that share no players
+   * @param cheaters the players known to have cheated, added to as players cheat
+   * @return the results of the meet ups played, in the order of the pairings
+   */
+  public List<GameResult> runRound(List<Pairing> round, List<IPlayer> cheaters) {
+    List<Pairing> playing = new ArrayList<>();
+    for (Pairing pairing : round) {
+      if (!cheaters.contains(pairing.getPlayer1()) && !cheaters.contains(pairing.getPlayer2())) {
+        playing.add(pairing);
+      }
+    }
+
+    List<GameResult> results = new ArrayList<>();
+    if (threads == 1) {
+      for (Pairing pairing : playing) {
+        results.add(referees.get().bestOfN(pairing.getPlayer1(), pairing.getPlayer2(), games));
+      }
+    } else {
+      results.addAll(runInParallel(playing));
+    }
+
+    for (GameResult result : results) {
+      if (result.didLoserCheat()) {
+        cheaters.add(result.getLoser());
+      }
+    }
+    return results;
+  }
+
+  private List<GameResult> runInParallel(List<Pairing> pairings) {
+    if (executor == null) {
+      executor = Executors.newFixedThreadPool(threads);
+    }
+    List<Callable<GameResult>> meetUps = new ArrayList<>();
+    for (Pairing pairing : pairings) {
+      meetUps.add(() -> referees.get().bestOfN(pairing.getPlayer1(), pairing.getPlayer2(), games));
+    }
+
+    List<GameResult> results = new ArrayList<>();
+    try {
+      for (Future<GameResult> meetUp : executor.invokeAll(meetUps)) {
+        results.add(meetUp.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while running meet ups", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("A meet up failed", e.getCause());
+    }
+    return results;
+  }
+
+  /**
+   * Stops the threads of this executor, interrupting any meet ups still being played.
+   */
+  @Override
+  public void close() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+}
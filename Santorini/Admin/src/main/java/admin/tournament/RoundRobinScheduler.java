@@ -0,0 +1,55 @@
+package admin.tournament;
+
+import common.interfaces.IPlayer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Schedules a round-robin tournament into rounds with the circle method, so that every player
+ * meets every other player exactly once and no player is in two meet ups of the same round. The
+ * meet ups of a round can then be played at the same time.
+ *
+ * The first player stays put while the others rotate one seat per round. With an odd number of
+ * players, an empty seat is added and whoever faces it sits the round out.
+ */
+public class RoundRobinScheduler {
+
+  /**
+   * Schedules the meet ups between the given players. In each pairing, the player listed first in
+   * players goes first, as when the meet ups are played one after another.
+   *
+   * @param players the players in the tournament
+   * @return the rounds of the tournament, n - 1 rounds for n players, or n rounds if n is odd
+   */
+  public List<List<Pairing>> schedule(List<? extends IPlayer> players) {
+    List<Integer> seats = new ArrayList<>();
+    for (int i = 0; i < players.size(); i += 1) {
+      seats.add(i);
+    }
+    // An empty seat, for an odd number of players
+    if (seats.size() % 2 == 1) {
+      seats.add(null);
+    }
+
+    List<List<Pairing>> rounds = new ArrayList<>();
+    int seatCount = seats.size();
+    for (int round = 0; round < seatCount - 1; round += 1) {
+      List<Pairing> pairings = new ArrayList<>();
+      for (int i = 0; i < seatCount / 2; i += 1) {
+        Integer one = seats.get(i);
+        Integer two = seats.get(seatCount - 1 - i);
+        if (one != null && two != null) {
+          int first = Math.min(one, two);
+          int second = Math.max(one, two);
+          pairings.add(new Pairing(players.get(first), players.get(second)));
+        }
+      }
+      rounds.add(pairings);
+
+      // Everyone but the first seat moves one seat along
+      seats.add(1, seats.remove(seatCount - 1));
+    }
+
+    return rounds;
+  }
+}
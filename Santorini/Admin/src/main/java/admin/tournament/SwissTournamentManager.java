@@ -0,0 +1,197 @@
+package admin.tournament;
+
+import admin.result.GameResult;
+import common.interfaces.IPlayer;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Facilitates a Swiss-system tournament. Instead of every player meeting every other player,
+ * players play a fixed number of rounds, log2 of the number of players rounded up, each time
+ * against a player with as many points as possible who they have not met yet. That is n log n
+ * meet ups rather than the n^2 of a round-robin, while the best players still end up meeting.
+ *
+ * A player gets a point for every meet up won. With an odd number of players, the lowest ranked
+ * player who has not had a bye sits each round out for a point. Players are ranked by points, then
+ * by the points of the opponents they met, then by the order they were given in. Cheaters are
+ * handled as in a round-robin: they play no more meet ups and lose the ones they won.
+ */
+public class SwissTournamentManager extends TournamentManager {
+
+  // points of each player, counting byes
+  private Map<IPlayer, Integer> points = new HashMap<>();
+  // the players each player has met
+  private Map<IPlayer, Set<IPlayer>> opponents = new HashMap<>();
+  // the number of byes each player has had
+  private Map<IPlayer, Integer> byes = new HashMap<>();
+
+  public SwissTournamentManager() {
+    this(new BufferedReader(new InputStreamReader(System.in)));
+  }
+
+  public SwissTournamentManager(Reader read) {
+    this(read, 1);
+  }
+
+  public SwissTournamentManager(Reader read, int threads) {
+    super(read, threads);
+  }
+
+  /**
+   * Returns the number of rounds a Swiss tournament plays for the given number of players, enough
+   * for a single player to win every round.
+   *
+   * @param players number of players, at least 2
+   * @return log2 of players, rounded up
+   */
+  static int roundsFor(int players) {
+    return 32 - Integer.numberOfLeadingZeros(players - 1);
+  }
+
+  @Override
+  protected void playMeetUps(List<? extends IPlayer> players) {
+    points = new HashMap<>();
+    opponents = new HashMap<>();
+    byes = new HashMap<>();
+    for (IPlayer player : players) {
+      points.put(player, 0);
+      opponents.put(player, new HashSet<>());
+      byes.put(player, 0);
+    }
+
+    for (int round = 0; round < roundsFor(players.size()); round += 1) {
+      List<IPlayer> standings = standings(players);
+      standings.removeIf(this::isCheater);
+      if (standings.size() < 2) {
+        return;
+      }
+
+      for (GameResult result : playRound(pairRound(standings))) {
+        points.merge(result.getWinner(), 1, Integer::sum);
+      }
+    }
+  }
+
+  /**
+   * Pairs the given players for a round. From the top of the standings down, each unpaired player
+   * meets the next unpaired player they have not met yet, or the next unpaired player if they have
+   * met everyone left. With an odd number of players, one of them gets a bye first.
+   *
+   * @param standings the players still playing, best first
+   * @return the pairings of the round, the higher ranked player going first
+   */
+  private List<Pairing> pairRound(List<IPlayer> standings) {
+    List<IPlayer> unpaired = new ArrayList<>(standings);
+    if (unpaired.size() % 2 == 1) {
+      IPlayer bye = unpaired.get(unpaired.size() - 1);
+      for (int i = unpaired.size() - 1; i >= 0; i -= 1) {
+        if (byes.get(unpaired.get(i)) == 0) {
+          bye = unpaired.get(i);
+          break;
+        }
+      }
+      unpaired.remove(bye);
+      byes.merge(bye, 1, Integer::sum);
+      points.merge(bye, 1, Integer::sum);
+    }
+
+    List<Pairing> pairings = new ArrayList<>();
+    while (!unpaired.isEmpty()) {
+      IPlayer player = unpaired.remove(0);
+      IPlayer opponent = unpaired.get(0);
+      for (IPlayer candidate : unpaired) {
+        if (!opponents.get(player).contains(candidate)) {
+          opponent = candidate;
+          break;
+        }
+      }
+      unpaired.remove(opponent);
+      opponents.get(player).add(opponent);
+      opponents.get(opponent).add(player);
+      pairings.add(new Pairing(player, opponent));
+    }
+    return pairings;
+  }
+
+  /**
+   * Orders the given players by points, then by the points of the opponents they met, then by the
+   * order they were given in.
+   */
+  private List<IPlayer> standings(List<? extends IPlayer> players) {
+    List<IPlayer> standings = new ArrayList<>(players);
+    standings.sort(Comparator.comparing((IPlayer p) -> points.get(p))
+                             .thenComparing(this::opponentPoints)
+                             .reversed());
+    return standings;
+  }
+
+  private int opponentPoints(IPlayer player) {
+    int total = 0;
+    for (IPlayer opponent : opponents.get(player)) {
+      total += points.get(opponent);
+    }
+    return total;
+  }
+
+  /**
+   * Ranks the players by their final standings, with cheaters last in the order they were caught.
+   */
+  @Override
+  protected List<IPlayer> rankPlayers() {
+    List<IPlayer> ranking = super.rankPlayers();
+    List<IPlayer> cheaters = new ArrayList<>();
+    for (IPlayer player : ranking) {
+      if (isCheater(player)) {
+        cheaters.add(player);
+      }
+    }
+    ranking.removeAll(cheaters);
+
+    List<IPlayer> standings = standings(ranking);
+    standings.addAll(cheaters);
+    return standings;
+  }
+
+  /**
+   * Determines the winners of the tournament: the players who finished with the most points.
+   *
+   * @return the players with the most points, more than one if they are tied
+   */
+  @Override
+  protected List<IPlayer> determineWinners() {
+    recountPoints();
+
+    List<IPlayer> winners = new ArrayList<>();
+    int maxPoints = 0;
+    for (IPlayer player : rankPlayers()) {
+      if (isCheater(player)) {
+        continue;
+      }
+      int playerPoints = points.get(player);
+      if (winners.isEmpty() || playerPoints == maxPoints) {
+        winners.add(player);
+        maxPoints = playerPoints;
+      }
+    }
+    return winners;
+  }
+
+  /**
+   * Counts the points of every player again from the final results, once the wins of cheaters
+   * have gone to the players they beat.
+   */
+  private void recountPoints() {
+    points = new HashMap<>(byes);
+    for (GameResult result : getResults().get()) {
+      points.merge(result.getWinner(), 1, Integer::sum);
+    }
+  }
+}
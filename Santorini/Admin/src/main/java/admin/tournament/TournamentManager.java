@@ -1,5 +1,6 @@
 package admin.tournament;
 
+import admin.referee.AsyncObserver;
 import admin.referee.IReferee;
 import admin.referee.Referee;
 import admin.result.GameResult;
@@ -15,29 +16,49 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import utils.Utils;
 
 /**
  * Facilitates a tournament for a list of players. Each player will play every other
  * player in a round-robin style way.
+ *
+ * Given more than one thread, the meet ups are scheduled into rounds in which no player is in two
+ * meet ups, and the meet ups of each round run in parallel, each with its own referee. A player
+ * who cheats in a round plays no later rounds. Observers are shared by all meet ups and must be
+ * thread safe in that case. Observers named in the configuration are wrapped in AsyncObserver,
+ * which is.
+ *
+ * Other tournament formats extend this class and override how meet ups are paired, how players
+ * are ranked and how winners are determined.
  */
 public class TournamentManager implements ITournamentManager {
 
-  private static final int MEET_UP_GAMES = 3;
+  protected static final int MEET_UP_GAMES = 3;
   private static final int TIMEOUT = 5;
 
   private Map<IPlayer, String> playerNames = new HashMap<>();
 
   private List<GameResult> results;
   private List<IPlayer> cheaters;
+  // players of the last tournament in the order given, and the meet ups they played
+  private List<IPlayer> players;
+  private int meetUpsPlayed;
 
   private IReferee ref;
+  private final List<IObserver> observers = new ArrayList<>();
+  // number of meet ups to run at once
+  private final int threads;
+  // plays the rounds of the tournament being run, on the calling thread when threads is 1
+  private RoundExecutor roundExecutor;
 
   private Reader read;
   private ObjectMapper mapper = new ObjectMapper();
@@ -51,9 +72,25 @@ public class TournamentManager implements ITournamentManager {
   }
 
   public TournamentManager(Reader read) {
-    ref = new Referee();
+    this(read, 1);
+  }
+
+  /**
+   * Constructor for a tournamentManager that runs up to the given number of meet ups at once.
+   * Their turns share the pool of TimedCallService.shared(), whose timeouts only start once a
+   * thread runs the turn, so a turn waiting for the pool is never taken for a cheat.
+   *
+   * @param read reader for the tournament configuration
+   * @param threads number of meet ups to run at once, at least 1
+   */
+  public TournamentManager(Reader read, int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException(String.format("%d is not a legal number of threads", threads));
+    }
+    ref = new Referee(observers);
 
     this.read = read;
+    this.threads = threads;
   }
 
   @Override
@@ -67,20 +104,90 @@ public class TournamentManager implements ITournamentManager {
     playerNames = new HashMap<>();
     results = new ArrayList<>();
     cheaters = new ArrayList<>();
+    this.players = new ArrayList<>(players);
+    meetUpsPlayed = 0;
 
 
     ensureUniqueNames(players);
 
-    for (int i = 0; i < players.size(); i += 1) {
-      for (int j = i + 1; j < players.size(); j += 1) {
-        runMeetUp(players.get(i), players.get(j));
-      }
+    Supplier<IReferee> referees = threads == 1 ? () -> ref : () -> new Referee(new ArrayList<>(observers));
+    // one executor for every round, so its threads are started once per tournament
+    try (RoundExecutor executor = new RoundExecutor(threads, referees, MEET_UP_GAMES)) {
+      roundExecutor = executor;
+      playMeetUps(players);
+    } finally {
+      roundExecutor = null;
     }
 
     fixCheaters();
     return determineWinners();
   }
 
+  /**
+   * Plays the meet ups of the tournament, here every player against every other player. Formats
+   * that pair players differently override this.
+   *
+   * @param players All players participating in the tourney
+   */
+  protected void playMeetUps(List<? extends IPlayer> players) {
+    if (threads == 1) {
+      for (int i = 0; i < players.size(); i += 1) {
+        for (int j = i + 1; j < players.size(); j += 1) {
+          runMeetUp(players.get(i), players.get(j));
+        }
+      }
+    } else {
+      for (List<Pairing> round : new RoundRobinScheduler().schedule(players)) {
+        playRound(round);
+      }
+    }
+  }
+
+  /**
+   * Plays a round of meet ups between disjoint pairs of players, in parallel if this manager has
+   * more than one thread, and records their results. Meet ups of known cheaters are not played.
+   *
+   * @param round pairings that share no players
+   * @return the results of the meet ups played, in the order of the pairings
+   */
+  protected List<GameResult> playRound(List<Pairing> round) {
+    List<GameResult> roundResults = roundExecutor.runRound(round, cheaters);
+
+    meetUpsPlayed += roundResults.size();
+    results.addAll(roundResults);
+    return roundResults;
+  }
+
+  /**
+   * Returns whether the given player has been caught cheating in this tournament so far.
+   *
+   * @param player the player to check
+   * @return true if the player is a cheater
+   */
+  protected boolean isCheater(IPlayer player) {
+    return cheaters.contains(player);
+  }
+
+  /**
+   * Ranks the players of the last tournament from first to last, here by the number of meet ups
+   * won. Ties keep the order the players were given in, and cheaters come last in the order they
+   * were caught.
+   *
+   * @return every player of the last tournament, best first
+   */
+  protected List<IPlayer> rankPlayers() {
+    Map<IPlayer, Integer> wins = new HashMap<>();
+    for (GameResult result : results) {
+      wins.merge(result.getWinner(), 1, Integer::sum);
+    }
+
+    List<IPlayer> ranking = new ArrayList<>(players);
+    ranking.removeAll(cheaters);
+    ranking.sort(Comparator.comparing((IPlayer p) -> wins.getOrDefault(p, 0)).reversed());
+    ranking.addAll(cheaters);
+    return ranking;
+  }
+
   /**
    *
    * This method determines the winner of a tournament. It will look through the list
@@ -89,8 +196,9 @@ public class TournamentManager implements ITournamentManager {
    *
    * @return the player who won the tournament, empty if there is a tie.
    */
-  private List<IPlayer> determineWinners() {
-    Map<IPlayer, Integer> wins = new HashMap<>();
+  protected List<IPlayer> determineWinners() {
+    // Ties are listed in the order the players first won, not in hash order
+    Map<IPlayer, Integer> wins = new LinkedHashMap<>();
 
     for (GameResult result : results) {
       IPlayer gameWinner = result.getWinner();
@@ -197,8 +305,17 @@ public class TournamentManager implements ITournamentManager {
       return;
     }
 
-    GameResult meetUpResult = ref.bestOfN(player1, player2, MEET_UP_GAMES);
+    recordMeetUp(ref.bestOfN(player1, player2, MEET_UP_GAMES));
+    meetUpsPlayed += 1;
+  }
 
+  /**
+   * Adds the result of a meet up to the list of GameResults, and its loser to the cheaters if
+   * they cheated.
+   *
+   * @param meetUpResult the combined result of the meet up
+   */
+  private void recordMeetUp(GameResult meetUpResult) {
     if (meetUpResult.didLoserCheat()) {
       // if a player cheated, add it to the list of cheaters
       cheaters.add(meetUpResult.getLoser());
@@ -206,7 +323,6 @@ public class TournamentManager implements ITournamentManager {
 
     // Add this result to the list of results
     this.results.add(meetUpResult);
-
   }
 
   /**
@@ -280,6 +396,25 @@ public class TournamentManager implements ITournamentManager {
     );
   }
 
+  @Override
+  public Optional<TournamentSummary> getSummary() {
+    if (results == null) {
+      return Optional.empty();
+    }
+
+    List<IPlayer> ranking = rankPlayers();
+    int agreeing = 0;
+    for (GameResult result : results) {
+      if (ranking.indexOf(result.getWinner()) < ranking.indexOf(result.getLoser())) {
+        agreeing += 1;
+      }
+    }
+    double agreement = results.isEmpty() ? 1 : agreeing / (double) results.size();
+
+    List<String> names = ranking.stream().map(p -> playerNames.get(p)).collect(Collectors.toList());
+    return Optional.of(new TournamentSummary(meetUpsPlayed, names, agreement));
+  }
+
   /**
    * Gets the name of the given player object
    *
@@ -305,7 +440,7 @@ public class TournamentManager implements ITournamentManager {
     JsonNode observersNode = config.get("observers");
 
     List<IPlayer> players = new ArrayList<>();
-    List<IObserver> observers = new ArrayList<>();
+    List<AsyncObserver> observers = new ArrayList<>();
 
     for(int i = 0; i < playersNode.size(); i++) {
       JsonNode playerNode = playersNode.get(i);
@@ -322,17 +457,25 @@ public class TournamentManager implements ITournamentManager {
       String name = observerNode.get(0).asText();
       String path = observerNode.get(1).asText();
 
+      // Observers are updated on their own threads, so a slow one only holds up games once its
+      // buffer is full. Parallel meet ups share them, so no board may be dropped
       IObserver observer = makeObserver(name, path);
-      observers.add(observer);
-
-    }
+      observers.add(new AsyncObserver(observer, AsyncObserver.DEFAULT_CAPACITY, AsyncObserver.Overflow.BLOCK));
 
-    for (IObserver o : observers) {
-      ref.addObserver(o);
     }
 
-    return this.runTournament(players);
+    // The referee plays with this manager's list of observers, parallel meet ups copy it
+    this.observers.addAll(observers);
 
+    try {
+      return this.runTournament(players);
+    } finally {
+      // Delivers every update before the winners are reported
+      for (AsyncObserver observer : observers) {
+        observer.close();
+      }
+      this.observers.removeAll(observers);
+    }
   }
 
   /**
@@ -0,0 +1,54 @@
+package admin.tournament;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Summarizes a finished tournament: the final ranking, how many meet ups it took to reach it, and
+ * how well the ranking agrees with the results of those meet ups. Tournament formats trade meet
+ * ups for agreement, so the two are reported together.
+ */
+public class TournamentSummary {
+
+  private final int meetUps;
+  private final List<String> ranking;
+  private final double rankingAgreement;
+
+  /**
+   * Creates a summary of a tournament.
+   *
+   * @param meetUps number of meet ups played
+   * @param ranking names of the players from first to last
+   * @param rankingAgreement fraction of meet up results won by the player ranked higher
+   */
+  public TournamentSummary(int meetUps, List<String> ranking, double rankingAgreement) {
+    this.meetUps = meetUps;
+    this.ranking = Collections.unmodifiableList(ranking);
+    this.rankingAgreement = rankingAgreement;
+  }
+
+  public int getMeetUps() {
+    return meetUps;
+  }
+
+  public List<String> getRanking() {
+    return ranking;
+  }
+
+  /**
+   * Returns the fraction of meet up results won by the player ranked higher, 1 when the ranking
+   * contradicts no result. Every format has upsets, so lower is not necessarily worse for a format
+   * that plays fewer meet ups, but it shows how much a ranking can be trusted.
+   *
+   * @return a fraction between 0 and 1
+   */
+  public double getRankingAgreement() {
+    return rankingAgreement;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d meet ups, ranking agrees with %.1f%% of results", meetUps,
+        rankingAgreement * 100);
+  }
+}
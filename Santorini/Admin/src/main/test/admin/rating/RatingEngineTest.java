@@ -0,0 +1,230 @@
+package admin.rating;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import admin.result.GameResult;
+import common.interfaces.IPlayer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Test;
+
+public class RatingEngineTest {
+
+  private IPlayer makePlayer(String name) {
+    IPlayer player = mock(IPlayer.class);
+    when(player.getPlayerName()).thenReturn(name);
+    return player;
+  }
+
+  /**
+   * Tests that a game between new players moves their ratings apart by the same amount and shrinks
+   * both deviations.
+   */
+  @Test
+  public void testFirstGame() {
+    RatingEngine engine = new RatingEngine();
+    engine.record("one", "two", false);
+
+    Rating winner = engine.getRating("one").get();
+    Rating loser = engine.getRating("two").get();
+    assertThat(winner.getRating()).isGreaterThan(Rating.INITIAL_RATING);
+    assertThat(loser.getRating()).isLessThan(Rating.INITIAL_RATING);
+    assertThat(winner.getRating() + loser.getRating()).isCloseTo(2 * Rating.INITIAL_RATING, offset(0.001));
+    assertThat(winner.getDeviation()).isLessThan(Rating.INITIAL_DEVIATION);
+    assertThat(winner.getGames()).isEqualTo(1);
+    assertThat(engine.getRating("three").isPresent()).isFalse();
+  }
+
+  /**
+   * Tests that beating a much stronger player gains more than beating a much weaker one.
+   */
+  @Test
+  public void testUpsetGainsMore() {
+    RatingEngine engine = new RatingEngine();
+    for (int i = 0; i < 10; i += 1) {
+      engine.record("strong", "weak", false);
+    }
+    engine.record("first", "second", false);
+    engine.record("second", "first", false);
+
+    double before = engine.getRating("first").get().getRating();
+    engine.record("first", "weak", false);
+    double againstWeak = engine.getRating("first").get().getRating() - before;
+
+    before = engine.getRating("second").get().getRating();
+    engine.record("second", "strong", false);
+    double againstStrong = engine.getRating("second").get().getRating() - before;
+
+    assertThat(againstStrong).isGreaterThan(againstWeak);
+  }
+
+  /**
+   * Tests that a game lost by cheating costs the cheater but gains the winner nothing.
+   */
+  @Test
+  public void testCheaterLoss() {
+    RatingEngine engine = new RatingEngine();
+    IPlayer one = makePlayer("one");
+    IPlayer two = makePlayer("two");
+    engine.record(new GameResult(one, two, false));
+
+    Rating winnerBefore = engine.getRating("one").get();
+    GameResult result = new GameResult(one, two, false);
+    result.disqualifyWinner();
+    engine.record(result);
+
+    Rating winnerAfter = engine.getRating("two").get();
+    Rating cheater = engine.getRating("one").get();
+    assertThat(winnerAfter.getRating()).isLessThan(Rating.INITIAL_RATING);
+    assertThat(winnerAfter.getGames()).isEqualTo(1);
+    assertThat(cheater.getRating()).isLessThan(winnerBefore.getRating());
+    assertThat(cheater.getGames()).isEqualTo(2);
+    assertThat(cheater.getCheats()).isEqualTo(1);
+  }
+
+  /**
+   * Tests that a winner disqualified after the game was rated loses rating and is counted as a
+   * cheater, while the game is not counted again and the opponent's rating is left alone.
+   */
+  @Test
+  public void testDisqualifyAfterTheFact() {
+    RatingEngine engine = new RatingEngine();
+    engine.record("one", "two", false);
+    Rating cheaterBefore = engine.getRating("one").get();
+    Rating opponentBefore = engine.getRating("two").get();
+
+    engine.disqualify("one", "two");
+
+    Rating cheater = engine.getRating("one").get();
+    assertThat(cheater.getRating()).isLessThan(cheaterBefore.getRating());
+    assertThat(cheater.getGames()).isEqualTo(1);
+    assertThat(cheater.getCheats()).isEqualTo(1);
+    assertThat(engine.getRating("two").get().getRating()).isEqualTo(opponentBefore.getRating());
+    assertThat(engine.getRating("two").get().getGames()).isEqualTo(1);
+  }
+
+  /**
+   * Tests that players are ranked by conservative rating, so one lucky win does not top a long
+   * winning record.
+   */
+  @Test
+  public void testRanking() {
+    RatingEngine engine = new RatingEngine();
+    for (int i = 0; i < 20; i += 1) {
+      engine.record("veteran", "rookie" + i, false);
+    }
+    engine.record("lucky", "rookie0", false);
+
+    assertThat(engine.getRanking().subList(0, 2)).isEqualTo(Arrays.asList("veteran", "lucky"));
+    assertThat(engine.getRanking()).hasSize(22);
+  }
+
+  /**
+   * Tests that ratings written and read back are unchanged, and that a loaded engine keeps rating
+   * from where it left off.
+   */
+  @Test
+  public void testWriteRead() throws IOException {
+    RatingEngine engine = new RatingEngine();
+    engine.record("one", "two", false);
+    engine.record("two", "three", true);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    engine.write(out);
+    RatingEngine loaded = new RatingEngine();
+    loaded.read(new ByteArrayInputStream(out.toByteArray()));
+
+    assertThat(loaded.size()).isEqualTo(3);
+    for (String name : Arrays.asList("one", "two", "three")) {
+      Rating expected = engine.getRating(name).get();
+      Rating actual = loaded.getRating(name).get();
+      assertThat(actual.getRating()).isEqualTo(expected.getRating());
+      assertThat(actual.getDeviation()).isEqualTo(expected.getDeviation());
+      assertThat(actual.getVolatility()).isEqualTo(expected.getVolatility());
+      assertThat(actual.getGames()).isEqualTo(expected.getGames());
+      assertThat(actual.getCheats()).isEqualTo(expected.getCheats());
+    }
+
+    engine.record("three", "one", false);
+    loaded.record("three", "one", false);
+    assertThat(loaded.getRating("three").get().getRating())
+        .isEqualTo(engine.getRating("three").get().getRating());
+  }
+
+  /**
+   * Tests saving to and loading from a file.
+   */
+  @Test
+  public void testSaveLoad() throws IOException {
+    Path file = Files.createTempFile("ratings", ".bin");
+    try {
+      RatingEngine engine = new RatingEngine();
+      engine.record("one", "two", false);
+      engine.save(file);
+
+      RatingEngine loaded = new RatingEngine();
+      loaded.load(file);
+      assertThat(loaded.getRanking()).isEqualTo(engine.getRanking());
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /**
+   * Tests that a save that fails leaves no temporary file behind.
+   */
+  @Test
+  public void testFailedSaveCleansUp() throws IOException {
+    Path directory = Files.createTempDirectory("ratings");
+    // a directory that is not empty cannot be replaced by the saved file
+    Path file = directory.resolve("ratings.bin");
+    Path blocker = Files.createFile(Files.createDirectory(file).resolve("blocker"));
+    try {
+      RatingEngine engine = new RatingEngine();
+      engine.record("one", "two", false);
+      assertThatThrownBy(() -> engine.save(file)).isInstanceOf(IOException.class);
+
+      try (Stream<Path> files = Files.list(directory)) {
+        assertThat(files.collect(Collectors.toList())).containsExactly(file);
+      }
+    } finally {
+      Files.delete(blocker);
+      Files.delete(file);
+      Files.delete(directory);
+    }
+  }
+
+  /**
+   * Tests that reading something other than a ratings file fails.
+   */
+  @Test(expected = IOException.class)
+  public void testReadNotRatings() throws IOException {
+    new RatingEngine().read(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}));
+  }
+
+  /**
+   * Tests that a player cannot play themselves.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testSamePlayer() {
+    new RatingEngine().record("one", "one", false);
+  }
+
+  /**
+   * Tests that a player cannot be disqualified for a game against themselves.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testDisqualifySamePlayer() {
+    new RatingEngine().disqualify("one", "one");
+  }
+}
@@ -0,0 +1,311 @@
+package admin.referee;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import admin.referee.AsyncObserver.Overflow;
+import common.board.Board;
+import common.board.IBoard;
+import common.board.IReadonlyBoard;
+import common.data.Action;
+import common.data.ActionType;
+import common.data.Direction;
+import common.interfaces.IObserver;
+import common.interfaces.IPlayer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import observer.StdOutObserver;
+import org.junit.Test;
+
+public class AsyncObserverTest {
+
+  /**
+   * An observer that records what it is told, after waiting for its gate to open.
+   */
+  private static class RecordingObserver implements IObserver {
+    private final List<String> updates = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch gate;
+
+    RecordingObserver(CountDownLatch gate) {
+      this.gate = gate;
+    }
+
+    private void record(String update) {
+      try {
+        gate.await();
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      updates.add(update);
+    }
+
+    @Override
+    public void update(IReadonlyBoard board) {
+      record("board " + board.height(0, 0));
+    }
+
+    @Override
+    public void update(List<Action> turn) {
+      record("turn " + turn.size());
+    }
+
+    @Override
+    public void updateGiveUp(IPlayer player) {
+      record("give up " + player.getPlayerName());
+    }
+
+    @Override
+    public void updateWin(IPlayer player) {
+      record("win " + player.getPlayerName());
+    }
+
+    @Override
+    public void updateError(String error) {
+      record("error " + error);
+    }
+  }
+
+  private IPlayer makePlayer(String name) {
+    IPlayer player = mock(IPlayer.class);
+    when(player.getPlayerName()).thenReturn(name);
+    return player;
+  }
+
+  /**
+   * Tests that updates are delivered in the order they were given, and all of them by close.
+   */
+  @Test
+  public void testDeliversInOrder() {
+    RecordingObserver recorder = new RecordingObserver(new CountDownLatch(0));
+    AsyncObserver observer = new AsyncObserver(recorder);
+    List<String> expected = new ArrayList<>();
+
+    for (int i = 0; i < 100; i += 1) {
+      observer.updateError("" + i);
+      expected.add("error " + i);
+    }
+    observer.updateGiveUp(makePlayer("one"));
+    observer.updateWin(makePlayer("two"));
+    expected.add("give up one");
+    expected.add("win two");
+    observer.close();
+
+    assertThat(recorder.updates).isEqualTo(expected);
+  }
+
+  /**
+   * Tests that the observer is given the board as it was when updated, not as it is later.
+   */
+  @Test
+  public void testCopiesBoard() throws InterruptedException {
+    CountDownLatch gate = new CountDownLatch(1);
+    RecordingObserver recorder = new RecordingObserver(gate);
+    AsyncObserver observer = new AsyncObserver(recorder);
+    IBoard board = new Board();
+    board.createWorker("one", 1, 1);
+    List<Action> turn = new ArrayList<>();
+    turn.add(new Action(ActionType.MOVE, "one1", new Direction("PUT", "SOUTH")));
+
+    observer.update(board);
+    observer.update(turn);
+    board.build("one1", new Direction("WEST", "NORTH"));
+    turn.clear();
+    gate.countDown();
+
+    assertThat(observer.flush(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(recorder.updates).containsExactly("board 0", "turn 1");
+    observer.close();
+  }
+
+  /**
+   * Tests that with DROP_OLDEST a stuck observer never holds up updates, and the newest ones are
+   * kept.
+   */
+  @Test
+  public void testDropOldest() {
+    CountDownLatch gate = new CountDownLatch(1);
+    RecordingObserver recorder = new RecordingObserver(gate);
+    AsyncObserver observer = new AsyncObserver(recorder, 4, Overflow.DROP_OLDEST);
+
+    for (int i = 0; i < 20; i += 1) {
+      observer.updateError("" + i);
+    }
+    gate.countDown();
+    observer.close();
+
+    // The observer may already have taken the first update when the rest arrived
+    List<String> updates = recorder.updates;
+    assertThat(updates.subList(updates.size() - 4, updates.size()))
+        .containsExactly("error 16", "error 17", "error 18", "error 19");
+    assertThat(observer.getDropped()).isEqualTo(20 - updates.size());
+  }
+
+  /**
+   * Tests that COALESCE_BOARDS drops waiting boards rather than other updates, keeping the newest
+   * board.
+   */
+  @Test
+  public void testCoalesceBoards() {
+    CountDownLatch gate = new CountDownLatch(1);
+    RecordingObserver recorder = new RecordingObserver(gate);
+    AsyncObserver observer = new AsyncObserver(recorder, 3, Overflow.COALESCE_BOARDS);
+    IBoard board = new Board();
+    board.createWorker("one", 1, 1);
+
+    observer.updateError("start");
+    for (int i = 0; i < 4; i += 1) {
+      observer.update(board);
+      board.build("one1", new Direction("WEST", "NORTH"));
+    }
+    observer.updateError("end");
+    gate.countDown();
+    observer.close();
+
+    List<String> updates = recorder.updates;
+    assertThat(updates).startsWith("error start").endsWith("board 3", "error end");
+    assertThat(observer.getDropped()).isEqualTo(6 - updates.size());
+  }
+
+  /**
+   * Tests that with BLOCK the referee waits for room rather than dropping updates.
+   */
+  @Test
+  public void testBlock() throws InterruptedException {
+    CountDownLatch gate = new CountDownLatch(1);
+    RecordingObserver recorder = new RecordingObserver(gate);
+    AsyncObserver observer = new AsyncObserver(recorder, 2, Overflow.BLOCK);
+
+    Thread game = new Thread(() -> {
+      for (int i = 0; i < 10; i += 1) {
+        observer.updateError("" + i);
+      }
+    });
+    game.start();
+    game.join(200);
+    assertThat(game.isAlive()).isTrue();
+
+    gate.countDown();
+    game.join(5000);
+    observer.close();
+
+    assertThat(recorder.updates).hasSize(10);
+    assertThat(observer.getDropped()).isEqualTo(0);
+  }
+
+  /**
+   * Tests that by default no board is dropped, even with more waiting than fit in the buffer.
+   */
+  @Test
+  public void testDefaultKeepsEveryBoard() throws InterruptedException {
+    CountDownLatch gate = new CountDownLatch(1);
+    RecordingObserver recorder = new RecordingObserver(gate);
+    AsyncObserver observer = new AsyncObserver(recorder);
+    int boards = AsyncObserver.DEFAULT_CAPACITY + 10;
+
+    Thread game = new Thread(() -> {
+      for (int i = 0; i < boards; i += 1) {
+        observer.update(new Board());
+      }
+    });
+    game.start();
+    game.join(200);
+    gate.countDown();
+    game.join(5000);
+    observer.close();
+
+    assertThat(recorder.updates).hasSize(boards);
+    assertThat(observer.getDropped()).isEqualTo(0);
+  }
+
+  /**
+   * Tests that an observer throwing an exception does not stop later updates.
+   */
+  @Test
+  public void testFailingObserver() {
+    RecordingObserver recorder = new RecordingObserver(new CountDownLatch(0));
+    AsyncObserver observer = new AsyncObserver(new RecordingObserver(new CountDownLatch(0)) {
+      @Override
+      public void updateError(String error) {
+        if (error.equals("bad")) {
+          throw new IllegalStateException(error);
+        }
+        recorder.updateError(error);
+      }
+    });
+
+    observer.updateError("bad");
+    observer.updateError("good");
+    observer.close();
+
+    assertThat(recorder.updates).containsExactly("error good");
+    assertThat(observer.getFailures()).isEqualTo(1);
+  }
+
+  /**
+   * Tests that an observer throwing an error neither stops later updates nor leaves the referee
+   * waiting for room that never comes.
+   */
+  @Test
+  public void testObserverThrowingError() throws InterruptedException {
+    RecordingObserver recorder = new RecordingObserver(new CountDownLatch(0));
+    AsyncObserver observer = new AsyncObserver(new RecordingObserver(new CountDownLatch(0)) {
+      @Override
+      public void updateError(String error) {
+        if (error.equals("0")) {
+          throw new StackOverflowError(error);
+        }
+        recorder.updateError(error);
+      }
+    }, 1, Overflow.BLOCK);
+
+    Thread game = new Thread(() -> {
+      for (int i = 0; i < 10; i += 1) {
+        observer.updateError("" + i);
+      }
+    });
+    game.start();
+    game.join(5000);
+    assertThat(game.isAlive()).isFalse();
+    observer.close();
+
+    assertThat(recorder.updates).hasSize(9);
+    assertThat(observer.getFailures()).isEqualTo(1);
+  }
+
+  /**
+   * Tests that a closed observer takes no more updates.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testClosed() {
+    AsyncObserver observer = new AsyncObserver(mock(IObserver.class));
+    observer.close();
+
+    observer.updateError("late");
+  }
+
+  /**
+   * Tests that an observer cannot have an empty buffer.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testZeroCapacity() {
+    new AsyncObserver(mock(IObserver.class), 0, Overflow.BLOCK);
+  }
+
+  /**
+   * Tests that closing flushes an observer that buffers its output.
+   */
+  @Test
+  public void testCloseFlushes() {
+    StringBuilder out = new StringBuilder();
+    AsyncObserver observer = new AsyncObserver(new StdOutObserver(out, 100000, 100000));
+
+    observer.updateError("Error!!");
+    observer.close();
+
+    assertThat(out.toString()).isEqualTo("\"Error!!\"\n");
+  }
+}
@@ -5,16 +5,23 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import admin.result.GameResult;
+import common.board.BitBoard;
+import common.board.IBoard;
 import common.data.Action;
 import common.data.PlaceWorkerAction;
+import common.data.Worker;
+import common.exceptions.PlayerFailedException;
 import common.interfaces.IObserver;
 import common.interfaces.IPlayer;
 import common.rules.IRulesEngine;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import observer.StdOutObserver;
 import org.junit.Test;
 import player.AIPlayer;
@@ -225,6 +232,18 @@ public class RefereeTest {
     assertThat(result.didLoserCheat()).isFalse();
   }
 
+  @Test
+  public void testPlayGameOnBitBoard() {
+    IReferee ref = new Referee();
+
+    IPlayer one = new AIPlayer("one", new Strategy(new DiagonalPlacementStrategy(), new StayAliveStrategy(1)));
+    IPlayer two = new AIPlayer("two", new Strategy(new DiagonalPlacementStrategy(), new StayAliveStrategy(1)));
+
+    GameResult result = ref.playGame(new BitBoard(), one, two);
+
+    assertThat(result.didLoserCheat()).isFalse();
+  }
+
   @Test
   public void testGiveUpAction() {
     IReferee ref = new Referee();
@@ -238,4 +257,82 @@ public class RefereeTest {
     assertThat(result.getLoser()).isEqualTo(two);
     assertThat(result.didLoserCheat()).isFalse();
   }
+
+  /**
+   * Rules under which every turn is legal and nobody ever wins or loses, with no workers to place.
+   */
+  private IRulesEngine makeEndlessRules() {
+    IRulesEngine rules = makeRules();
+    when(rules.isTurnLegal(any(), any(), any())).thenReturn(true);
+    return rules;
+  }
+
+  /**
+   * Tests that a long game runs turn after turn until the turn limit
+   */
+  @Test
+  public void testLongGameReachesTurnLimit() {
+    IPlayer player1 = makePlayer("one");
+    IPlayer player2 = makePlayer("two");
+    IBoard board = mock(IBoard.class);
+
+    IReferee referee = new Referee(makeEndlessRules(), new ArrayList<>(), 2000);
+    GameResult result = referee.playGame(board, player1, player2);
+
+    // neither player has workers standing higher, so the second player wins the tie
+    assertThat(result.getWinner()).isEqualTo(player2);
+    assertThat(result.getLoser()).isEqualTo(player1);
+    assertThat(result.didLoserCheat()).isFalse();
+  }
+
+  /**
+   * Tests that a game reaching the turn limit goes to the player whose workers stand higher
+   */
+  @Test
+  public void testTurnLimitBreaksTieByHeight() {
+    IPlayer player1 = makePlayer("one");
+    IPlayer player2 = makePlayer("two");
+    IBoard board = mock(IBoard.class);
+    when(board.getPlayerWorkers("one")).thenReturn(Collections.singletonList(new Worker("one", 1, 0, 0)));
+    when(board.getPlayerWorkers("two")).thenReturn(Collections.singletonList(new Worker("two", 1, 5, 5)));
+    when(board.height(0, 0)).thenReturn(2);
+    when(board.height(5, 5)).thenReturn(1);
+    IObserver observer = mock(IObserver.class);
+
+    IReferee referee = new Referee(makeEndlessRules(), new ArrayList<>(), 4);
+    referee.addObserver(observer);
+    GameResult result = referee.playGame(board, player1, player2);
+
+    assertThat(result.getWinner()).isEqualTo(player1);
+    assertThat(result.didLoserCheat()).isFalse();
+    verify(observer).updateWin(player1);
+  }
+
+  /**
+   * Tests that a negative turn limit is rejected
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeTurnLimit() {
+    new Referee(makeRules(), new ArrayList<>(), -1);
+  }
+
+  /**
+   * Tests that a player who fails mid game, like a remote player who disconnects, loses as a
+   * cheater at once rather than after the turn timeout
+   */
+  @Test
+  public void testFailedPlayerCheatsAtOnce() {
+    IPlayer player1 = makePlayer("one");
+    IPlayer player2 = makePlayer("two");
+    when(player2.getTurn(any())).thenThrow(new PlayerFailedException("Connection failed during turn"));
+    IBoard board = mock(IBoard.class);
+
+    IReferee referee = new Referee(makeEndlessRules(), new ArrayList<>(), 10);
+    long start = System.nanoTime();
+    GameResult result = referee.playGame(board, player1, player2);
+
+    assertThat(result.getWinner()).isEqualTo(player1);
+    assertThat(result.didLoserCheat()).isTrue();
+    assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(1));
+  }
 }
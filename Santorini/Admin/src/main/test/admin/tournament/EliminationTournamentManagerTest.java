@@ -0,0 +1,111 @@
+package admin.tournament;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import admin.result.GameResult;
+import admin.tournament.EliminationTournamentManager.Bracket;
+import common.interfaces.IPlayer;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import player.AIPlayer;
+import player.BreakerPlayer;
+import strategy.DiagonalPlacementStrategy;
+import strategy.StayAliveStrategy;
+import strategy.Strategy;
+
+public class EliminationTournamentManagerTest {
+
+  private List<IPlayer> makeField(int size) {
+    List<IPlayer> players = new ArrayList<>();
+    for (int i = 0; i < size; i += 1) {
+      String name = "player" + (char) ('a' + i);
+      players.add(new AIPlayer(name, new Strategy(new DiagonalPlacementStrategy(), new StayAliveStrategy(1))));
+    }
+    return players;
+  }
+
+  /**
+   * Tests that single elimination plays n - 1 meet ups and crowns a champion who won them all
+   */
+  @Test
+  public void testSingleElimination() {
+    EliminationTournamentManager manager = new EliminationTournamentManager(new StringReader(""), 2,
+        Bracket.SINGLE);
+
+    List<IPlayer> winners = manager.runTournament(makeField(8));
+
+    assertThat(winners).hasSize(1);
+    IPlayer champion = winners.get(0);
+    List<GameResult> results = manager.getResults().get();
+    assertThat(results).hasSize(7);
+    assertThat(results.stream().filter(r -> r.getWinner().equals(champion))).hasSize(3);
+    assertThat(results.stream().filter(r -> r.getLoser().equals(champion))).isEmpty();
+
+    TournamentSummary summary = manager.getSummary().get();
+    assertThat(summary.getMeetUps()).isEqualTo(7);
+    assertThat(summary.getRanking()).hasSize(8).doesNotHaveDuplicates();
+    assertThat(summary.getRanking().get(0)).isEqualTo(champion.getPlayerName());
+  }
+
+  /**
+   * Tests that single elimination handles a field that is not a power of two with byes
+   */
+  @Test
+  public void testSingleEliminationByes() {
+    EliminationTournamentManager manager = new EliminationTournamentManager(new StringReader(""),
+        Bracket.SINGLE);
+
+    List<IPlayer> winners = manager.runTournament(makeField(5));
+
+    assertThat(winners).hasSize(1);
+    assertThat(manager.getSummary().get().getMeetUps()).isEqualTo(4);
+  }
+
+  /**
+   * Tests that in double elimination every player but the champion loses twice
+   */
+  @Test
+  public void testDoubleElimination() {
+    EliminationTournamentManager manager = new EliminationTournamentManager(new StringReader(""), 2,
+        Bracket.DOUBLE);
+
+    List<IPlayer> players = makeField(4);
+    List<IPlayer> winners = manager.runTournament(players);
+
+    assertThat(winners).hasSize(1);
+    IPlayer champion = winners.get(0);
+    List<GameResult> results = manager.getResults().get();
+    for (IPlayer player : players) {
+      long lost = results.stream().filter(r -> r.getLoser().equals(player)).count();
+      if (player.equals(champion)) {
+        assertThat(lost).isLessThanOrEqualTo(1);
+      } else {
+        assertThat(lost).isEqualTo(2);
+      }
+    }
+    assertThat(results.size()).isBetween(6, 7);
+  }
+
+  /**
+   * Tests that a cheater is knocked out at once, ranked last and never the champion
+   */
+  @Test
+  public void testCheaterKnockedOut() {
+    EliminationTournamentManager manager = new EliminationTournamentManager(new StringReader(""),
+        Bracket.DOUBLE);
+    List<IPlayer> players = makeField(3);
+    players.add(0, new BreakerPlayer("breaker"));
+
+    List<IPlayer> winners = manager.runTournament(players);
+
+    assertThat(manager.getCheatersNames().get()).containsExactly("breaker");
+    assertThat(manager.getResults().get().stream()
+                      .filter(r -> r.getLoser().getPlayerName().equals("breaker"))).hasSize(1);
+    assertThat(winners).hasSize(1);
+    assertThat(winners.get(0).getPlayerName()).isNotEqualTo("breaker");
+    List<String> ranking = manager.getSummary().get().getRanking();
+    assertThat(ranking.get(ranking.size() - 1)).isEqualTo("breaker");
+  }
+}
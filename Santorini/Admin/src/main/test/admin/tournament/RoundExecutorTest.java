@@ -0,0 +1,117 @@
+package admin.tournament;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import admin.referee.IReferee;
+import admin.result.GameResult;
+import common.interfaces.IPlayer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.Test;
+
+public class RoundExecutorTest {
+
+  /**
+   * Tests that a player who cheats in one round plays none of their meet ups in later rounds,
+   * while the other meet ups are all played and recorded in round order
+   */
+  @Test
+  public void testCheaterSkipsLaterRounds() {
+    IPlayer one = mock(IPlayer.class);
+    IPlayer two = mock(IPlayer.class);
+    IPlayer three = mock(IPlayer.class);
+    IPlayer four = mock(IPlayer.class);
+    IReferee referee = mock(IReferee.class);
+
+    GameResult oneBeatsTwo = new GameResult(one, two, false);
+    GameResult fourCaughtCheating = new GameResult(three, four, true);
+    GameResult oneBeatsThree = new GameResult(one, three, false);
+    when(referee.bestOfN(eq(one), eq(two), anyInt())).thenReturn(oneBeatsTwo);
+    when(referee.bestOfN(eq(three), eq(four), anyInt())).thenReturn(fourCaughtCheating);
+    when(referee.bestOfN(eq(one), eq(three), anyInt())).thenReturn(oneBeatsThree);
+
+    List<List<Pairing>> rounds = Arrays.asList(
+        Arrays.asList(new Pairing(one, two), new Pairing(three, four)),
+        Arrays.asList(new Pairing(one, three), new Pairing(two, four)));
+
+    for (int threads : new int[] {1, 2}) {
+      List<IPlayer> cheaters = new ArrayList<>();
+      try (RoundExecutor executor = new RoundExecutor(threads, () -> referee, 3)) {
+        List<GameResult> results = executor.runRounds(rounds, cheaters);
+
+        assertThat(results).containsExactly(oneBeatsTwo, fourCaughtCheating, oneBeatsThree);
+        assertThat(cheaters).containsExactly(four);
+      }
+    }
+    verify(referee, never()).bestOfN(eq(two), eq(four), anyInt());
+  }
+
+  /**
+   * Tests that one executor plays round after round on the same threads, and that a single
+   * thread plays its meet ups on the calling thread
+   */
+  @Test
+  public void testRoundsShareThreads() {
+    IPlayer one = mock(IPlayer.class);
+    IPlayer two = mock(IPlayer.class);
+    List<Thread> ran = new ArrayList<>();
+    IReferee referee = mock(IReferee.class);
+    when(referee.bestOfN(eq(one), eq(two), anyInt())).thenAnswer(invocation -> {
+      synchronized (ran) {
+        ran.add(Thread.currentThread());
+      }
+      return new GameResult(one, two, false);
+    });
+    List<Pairing> round = Arrays.asList(new Pairing(one, two));
+
+    try (RoundExecutor executor = new RoundExecutor(1, () -> referee, 3)) {
+      executor.runRound(round, new ArrayList<>());
+    }
+    assertThat(ran).containsExactly(Thread.currentThread());
+
+    ran.clear();
+    try (RoundExecutor executor = new RoundExecutor(2, () -> referee, 3)) {
+      for (int i = 0; i < 5; i += 1) {
+        assertThat(executor.runRound(round, new ArrayList<>())).hasSize(1);
+      }
+    }
+    assertThat(ran).hasSize(5).doesNotContain(Thread.currentThread());
+    assertThat(new HashSet<>(ran).size()).isLessThanOrEqualTo(2);
+  }
+
+  /**
+   * Tests that a player known to cheat before the first round plays no meet ups
+   */
+  @Test
+  public void testKnownCheaterNeverPlays() {
+    IPlayer one = mock(IPlayer.class);
+    IPlayer two = mock(IPlayer.class);
+    IReferee referee = mock(IReferee.class);
+    List<IPlayer> cheaters = new ArrayList<>();
+    cheaters.add(two);
+
+    try (RoundExecutor executor = new RoundExecutor(2, () -> referee, 3)) {
+      List<GameResult> results = executor.runRounds(Arrays.asList(Arrays.asList(new Pairing(one, two))), cheaters);
+
+      assertThat(results).isEmpty();
+    }
+    verify(referee, never()).bestOfN(any(), any(), anyInt());
+  }
+
+  /**
+   * Tests that an executor cannot play meet ups on fewer than one thread
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoThreads() {
+    new RoundExecutor(0, () -> mock(IReferee.class), 3);
+  }
+}
@@ -0,0 +1,84 @@
+package admin.tournament;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import common.interfaces.IPlayer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+public class RoundRobinSchedulerTest {
+
+  private List<IPlayer> makePlayers(int count) {
+    List<IPlayer> players = new ArrayList<>();
+    for (int i = 0; i < count; i += 1) {
+      players.add(mock(IPlayer.class));
+    }
+    return players;
+  }
+
+  /**
+   * Checks that the rounds pair every two players exactly once, never put a player in two meet
+   * ups of one round, and let the player listed first go first.
+   */
+  private void assertRoundRobin(List<IPlayer> players, List<List<Pairing>> rounds) {
+    Set<String> met = new HashSet<>();
+    for (List<Pairing> round : rounds) {
+      Set<IPlayer> playing = new HashSet<>();
+      for (Pairing pairing : round) {
+        assertThat(playing.add(pairing.getPlayer1())).isTrue();
+        assertThat(playing.add(pairing.getPlayer2())).isTrue();
+
+        int first = players.indexOf(pairing.getPlayer1());
+        int second = players.indexOf(pairing.getPlayer2());
+        assertThat(first).isLessThan(second);
+        assertThat(met.add(first + "-" + second)).isTrue();
+      }
+    }
+    assertThat(met).hasSize(players.size() * (players.size() - 1) / 2);
+  }
+
+  /**
+   * Tests that an even number of players meet in n - 1 full rounds
+   */
+  @Test
+  public void testEvenPlayers() {
+    List<IPlayer> players = makePlayers(8);
+
+    List<List<Pairing>> rounds = new RoundRobinScheduler().schedule(players);
+
+    assertThat(rounds).hasSize(7);
+    assertThat(rounds).allMatch(round -> round.size() == 4);
+    assertRoundRobin(players, rounds);
+  }
+
+  /**
+   * Tests that an odd number of players meet in n rounds, each sitting one out
+   */
+  @Test
+  public void testOddPlayers() {
+    List<IPlayer> players = makePlayers(5);
+
+    List<List<Pairing>> rounds = new RoundRobinScheduler().schedule(players);
+
+    assertThat(rounds).hasSize(5);
+    assertThat(rounds).allMatch(round -> round.size() == 2);
+    assertRoundRobin(players, rounds);
+  }
+
+  /**
+   * Tests that two players meet in a single round
+   */
+  @Test
+  public void testTwoPlayers() {
+    List<IPlayer> players = makePlayers(2);
+
+    List<List<Pairing>> rounds = new RoundRobinScheduler().schedule(players);
+
+    assertThat(rounds).hasSize(1);
+    assertRoundRobin(players, rounds);
+  }
+}
@@ -0,0 +1,88 @@
+package admin.tournament;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import admin.result.GameResult;
+import common.interfaces.IPlayer;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import player.AIPlayer;
+import player.BreakerPlayer;
+import strategy.DiagonalPlacementStrategy;
+import strategy.StayAliveStrategy;
+import strategy.Strategy;
+
+public class SwissTournamentManagerTest {
+
+  private List<IPlayer> makeField(int size) {
+    List<IPlayer> players = new ArrayList<>();
+    for (int i = 0; i < size; i += 1) {
+      String name = "player" + (char) ('a' + i);
+      players.add(new AIPlayer(name, new Strategy(new DiagonalPlacementStrategy(), new StayAliveStrategy(1))));
+    }
+    return players;
+  }
+
+  /**
+   * Tests that a Swiss tournament plays log2 n rounds with no rematches
+   */
+  @Test
+  public void testRoundsWithoutRematches() {
+    SwissTournamentManager manager = new SwissTournamentManager(new StringReader(""), 2);
+
+    List<IPlayer> winners = manager.runTournament(makeField(8));
+
+    List<GameResult> results = manager.getResults().get();
+    assertThat(results).hasSize(12);
+    Set<Set<IPlayer>> meetUps = new HashSet<>();
+    for (GameResult result : results) {
+      Set<IPlayer> pair = new HashSet<>();
+      pair.add(result.getWinner());
+      pair.add(result.getLoser());
+      assertThat(meetUps.add(pair)).isTrue();
+    }
+
+    TournamentSummary summary = manager.getSummary().get();
+    assertThat(summary.getMeetUps()).isEqualTo(12);
+    assertThat(summary.getRanking()).hasSize(8).doesNotHaveDuplicates();
+    assertThat(summary.getRankingAgreement()).isBetween(0.0, 1.0);
+    assertThat(winners).isNotEmpty();
+    assertThat(summary.getRanking().get(0)).isEqualTo(winners.get(0).getPlayerName());
+  }
+
+  /**
+   * Tests that a cheater in a Swiss tournament plays no more meet ups and is ranked last
+   */
+  @Test
+  public void testCheaterRankedLast() {
+    SwissTournamentManager manager = new SwissTournamentManager(new StringReader(""));
+    List<IPlayer> players = makeField(4);
+    players.add(1, new BreakerPlayer("breaker"));
+
+    List<IPlayer> winners = manager.runTournament(players);
+
+    assertThat(manager.getCheatersNames().get()).containsExactly("breaker");
+    assertThat(manager.getResults().get().stream()
+                      .filter(r -> r.getLoser().getPlayerName().equals("breaker"))).hasSize(1);
+    List<String> ranking = manager.getSummary().get().getRanking();
+    assertThat(ranking).hasSize(5);
+    assertThat(ranking.get(4)).isEqualTo("breaker");
+    assertThat(winners).extracting(IPlayer::getPlayerName).doesNotContain("breaker");
+  }
+
+  /**
+   * Tests that the number of rounds is log2 of the number of players, rounded up
+   */
+  @Test
+  public void testRoundsFor() {
+    assertThat(SwissTournamentManager.roundsFor(2)).isEqualTo(1);
+    assertThat(SwissTournamentManager.roundsFor(3)).isEqualTo(2);
+    assertThat(SwissTournamentManager.roundsFor(8)).isEqualTo(3);
+    assertThat(SwissTournamentManager.roundsFor(9)).isEqualTo(4);
+    assertThat(SwissTournamentManager.roundsFor(200)).isEqualTo(8);
+  }
+}
@@ -11,6 +11,7 @@ import java.io.PrintStream;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 import observer.StdOutObserver;
 import org.junit.Before;
 import org.junit.Test;
@@ -363,4 +364,69 @@ public class TournamentManagerTest {
     assertThat(winners.get(0).getPlayerName()).isEqualTo("good");
   }
 
+  /**
+   * Makes a tournament field of well behaved players and one who cheats on every turn.
+   */
+  private List<IPlayer> mixedField() {
+    List<IPlayer> players = new ArrayList<>();
+    for (String name : new String[]{"one", "two", "three", "four"}) {
+      players.add(new AIPlayer(name, new Strategy(new DiagonalPlacementStrategy(), new StayAliveStrategy(1))));
+    }
+    players.add(2, new BreakerPlayer("breaker"));
+    return players;
+  }
+
+  private List<String> resultNames(TournamentManager tournament) {
+    return tournament.getResults().get().stream()
+                     .map(r -> tournament.getPlayerName(r.getWinner()).get() + ">"
+                         + tournament.getPlayerName(r.getLoser()).get() + (r.didLoserCheat() ? "!" : ""))
+                     .collect(Collectors.toList());
+  }
+
+  /**
+   * Tests that running meet ups in parallel gives the same results, in the same order, however
+   * many meet ups run at once, and finds the same cheaters as running them one after another
+   */
+  @Test
+  public void testParallelIsDeterministic() {
+    TournamentManager sequential = new TournamentManager(new StringReader(""), 1);
+    TournamentManager twoThreads = new TournamentManager(new StringReader(""), 2);
+    TournamentManager fourThreads = new TournamentManager(new StringReader(""), 4);
+
+    sequential.runTournament(mixedField());
+    List<String> twoWinners = twoThreads.runTournament(mixedField()).stream()
+                                        .map(IPlayer::getPlayerName)
+                                        .collect(Collectors.toList());
+    List<String> fourWinners = fourThreads.runTournament(mixedField()).stream()
+                                          .map(IPlayer::getPlayerName)
+                                          .collect(Collectors.toList());
+
+    assertThat(fourWinners).isEqualTo(twoWinners);
+    assertThat(resultNames(fourThreads)).isEqualTo(resultNames(twoThreads));
+    assertThat(fourThreads.getCheatersNames().get()).containsExactly("breaker");
+    assertThat(sequential.getCheatersNames().get()).containsExactly("breaker");
+  }
+
+  /**
+   * Tests that a player who cheats in parallel meet ups plays no more meet ups, and every other
+   * pair of players still meets
+   */
+  @Test
+  public void testParallelCheaterPlaysOnce() {
+    TournamentManager parallel = new TournamentManager(new StringReader(""), 4);
+
+    parallel.runTournament(mixedField());
+    List<String> results = resultNames(parallel);
+
+    assertThat(results.stream().filter(r -> r.contains("breaker"))).hasSize(1);
+    assertThat(results).hasSize(7);
+  }
+
+  /**
+   * Tests that a tournament cannot run meet ups on fewer than one thread
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoThreads() {
+    new TournamentManager(new StringReader(""), 0);
+  }
 }
@@ -108,7 +108,7 @@ public class XBoard {
         String eastWest = node.get(2).get(0).textValue();
         String northSouth = node.get(2).get(1).textValue();
 
-        Direction d = new Direction(eastWest, northSouth);
+        Direction d = Direction.of(eastWest, northSouth);
 
         switch(command) {
             case "move":
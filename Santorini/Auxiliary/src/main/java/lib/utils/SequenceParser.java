@@ -71,7 +71,7 @@ public class SequenceParser {
         String eastWest = moveAction.get(2).get(0).textValue();
         String northSouth = moveAction.get(2).get(1).textValue();
 
-        Direction direction = new Direction(eastWest, northSouth);
+        Direction direction = Direction.of(eastWest, northSouth);
         Action result = new Action(ActionType.from(type), workerId, direction);
         results.add(result);
 
@@ -83,7 +83,7 @@ public class SequenceParser {
             String secondEastWest = buildAction.get(1).get(0).textValue();
             String secondNorthSouth = buildAction.get(1).get(1).textValue();
 
-            Direction secondDirection = new Direction(secondEastWest, secondNorthSouth);
+            Direction secondDirection = Direction.of(secondEastWest, secondNorthSouth);
             Action secondAction = new Action(ActionType.from(secondType), workerId, secondDirection);
             results.add(secondAction);
         }
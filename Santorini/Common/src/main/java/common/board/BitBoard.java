@@ -0,0 +1,518 @@
+package common.board;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import common.data.Action;
+import common.data.Direction;
+import common.data.Worker;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An IBoard for the standard 6x6 Santorini grid that packs its state into a handful of longs
+ * instead of a grid of ICell objects.
+ *
+ * Cells are numbered row-major, so the cell at (row, column) is bit {@code row * 6 + column}
+ * of every mask. Building heights are stored as one mask per level, where a bit is set in
+ * {@code levels[h - 1]} when the building on that cell has at least h floors. Workers are kept
+ * in a small slot table (player name, worker number and cell per slot) alongside an occupancy
+ * mask, so moving or building never allocates a new cell.
+ *
+ * ICells handed out by getCell are created on demand and are only snapshots of the board.
+ */
+public class BitBoard implements IBoard {
+
+    private static final int DEFAULT_ROWS = 6;
+    private static final int DEFAULT_COLUMNS = 6;
+    private static final int NUM_CELLS = DEFAULT_ROWS * DEFAULT_COLUMNS;
+    // a dome is the 4th floor, nothing can be built on top of it
+    private static final int MAX_HEIGHT = 4;
+    // enough slots for a standard two player game before the table has to grow
+    private static final int INITIAL_SLOTS = 4;
+    // marks a cell with no worker on it
+    private static final int NO_SLOT = -1;
+    // kinds of entries in the undo history
+    private static final int MOVE_RECORD = 0;
+    private static final int BUILD_RECORD = 1;
+    private static final int INITIAL_HISTORY = 16;
+
+    // levels[h - 1] has the bit of a cell set when its building has at least h floors
+    private final long[] levels;
+    // has the bit of a cell set when a worker stands on it
+    private long occupied;
+    // the worker slot standing on each cell, or NO_SLOT
+    private final int[] cellSlots;
+
+    // worker slot table, slots are handed out in creation order
+    private String[] slotPlayers;
+    private int[] slotNumbers;
+    private int[] slotCells;
+    private int numSlots;
+
+    // actions applied through apply that have not been undone yet, most recent last. Each entry
+    // packs the kind of action with the cell the worker stood on and the cell it moved to or built on
+    private int[] history;
+    private int historySize;
+
+    // Zobrist hash of the masks and slot table, updated by the primitives that change them
+    private long hash;
+
+    /**
+     * Creates an empty board with no buildings or workers.
+     */
+    public BitBoard() {
+        this.levels = new long[MAX_HEIGHT];
+        this.occupied = 0L;
+        this.cellSlots = new int[NUM_CELLS];
+        Arrays.fill(this.cellSlots, NO_SLOT);
+
+        this.slotPlayers = new String[INITIAL_SLOTS];
+        this.slotNumbers = new int[INITIAL_SLOTS];
+        this.slotCells = new int[INITIAL_SLOTS];
+        this.numSlots = 0;
+
+        this.history = new int[INITIAL_HISTORY];
+        this.historySize = 0;
+    }
+
+    /**
+     * Creates a BitBoard holding the same buildings and workers as the given board. Cells outside
+     * of the given board are left empty, mirroring the behavior of Board.
+     *
+     * @param board board to convert
+     */
+    public BitBoard(IReadonlyBoard board) {
+        this();
+        int rows = Math.min(DEFAULT_ROWS, board.getMaxRows());
+        int columns = Math.min(DEFAULT_COLUMNS, board.getMaxColumns());
+
+        for (int row = 0; row < rows; row += 1) {
+            for (int column = 0; column < columns; column += 1) {
+                ICell cell = board.getCell(row, column);
+                int index = toIndex(row, column);
+                setHeight(index, cell.getHeight());
+                if (cell.isWorker()) {
+                    addSlot(cell.getPlayerName(), cell.getWorkerNumber(), index);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a BitBoard from the JSON representation used by the test harnesses and
+     * network messages.
+     *
+     * @param board JSON array of rows of cells
+     */
+    public BitBoard(JsonNode board) {
+        this(new Board(board));
+    }
+
+    /**
+     * Copy constructor used by toBoard, copies the masks and slot table directly.
+     */
+    private BitBoard(BitBoard other) {
+        this.levels = other.levels.clone();
+        this.occupied = other.occupied;
+        this.cellSlots = other.cellSlots.clone();
+
+        this.slotPlayers = other.slotPlayers.clone();
+        this.slotNumbers = other.slotNumbers.clone();
+        this.slotCells = other.slotCells.clone();
+        this.numSlots = other.numSlots;
+        this.hash = other.hash;
+
+        // the copy starts with a clean history, its actions cannot undo the original's
+        this.history = new int[INITIAL_HISTORY];
+        this.historySize = 0;
+    }
+
+    // Creates a worker at the given row and column
+    @Override
+    public BuildingWorker createWorker(String playerName, int row, int column) {
+        int index = toIndex(row, column);
+        int workerNumber = this.getNumWorkers(playerName) + 1;
+
+        // Board replaces whatever cell was there, so a worker already standing here is dropped
+        if (this.cellSlots[index] != NO_SLOT) {
+            removeSlot(this.cellSlots[index]);
+        }
+
+        addSlot(playerName, workerNumber, index);
+        return new BuildingWorker(playerName, workerNumber, heightAt(index));
+    }
+
+    // move the worker designated by the string in the given direction
+    @Override
+    public void move(String worker, Direction direction) {
+        int slot = findSlot(worker);
+        if (slot == NO_SLOT) {
+            throw new IllegalArgumentException(String.format("%s is not on the board", worker));
+        }
+
+        moveSlot(slot, offset(this.slotCells[slot], direction));
+    }
+
+    // adds floor to building in the direction relative to the given worker
+    @Override
+    public int build(String worker, Direction direction) {
+        int slot = findSlot(worker);
+        if (slot == NO_SLOT) {
+            throw new IllegalArgumentException(String.format("%s is not on the board", worker));
+        }
+
+        int target = offset(this.slotCells[slot], direction);
+        int newHeight = heightAt(target) + 1;
+        setHeight(target, newHeight);
+        return newHeight;
+    }
+
+    @Override
+    public void apply(Action action) {
+        int slot = findSlot(action.getWorkerId());
+        if (slot == NO_SLOT) {
+            throw new IllegalArgumentException(String.format("%s is not on the board", action.getWorkerId()));
+        }
+
+        int origin = this.slotCells[slot];
+        int target = offset(origin, action.getDirection());
+
+        switch (action.getType()) {
+            case MOVE:
+                moveSlot(slot, target);
+                record(MOVE_RECORD, origin, target);
+                break;
+            case BUILD:
+                setHeight(target, heightAt(target) + 1);
+                record(BUILD_RECORD, origin, target);
+                break;
+        }
+    }
+
+    @Override
+    public void undo() {
+        if (this.historySize == 0) {
+            throw new IllegalStateException("There are no applied actions to undo");
+        }
+
+        this.historySize -= 1;
+        int entry = this.history[this.historySize];
+        int kind = entry >>> 16;
+        int origin = (entry >>> 8) & 0xFF;
+        int target = entry & 0xFF;
+
+        if (kind == MOVE_RECORD) {
+            moveSlot(this.cellSlots[target], origin);
+        } else {
+            setHeight(target, heightAt(target) - 1);
+        }
+    }
+
+    /**
+     * Returns this IBoard casted to an IReadonlyBoard so it cannot be mutated.
+     */
+    @Override
+    public IReadonlyBoard toViewModel() {
+        return this;
+    }
+
+    // return whether a worker exists at the given Direction from the given worker
+    @Override
+    public boolean isOccupied(String worker, Direction direction) {
+        int target = offset(this.slotCells[findSlot(worker)], direction);
+        return (this.occupied & (1L << target)) != 0;
+    }
+
+    // overloaded version of isOccupied based on absolute coordinates instead of relative directions
+    @Override
+    public boolean isOccupied(int row, int column) {
+        return (this.occupied & (1L << toIndex(row, column))) != 0;
+    }
+
+    // returns the height of the building in the given direction relative to given worker
+    @Override
+    public int height(String worker, Direction direction) {
+        return heightAt(offset(this.slotCells[findSlot(worker)], direction));
+    }
+
+    // overloaded version of height based on absolute coordinates
+    @Override
+    public int height(int row, int column) {
+        return heightAt(toIndex(row, column));
+    }
+
+    // return whether there is a Cell in the given direction from the worker
+    @Override
+    public boolean isNeighbor(String worker, Direction direction) {
+        int origin = this.slotCells[findSlot(worker)];
+        int newRow = origin / DEFAULT_COLUMNS + direction.getRowModifier();
+        int newColumn = origin % DEFAULT_COLUMNS + direction.getColumnModifier();
+        return cellExists(newRow, newColumn);
+    }
+
+    // return whether the specified coordinates exist in the grid
+    @Override
+    public boolean cellExists(int row, int column) {
+        return row >= 0 && row < DEFAULT_ROWS && column >= 0 && column < DEFAULT_COLUMNS;
+    }
+
+    // return whether a worker exists
+    @Override
+    public boolean hasWorker(String workerId) {
+        return findSlot(workerId) != NO_SLOT;
+    }
+
+    // find the designated worker in the board, or null if it does not exist
+    @Override
+    public Worker findWorker(String workerId) {
+        int slot = findSlot(workerId);
+        if (slot == NO_SLOT) {
+            return null;
+        }
+        return toWorker(slot);
+    }
+
+    // return a list of Workers belonging to the IPlayer with the given name, in row-major order
+    @Override
+    public List<Worker> getPlayerWorkers(String playerName) {
+        List<Worker> workers = new ArrayList<>();
+        long remaining = this.occupied;
+        while (remaining != 0) {
+            int index = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+
+            int slot = this.cellSlots[index];
+            if (this.slotPlayers[slot].equals(playerName)) {
+                workers.add(toWorker(slot));
+            }
+        }
+        return workers;
+    }
+
+    /**
+     * Convenience method to obtain all the workers and their players within the board
+     * @return a Map of Player Name -> List<Worker>
+     */
+    @Override
+    public Map<String, List<Worker>> getPlayerWorkerMap() {
+        Map<String, List<Worker>> resultMap = new HashMap<>();
+        long remaining = this.occupied;
+        while (remaining != 0) {
+            int index = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+
+            int slot = this.cellSlots[index];
+            resultMap.computeIfAbsent(this.slotPlayers[slot], name -> new ArrayList<>())
+                     .add(toWorker(slot));
+        }
+        return resultMap;
+    }
+
+    @Override
+    public int getMaxRows() {
+        return DEFAULT_ROWS;
+    }
+
+    @Override
+    public int getMaxColumns() {
+        return DEFAULT_COLUMNS;
+    }
+
+    /**
+     * Generates a copy of this board such that it can be acted on in the context of a
+     * function that can generate successor states.
+     * @return an instance of IBoard that is mutable.
+     */
+    @Override
+    public IBoard toBoard() {
+        return new BitBoard(this);
+    }
+
+    @Override
+    public ICell getCell(int row, int column) {
+        int index = toIndex(row, column);
+        int slot = this.cellSlots[index];
+        if (slot == NO_SLOT) {
+            return new Height(heightAt(index));
+        }
+        return new BuildingWorker(this.slotPlayers[slot], this.slotNumbers[slot], heightAt(index));
+    }
+
+    @Override
+    public long getHash() {
+        return this.hash;
+    }
+
+    @Override
+    public int getNumWorkers(String playerId) {
+        int count = 0;
+        for (int slot = 0; slot < this.numSlots; slot += 1) {
+            if (this.slotPlayers[slot].equals(playerId)) {
+                count += 1;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public JsonNode toJson() {
+        ObjectMapper mapper = new ObjectMapper();
+        ArrayNode board = mapper.createArrayNode();
+
+        for (int i = 0; i < DEFAULT_ROWS; i += 1) {
+            ArrayNode row = mapper.createArrayNode();
+            for (int j = 0; j < DEFAULT_COLUMNS; j += 1) {
+                row.add(getCell(i, j).toJson());
+            }
+            board.add(row);
+        }
+
+        return board;
+    }
+
+    /**
+     * Returns the height of the building on the cell with the given index by counting the
+     * levels that have its bit set.
+     */
+    private int heightAt(int index) {
+        long bit = 1L << index;
+        int height = 0;
+        for (int level = 0; level < MAX_HEIGHT; level += 1) {
+            if ((this.levels[level] & bit) == 0) {
+                break;
+            }
+            height += 1;
+        }
+        return height;
+    }
+
+    /**
+     * Sets the height of the building on the cell with the given index.
+     */
+    private void setHeight(int index, int height) {
+        if (height < 0 || height > MAX_HEIGHT) {
+            throw new IllegalArgumentException(String.format("%d is not a legal building height", height));
+        }
+
+        long bit = 1L << index;
+        for (int level = 0; level < MAX_HEIGHT; level += 1) {
+            boolean wasBuilt = (this.levels[level] & bit) != 0;
+            boolean isBuilt = level < height;
+            if (wasBuilt != isBuilt) {
+                this.levels[level] ^= bit;
+                this.hash ^= ZobristKeys.height(level + 1, index);
+            }
+        }
+    }
+
+    /**
+     * Returns the slot of the worker with the given id, or NO_SLOT if it is not on the board.
+     * A worker id is the player name followed by a single digit worker number.
+     */
+    private int findSlot(String workerId) {
+        int nameLength = workerId.length() - 1;
+        if (nameLength < 0) {
+            return NO_SLOT;
+        }
+
+        int workerNumber = workerId.charAt(nameLength) - '0';
+        for (int slot = 0; slot < this.numSlots; slot += 1) {
+            String player = this.slotPlayers[slot];
+            if (this.slotNumbers[slot] == workerNumber
+                && player.length() == nameLength
+                && workerId.startsWith(player)) {
+                return slot;
+            }
+        }
+        return NO_SLOT;
+    }
+
+    /**
+     * Moves the worker in the given slot to the cell with the given index.
+     */
+    private void moveSlot(int slot, int destination) {
+        int origin = this.slotCells[slot];
+        this.occupied &= ~(1L << origin);
+        this.occupied |= 1L << destination;
+        this.cellSlots[origin] = NO_SLOT;
+        this.cellSlots[destination] = slot;
+        this.slotCells[slot] = destination;
+
+        String playerName = this.slotPlayers[slot];
+        int workerNumber = this.slotNumbers[slot];
+        this.hash ^= ZobristKeys.worker(playerName, workerNumber, origin)
+            ^ ZobristKeys.worker(playerName, workerNumber, destination);
+    }
+
+    /**
+     * Adds an entry to the undo history.
+     */
+    private void record(int kind, int origin, int target) {
+        if (this.historySize == this.history.length) {
+            this.history = Arrays.copyOf(this.history, this.history.length * 2);
+        }
+        this.history[this.historySize] = (kind << 16) | (origin << 8) | target;
+        this.historySize += 1;
+    }
+
+    /**
+     * Adds a worker to the slot table and places it on the cell with the given index.
+     */
+    private void addSlot(String playerName, int workerNumber, int index) {
+        if (this.numSlots == this.slotPlayers.length) {
+            int capacity = this.slotPlayers.length * 2;
+            this.slotPlayers = Arrays.copyOf(this.slotPlayers, capacity);
+            this.slotNumbers = Arrays.copyOf(this.slotNumbers, capacity);
+            this.slotCells = Arrays.copyOf(this.slotCells, capacity);
+        }
+
+        int slot = this.numSlots;
+        this.slotPlayers[slot] = playerName;
+        this.slotNumbers[slot] = workerNumber;
+        this.slotCells[slot] = index;
+        this.numSlots += 1;
+
+        this.occupied |= 1L << index;
+        this.cellSlots[index] = slot;
+        this.hash ^= ZobristKeys.worker(playerName, workerNumber, index);
+    }
+
+    /**
+     * Removes a worker from the board, filling its slot with the last slot in the table.
+     */
+    private void removeSlot(int slot) {
+        int index = this.slotCells[slot];
+        this.occupied &= ~(1L << index);
+        this.cellSlots[index] = NO_SLOT;
+        this.hash ^= ZobristKeys.worker(this.slotPlayers[slot], this.slotNumbers[slot], index);
+
+        int last = this.numSlots - 1;
+        if (slot != last) {
+            this.slotPlayers[slot] = this.slotPlayers[last];
+            this.slotNumbers[slot] = this.slotNumbers[last];
+            this.slotCells[slot] = this.slotCells[last];
+            this.cellSlots[this.slotCells[slot]] = slot;
+        }
+        this.slotPlayers[last] = null;
+        this.numSlots = last;
+    }
+
+    private Worker toWorker(int slot) {
+        int index = this.slotCells[slot];
+        return new Worker(this.slotPlayers[slot], this.slotNumbers[slot],
+            index / DEFAULT_COLUMNS, index % DEFAULT_COLUMNS);
+    }
+
+    private static int toIndex(int row, int column) {
+        return row * DEFAULT_COLUMNS + column;
+    }
+
+    // returns the index of the cell in the given direction from the cell with the given index
+    private static int offset(int index, Direction direction) {
+        return index + direction.getRowModifier() * DEFAULT_COLUMNS + direction.getColumnModifier();
+    }
+}
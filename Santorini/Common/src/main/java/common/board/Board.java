@@ -3,9 +3,12 @@ package common.board;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import common.data.Action;
 import common.data.Direction;
 import common.data.Worker;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -15,10 +18,32 @@ public class Board implements IBoard {
     private static final int DEFAULT_ROWS = 6;
     private static final int DEFAULT_COLUMNS = 6;
     private static final int INITIAL_HEIGHT = 0;
+    // kinds of entries in the undo history
+    private static final int MOVE_RECORD = 0;
+    private static final int BUILD_RECORD = 1;
+    private static final int INITIAL_HISTORY = 16;
 
     // ICell 2d array must be rectangular DEFAULT_ROWS x DEFAULT_COLUMNS
     private final ICell[][] cells;
 
+    // Index of the workers in cells, kept up to date by createWorker and move so that worker
+    // queries do not have to scan the grid. Maps worker id -> Worker
+    private final Map<String, Worker> workerIndex = new HashMap<>();
+    // Maps player name -> that player's workers in row-major order
+    private final Map<String, List<Worker>> playerWorkers = new HashMap<>();
+    // Read only views of playerWorkers handed out to callers, created once per player
+    private final Map<String, List<Worker>> playerWorkerViews = new HashMap<>();
+    private final Map<String, List<Worker>> playerWorkerMapView = Collections.unmodifiableMap(playerWorkerViews);
+
+    // Actions applied through apply that have not been undone yet, most recent last. Each entry
+    // packs the kind of action with the cell the worker stood on and the cell it moved to or
+    // built on, so recording an action does not allocate
+    private int[] history = new int[INITIAL_HISTORY];
+    private int historySize = 0;
+
+    // Zobrist hash of cells, updated along with them
+    private long hash;
+
     public Board() {
         this.cells = new ICell[DEFAULT_ROWS][DEFAULT_COLUMNS];
 
@@ -40,6 +65,29 @@ public class Board implements IBoard {
                 }
             }
         }
+        this.indexWorkers();
+        this.hash = ZobristKeys.hashOf(this);
+    }
+
+    /**
+     * Creates a Board holding a copy of every cell of the given board, e.g. to convert a
+     * BitBoard back into a grid of ICells.
+     *
+     * @param board board to copy
+     */
+    public Board(IReadonlyBoard board) {
+        this.cells = new ICell[DEFAULT_ROWS][DEFAULT_COLUMNS];
+        for (int i = 0; i < DEFAULT_ROWS; i += 1) {
+            for (int j = 0; j < DEFAULT_COLUMNS; j += 1) {
+                if (i < board.getMaxRows() && j < board.getMaxColumns()) {
+                    this.cells[i][j] = board.getCell(i, j).copy();
+                } else {
+                    this.cells[i][j] = new Height(INITIAL_HEIGHT);
+                }
+            }
+        }
+        this.indexWorkers();
+        this.hash = ZobristKeys.hashOf(this);
     }
 
     public Board(JsonNode board) {
@@ -66,6 +114,8 @@ public class Board implements IBoard {
                 }
             }
         }
+        this.indexWorkers();
+        this.hash = ZobristKeys.hashOf(this);
     }
 
     // Creates a worker at the given row and column
@@ -74,7 +124,17 @@ public class Board implements IBoard {
         int workerNumber = this.getNumWorkers(playerName) + 1;
         int buildingHeight = this.cells[row][column].getHeight();
         BuildingWorker newWorker = new BuildingWorker(playerName, workerNumber, buildingHeight);
+
+        // the new worker replaces whatever cell was there, including any worker already on it
+        ICell replaced = this.cells[row][column];
+        if (replaced.isWorker()) {
+            this.unindexWorker(this.findWorker(replaced.getPlayerName() + replaced.getWorkerNumber()));
+            this.hash ^= ZobristKeys.worker(replaced.getPlayerName(), replaced.getWorkerNumber(), this.toIndex(row, column));
+        }
+
         this.cells[row][column] = newWorker;
+        this.indexWorker(new Worker(playerName, workerNumber, row, column));
+        this.hash ^= ZobristKeys.worker(playerName, workerNumber, this.toIndex(row, column));
         return newWorker;
     }
 
@@ -82,15 +142,27 @@ public class Board implements IBoard {
     @Override
     public void move(String worker, Direction direction) {
         Worker currentWorker = this.findWorker(worker);
+        int newRow =  currentWorker.getRow() + direction.getRowModifier();
+        int newColumn =  currentWorker.getColumn() + direction.getColumnModifier();
+        this.relocate(currentWorker, newRow, newColumn);
+    }
+
+    // moves the given worker to the given coordinates, leaving its building behind
+    private void relocate(Worker currentWorker, int newRow, int newColumn) {
         int currentRow = currentWorker.getRow();
         int currentColumn = currentWorker.getColumn();
         Height originHeight = new Height(this.cells[currentRow][currentColumn].getHeight());
-        int newRow =  currentRow + direction.getRowModifier();
-        int newColumn =  currentColumn + direction.getColumnModifier();
         int destinationHeight = this.cells[newRow][newColumn].getHeight();
         BuildingWorker newWorker = new BuildingWorker(currentWorker.getPlayerName(), currentWorker.getWorkerNumber(), destinationHeight);
         this.cells[newRow][newColumn] = newWorker;
         this.cells[currentWorker.getRow()][currentWorker.getColumn()] = originHeight;
+
+        String playerName = currentWorker.getPlayerName();
+        int workerNumber = currentWorker.getWorkerNumber();
+        this.hash ^= ZobristKeys.worker(playerName, workerNumber, this.toIndex(currentRow, currentColumn))
+            ^ ZobristKeys.worker(playerName, workerNumber, this.toIndex(newRow, newColumn));
+
+        this.reindexWorker(currentWorker, new Worker(currentWorker.getPlayerName(), currentWorker.getWorkerNumber(), newRow, newColumn));
     }
 
     // adds floor to building in the direction relative to the given worker
@@ -103,9 +175,69 @@ public class Board implements IBoard {
         int newHeight = targetCell.getHeight() + 1;
         Height newCell = new Height(newHeight);
         this.cells[newRow][newColumn] = newCell;
+        this.hash ^= ZobristKeys.height(newHeight, this.toIndex(newRow, newColumn));
         return newHeight;
     }
 
+    @Override
+    public void apply(Action action) {
+        Worker currentWorker = this.findWorker(action.getWorkerId());
+        Direction direction = action.getDirection();
+        int origin = this.toIndex(currentWorker.getRow(), currentWorker.getColumn());
+        int target = this.toIndex(currentWorker.getRow() + direction.getRowModifier(),
+            currentWorker.getColumn() + direction.getColumnModifier());
+
+        switch (action.getType()) {
+            case MOVE:
+                this.move(action.getWorkerId(), direction);
+                this.record(MOVE_RECORD, origin, target);
+                break;
+            case BUILD:
+                this.build(action.getWorkerId(), direction);
+                this.record(BUILD_RECORD, origin, target);
+                break;
+        }
+    }
+
+    @Override
+    public void undo() {
+        if (this.historySize == 0) {
+            throw new IllegalStateException("There are no applied actions to undo");
+        }
+
+        this.historySize -= 1;
+        int entry = this.history[this.historySize];
+        int kind = entry >>> 16;
+        int origin = (entry >>> 8) & 0xFF;
+        int target = entry & 0xFF;
+        int targetRow = target / DEFAULT_COLUMNS;
+        int targetColumn = target % DEFAULT_COLUMNS;
+
+        if (kind == MOVE_RECORD) {
+            ICell moved = this.cells[targetRow][targetColumn];
+            Worker worker = this.findWorker(moved.getPlayerName() + moved.getWorkerNumber());
+            this.relocate(worker, origin / DEFAULT_COLUMNS, origin % DEFAULT_COLUMNS);
+        } else {
+            int height = this.cells[targetRow][targetColumn].getHeight();
+            this.cells[targetRow][targetColumn] = new Height(height - 1);
+            this.hash ^= ZobristKeys.height(height, target);
+        }
+    }
+
+    // adds an entry to the undo history
+    private void record(int kind, int origin, int target) {
+        if (this.historySize == this.history.length) {
+            this.history = Arrays.copyOf(this.history, this.history.length * 2);
+        }
+        this.history[this.historySize] = (kind << 16) | (origin << 8) | target;
+        this.historySize += 1;
+    }
+
+    // returns the row-major index of the given coordinates
+    private int toIndex(int row, int column) {
+        return row * DEFAULT_COLUMNS + column;
+    }
+
     /**
      * Returns this IBoard casted to an IReadonlyBoard so it cannot be mutated.
      */
@@ -168,63 +300,33 @@ public class Board implements IBoard {
     // return whether a worker exists
     @Override
     public boolean hasWorker(String workerId) {
-        return this.findWorker(workerId) != null;
+        return this.workerIndex.containsKey(workerId);
     }
 
-    // find the designated worker in the common.board, assumes that it exists
+    // find the designated worker in the common.board, or null if it does not exist
     @Override
     public Worker findWorker(String workerId) {
-        int len = workerId.length();
-        int workerNumber = Integer.parseInt(workerId.substring(len - 1));
-        String playerName = workerId.substring(0, len - 1);
-        for (int row = 0; row < this.cells.length; row++) {
-            for (int column = 0; column < this.cells[row].length; column++) {
-                ICell currentCell = this.cells[row][column];
-                if (currentCell.isWorker()) {
-                    if (currentCell.getPlayerName().equals(playerName) && currentCell.getWorkerNumber() == workerNumber) {
-                        return new Worker(currentCell.getPlayerName(), currentCell.getWorkerNumber(), row, column);
-                    }
-                }
-            }
-        }
-        return null;
+        return this.workerIndex.get(workerId);
     }
 
-    // return a list of Workers belonging to the IPlayer with the given name
+    // return a read only list of Workers belonging to the IPlayer with the given name, in row-major order
     @Override
     public List<Worker> getPlayerWorkers(String playerName) {
-        List<Worker> workers = getPlayerWorkerMap().get(playerName);
+        List<Worker> workers = this.playerWorkerViews.get(playerName);
         if(workers == null) {
-            return new ArrayList<>();
+            return Collections.emptyList();
         }
         return workers;
     }
 
     /**
-     * Convenience method to obtain all the workers and their players within the board
+     * Convenience method to obtain all the workers and their players within the board. The map
+     * is a read only view that stays up to date as the board changes.
      * @return a Map of Player Name -> List<Worker>
      */
     @Override
     public Map<String, List<Worker>> getPlayerWorkerMap() {
-        Map<String, List<Worker>> resultMap = new HashMap<>();
-
-        for (int row = 0; row < this.cells.length; row++) {
-            for (int column = 0; column < this.cells[row].length; column++) {
-                ICell currentCell = this.cells[row][column];
-                if (currentCell.isWorker()) {
-                    String playerName = currentCell.getPlayerName();
-                    Worker worker = new Worker(playerName, currentCell.getWorkerNumber(), row, column);
-
-                    if (!resultMap.containsKey(playerName)) {
-                        resultMap.put(playerName, new ArrayList<>());
-                    }
-
-                    resultMap.get(playerName).add(worker);
-                }
-            }
-        }
-
-        return resultMap;
+        return this.playerWorkerMapView;
     }
 
     @Override
@@ -264,15 +366,13 @@ public class Board implements IBoard {
     }
 
     @Override
-    public int getNumWorkers(String playerId) {
-        List<Worker> playersWorkers = this.getPlayerWorkerMap().get(playerId);
+    public long getHash() {
+        return this.hash;
+    }
 
-        // playersWorkers is null if nothing has been put in the player worker map
-        if (playersWorkers == null) {
-            return 0;
-        } else {
-            return playersWorkers.size();
-        }
+    @Override
+    public int getNumWorkers(String playerId) {
+        return this.getPlayerWorkers(playerId).size();
     }
 
     public JsonNode toJson() {
@@ -289,4 +389,81 @@ public class Board implements IBoard {
 
         return board;
     }
+
+    /**
+     * Builds the worker index from scratch by scanning the cells in row-major order.
+     */
+    private void indexWorkers() {
+        for (int row = 0; row < this.cells.length; row++) {
+            for (int column = 0; column < this.cells[row].length; column++) {
+                ICell currentCell = this.cells[row][column];
+                if (currentCell.isWorker()) {
+                    this.indexWorker(new Worker(currentCell.getPlayerName(), currentCell.getWorkerNumber(), row, column));
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the given worker to the index, keeping its player's workers in row-major order.
+     */
+    private void indexWorker(Worker worker) {
+        String playerName = worker.getPlayerName();
+        List<Worker> workers = this.playerWorkers.get(playerName);
+        if (workers == null) {
+            workers = new ArrayList<>();
+            this.playerWorkers.put(playerName, workers);
+            this.playerWorkerViews.put(playerName, Collections.unmodifiableList(workers));
+        }
+
+        int position = 0;
+        while (position < workers.size() && isBefore(workers.get(position), worker)) {
+            position++;
+        }
+        workers.add(position, worker);
+        this.workerIndex.put(worker.getWorkerId(), worker);
+    }
+
+    /**
+     * Replaces a worker in the index with its moved version, keeping its player's workers in
+     * row-major order.
+     */
+    private void reindexWorker(Worker oldWorker, Worker newWorker) {
+        List<Worker> workers = this.playerWorkers.get(oldWorker.getPlayerName());
+        int position = workers.indexOf(oldWorker);
+        workers.set(position, newWorker);
+
+        // a player only has a couple of workers, so a single pass of swaps restores the order
+        while (position > 0 && isBefore(newWorker, workers.get(position - 1))) {
+            Collections.swap(workers, position, position - 1);
+            position--;
+        }
+        while (position < workers.size() - 1 && isBefore(workers.get(position + 1), newWorker)) {
+            Collections.swap(workers, position, position + 1);
+            position++;
+        }
+        this.workerIndex.put(newWorker.getWorkerId(), newWorker);
+    }
+
+    /**
+     * Removes the given worker from the index.
+     */
+    private void unindexWorker(Worker worker) {
+        String playerName = worker.getPlayerName();
+        List<Worker> workers = this.playerWorkers.get(playerName);
+        workers.remove(worker);
+        if (workers.isEmpty()) {
+            this.playerWorkers.remove(playerName);
+            this.playerWorkerViews.remove(playerName);
+        }
+        this.workerIndex.remove(worker.getWorkerId());
+    }
+
+    // return whether the first worker comes before the second when scanning the grid row by row
+    private static boolean isBefore(Worker first, Worker second) {
+        if (first.getRow() != second.getRow()) {
+            return first.getRow() < second.getRow();
+        }
+        return first.getColumn() < second.getColumn();
+    }
 }
@@ -1,5 +1,6 @@
 package common.board;
 
+import common.data.Action;
 import common.data.Direction;
 
 /**
@@ -19,4 +20,12 @@ public interface IBoard extends IReadonlyBoard {
 
     // returns a ViewModel from this common.board
     IReadonlyBoard toViewModel();
+
+    // applies the given move or build action to this common.board in place, remembering enough to
+    // revert it with undo. Like move and build, the action is assumed to be legal
+    void apply(Action action);
+
+    // reverts the most recently applied action that has not been undone yet, restoring the
+    // common.board to exactly the state it was in before that action was applied
+    void undo();
 }
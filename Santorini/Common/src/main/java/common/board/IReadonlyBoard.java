@@ -62,4 +62,13 @@ public interface IReadonlyBoard {
      * @return Json object representing this board
      */
     JsonNode toJson();
+
+    /**
+     * Returns the 64-bit Zobrist hash of the buildings and workers on this board, see ZobristKeys.
+     * The hash is kept up to date as the board changes, so this is cheap enough to call on every
+     * node of a search. Boards holding the same position have the same hash.
+     *
+     * @return Zobrist hash of this board
+     */
+    long getHash();
 }
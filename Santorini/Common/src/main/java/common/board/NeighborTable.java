@@ -0,0 +1,62 @@
+package common.board;
+
+import common.data.Direction;
+
+/**
+ * The neighbors of every cell of the standard 6x6 board, worked out once so code that walks
+ * neighbors in a tight loop can look them up instead of adding direction modifiers and checking
+ * the edges of the grid.
+ *
+ * Cells are numbered row-major and directions by their index in Direction.getAllDirections.
+ */
+public final class NeighborTable {
+
+    public static final int ROWS = 6;
+    public static final int COLUMNS = 6;
+    public static final int NUM_CELLS = ROWS * COLUMNS;
+    // returned by neighbor when the direction leads off the board
+    public static final int NO_NEIGHBOR = -1;
+
+    private static final int NUM_DIRECTIONS = Direction.getAllDirections().size();
+    // NEIGHBORS[cell * NUM_DIRECTIONS + direction] is the cell in that direction from that cell
+    private static final int[] NEIGHBORS = new int[NUM_CELLS * NUM_DIRECTIONS];
+
+    static {
+        for (int cell = 0; cell < NUM_CELLS; cell += 1) {
+            for (int direction = 0; direction < NUM_DIRECTIONS; direction += 1) {
+                Direction d = Direction.fromIndex(direction);
+                int row = rowOf(cell) + d.getRowModifier();
+                int column = columnOf(cell) + d.getColumnModifier();
+                boolean onBoard = row >= 0 && row < ROWS && column >= 0 && column < COLUMNS;
+                NEIGHBORS[cell * NUM_DIRECTIONS + direction] = onBoard ? cellOf(row, column) : NO_NEIGHBOR;
+            }
+        }
+    }
+
+    private NeighborTable() {
+    }
+
+    /**
+     * Returns the cell next to the given cell in the given direction.
+     *
+     * @param cell row-major cell index
+     * @param direction index of the direction in Direction.getAllDirections
+     * @return row-major index of the neighbor, or NO_NEIGHBOR if the direction leads off the board
+     */
+    public static int neighbor(int cell, int direction) {
+        return NEIGHBORS[cell * NUM_DIRECTIONS + direction];
+    }
+
+    // return the row-major index of the given cell
+    public static int cellOf(int row, int column) {
+        return row * COLUMNS + column;
+    }
+
+    public static int rowOf(int cell) {
+        return cell / COLUMNS;
+    }
+
+    public static int columnOf(int cell) {
+        return cell % COLUMNS;
+    }
+}
@@ -0,0 +1,110 @@
+package common.board;
+
+/**
+ * The random keys used to Zobrist hash Santorini boards. A board's hash is the XOR of one key per
+ * floor built on each cell and one key per worker for the cell it stands on, so boards can update
+ * their hash incrementally as workers move and floors are built.
+ *
+ * Keys are generated from a fixed seed, so the same position hashes to the same value in every
+ * process. Worker keys are derived from the player's name rather than the order workers were
+ * created in, so two boards holding the same position always agree on its hash.
+ */
+public final class ZobristKeys {
+
+    // the board is 6x6, cells are numbered row-major
+    private static final int NUM_CELLS = 36;
+    // a dome is the 4th floor
+    private static final int MAX_LEVEL = 4;
+    // worker numbers beyond this share keys, standard games only use 2 per player
+    private static final int WORKER_SLOTS = 4;
+    private static final long SEED = 0x5A17021L;
+
+    private static final long[][] HEIGHT_KEYS = new long[MAX_LEVEL][NUM_CELLS];
+    private static final long[][] WORKER_KEYS = new long[WORKER_SLOTS][NUM_CELLS];
+
+    /**
+     * XORed into a hash to mark that it is the second player's turn. Boards do not know whose turn
+     * it is, so searches apply this themselves when they need positions keyed by side-to-move.
+     */
+    public static final long SIDE_TO_MOVE;
+
+    static {
+        long state = SEED;
+        for (int level = 0; level < MAX_LEVEL; level += 1) {
+            for (int cell = 0; cell < NUM_CELLS; cell += 1) {
+                state += 0x9E3779B97F4A7C15L;
+                HEIGHT_KEYS[level][cell] = mix(state);
+            }
+        }
+        for (int slot = 0; slot < WORKER_SLOTS; slot += 1) {
+            for (int cell = 0; cell < NUM_CELLS; cell += 1) {
+                state += 0x9E3779B97F4A7C15L;
+                WORKER_KEYS[slot][cell] = mix(state);
+            }
+        }
+        state += 0x9E3779B97F4A7C15L;
+        SIDE_TO_MOVE = mix(state);
+    }
+
+    private ZobristKeys() {
+    }
+
+    /**
+     * Returns the key for the given floor of the building on the given cell. A building of height h
+     * contributes the keys of floors 1 through h.
+     *
+     * @param level floor number, starting at 1
+     * @param cell row-major cell index
+     * @return key for that floor, or 0 for floors above a dome which legal play never reaches
+     */
+    static long height(int level, int cell) {
+        if (level < 1 || level > MAX_LEVEL) {
+            return 0L;
+        }
+        return HEIGHT_KEYS[level - 1][cell];
+    }
+
+    /**
+     * Returns the key for the given worker standing on the given cell.
+     *
+     * @param playerName name of the player the worker belongs to
+     * @param workerNumber number of the worker
+     * @param cell row-major cell index
+     * @return key for that worker on that cell
+     */
+    static long worker(String playerName, int workerNumber, int cell) {
+        long slotKey = WORKER_KEYS[Math.floorMod(workerNumber, WORKER_SLOTS)][cell];
+        return mix(slotKey ^ mix(playerName.hashCode()));
+    }
+
+    /**
+     * Computes the hash of the given board from scratch. Boards keep their own hash up to date, this
+     * is what that hash always equals.
+     *
+     * @param board board to hash
+     * @return Zobrist hash of the board
+     */
+    public static long hashOf(IReadonlyBoard board) {
+        long hash = 0L;
+        for (int row = 0; row < board.getMaxRows(); row += 1) {
+            for (int column = 0; column < board.getMaxColumns(); column += 1) {
+                ICell cell = board.getCell(row, column);
+                int index = row * board.getMaxColumns() + column;
+                for (int level = 1; level <= cell.getHeight(); level += 1) {
+                    hash ^= height(level, index);
+                }
+                if (cell.isWorker()) {
+                    hash ^= worker(cell.getPlayerName(), cell.getWorkerNumber(), index);
+                }
+            }
+        }
+        return hash;
+    }
+
+    // the splitmix64 finalizer, spreads every input bit across the whole key
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -8,11 +8,18 @@ import java.util.*;
  * that designate an unambiguous direction. It maps the enum values to
  * the strings used to represent them in the testing harness and network
  * messages
+ *
+ * The 8 directions a worker can move or build in exist as shared instances, see of and
+ * getAllDirections. Each direction works out its row and column modifiers once, when it is
+ * created, so reading them is a field access.
  */
  public class Direction {
 
    private String eastWest;
    private String northSouth;
+   private final int rowModifier;
+   private final int columnModifier;
+   private final int index;
 
    private static final Set<String> LEGAL_EAST_WEST = new HashSet<>(
            Arrays.asList("EAST", "PUT", "WEST")
@@ -22,6 +29,26 @@ import java.util.*;
             Arrays.asList("NORTH", "PUT", "SOUTH")
     );
 
+    // returned by getIndex for a direction that is not one of the 8 canonical ones
+    public static final int NO_INDEX = -1;
+
+    // index in getAllDirections of the direction with each (rowModifier + 1) * 3 + (columnModifier + 1)
+    private static final int[] INDEX_BY_OFFSET = {5, 3, 0, 6, NO_INDEX, 1, 7, 4, 2};
+
+    // the canonical directions, in the order getAllDirections lists them
+    private static final Direction[] CANONICAL = {
+        new Direction("EAST", "NORTH"),
+        new Direction("EAST", "PUT"),
+        new Direction("EAST", "SOUTH"),
+        new Direction("PUT", "NORTH"),
+        new Direction("PUT", "SOUTH"),
+        new Direction("WEST", "NORTH"),
+        new Direction("WEST", "PUT"),
+        new Direction("WEST", "SOUTH")
+    };
+    private static final List<Direction> ALL_DIRECTIONS =
+            Collections.unmodifiableList(Arrays.asList(CANONICAL));
+
     /**
      * Assumes that due to the assignment criteria that all input will always be valid for direction
      * @param eastWest
@@ -33,32 +60,47 @@ import java.util.*;
 
        this.eastWest = normEastWest;
        this.northSouth = normNorthSouth;
+       this.columnModifier = columnModifierOf(normEastWest);
+       this.rowModifier = rowModifierOf(normNorthSouth);
+       this.index = INDEX_BY_OFFSET[offsetIndex(this.rowModifier, this.columnModifier)];
+   }
+
+    /**
+     * Returns the direction for the given strings, such as the ones in JSON turns. Parses the same
+     * strings the same way as the constructor, but returns the shared instance for each of the 8
+     * canonical directions instead of a new one.
+     *
+     * @param eastWest "EAST", "PUT" or "WEST", in any case
+     * @param northSouth "NORTH", "PUT" or "SOUTH", in any case
+     * @return the matching canonical direction, or a new direction for any other input
+     */
+   public static Direction of(String eastWest, String northSouth) {
+       String normEastWest = eastWest.toUpperCase();
+       String normNorthSouth = northSouth.toUpperCase();
+       if (LEGAL_EAST_WEST.contains(normEastWest) && LEGAL_NORTH_SOUTH.contains(normNorthSouth)) {
+           int index = INDEX_BY_OFFSET[offsetIndex(rowModifierOf(normNorthSouth), columnModifierOf(normEastWest))];
+           if (index != NO_INDEX) {
+               return CANONICAL[index];
+           }
+       }
+       return new Direction(eastWest, northSouth);
+   }
+
+   // return the canonical direction at the given index of getAllDirections
+   public static Direction fromIndex(int index) {
+       return CANONICAL[index];
    }
 
    // return an int representing the X vector of this direction
    public int getColumnModifier() {
-     switch(this.eastWest) {
-         case "EAST":
-             return 1;
-         case "PUT":
-             return 0;
-         default:
-             return -1;
-     }
+     return this.columnModifier;
    }
 
    // return an int representing the Y vector of this direction
    // NOTE: the coordinate grid uses graphics values, with the origin in the
    // top left, so moving SOUTH increases this value while NORTH decreases
    public int getRowModifier() {
-       switch (this.northSouth) {
-           case "NORTH":
-               return -1;
-           case "PUT":
-               return 0;
-           default:
-               return 1;
-       }
+       return this.rowModifier;
    }
 
    public String getEastWest() {
@@ -69,18 +111,40 @@ import java.util.*;
      return this.northSouth;
    }
 
+   // return the index of this direction in getAllDirections, or NO_INDEX if it stays put
+   public int getIndex() {
+       return this.index;
+   }
+
 
-   // return all possible directions from a position
+   // return all possible directions from a position, as an unmodifiable list of the shared instances
    public static List<Direction> getAllDirections() {
-       List<Direction> result = new ArrayList<>();
-       result.add(new Direction("EAST", "NORTH"));
-       result.add(new Direction("EAST", "PUT"));
-       result.add(new Direction("EAST", "SOUTH"));
-       result.add(new Direction("PUT", "NORTH"));
-       result.add(new Direction("PUT", "SOUTH"));
-       result.add(new Direction("WEST", "NORTH"));
-       result.add(new Direction("WEST", "PUT"));
-       result.add(new Direction("WEST", "SOUTH"));
-       return result;
+       return ALL_DIRECTIONS;
+   }
+
+   private static int columnModifierOf(String eastWest) {
+     switch(eastWest) {
+         case "EAST":
+             return 1;
+         case "PUT":
+             return 0;
+         default:
+             return -1;
+     }
+   }
+
+   private static int rowModifierOf(String northSouth) {
+       switch (northSouth) {
+           case "NORTH":
+               return -1;
+           case "PUT":
+               return 0;
+           default:
+               return 1;
+       }
+   }
+
+   private static int offsetIndex(int rowModifier, int columnModifier) {
+       return (rowModifier + 1) * 3 + columnModifier + 1;
    }
  }
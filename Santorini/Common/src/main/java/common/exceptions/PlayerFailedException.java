@@ -0,0 +1,15 @@
+package common.exceptions;
+
+/**
+ * Thrown by a player that can no longer play, such as a remote player whose connection failed.
+ * Referees treat it like any other player failure, as cheating, as soon as it is thrown.
+ */
+public class PlayerFailedException extends RuntimeException {
+    public PlayerFailedException(String message) {
+        super(message);
+    }
+
+    public PlayerFailedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -44,4 +44,11 @@ public interface IRulesEngine {
     int getNumberOfWorkers();
 
     boolean isMoveLegal(IReadonlyBoard board, Action move, String activePlayer);
+
+    // Write every legal turn the active player can take on the given board into the sink, replacing whatever
+    // it held. Turns are encoded as described in Turns, which saves callers that search many positions from
+    // building and checking candidate actions themselves. Turns are listed worker by worker, and for each
+    // worker the winning move-only turns come first, followed by every legal move paired with every legal
+    // build from where the worker lands.
+    void generateTurns(IReadonlyBoard board, String activePlayer, TurnBuffer sink);
 }
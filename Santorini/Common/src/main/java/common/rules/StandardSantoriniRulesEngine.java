@@ -1,8 +1,8 @@
 package common.rules;
 
 import common.board.IReadonlyBoard;
+import common.board.NeighborTable;
 import common.data.*;
-import common.utils.BoardGenerator;
 
 import java.util.*;
 
@@ -21,9 +21,6 @@ public class StandardSantoriniRulesEngine implements IRulesEngine {
     private final int MAX_ACTIONS_LENGTH = 2;
     // the number of players in a game
     private final int NUM_PLAYERS = 2;
-    // an enumeration of legal Direction vectors to create Directions
-    private final List<String> LEGAL_EAST_WEST = Arrays.asList("EAST", "PUT", "WEST");
-    private final List<String> LEGAL_NORTH_SOUTH = Arrays.asList("NORTH", "PUT", "SOUTH");
 
     /**
      * In "Standard Santorini", a worker can only be placed in a square where there are no
@@ -103,10 +100,7 @@ public class StandardSantoriniRulesEngine implements IRulesEngine {
                         }
                     }
                 } else {
-                    List<Action> moveActionList = new ArrayList<>();
-                    moveActionList.add(firstAction);
-                    IReadonlyBoard newBoard = BoardGenerator.generateSuccessor(board, moveActionList);
-                    return this.didPlayerWin(newBoard, activePlayer);
+                    return this.doesMoveWin(board, firstAction, activePlayer);
                 }
             }
         }
@@ -190,20 +184,116 @@ public class StandardSantoriniRulesEngine implements IRulesEngine {
     public boolean didPlayerLose(IReadonlyBoard board, String activePlayer) {
         List<Worker> workers = board.getPlayerWorkers(activePlayer);
         for (Worker worker : workers) {
-            String workerId = String.format("%s%s", worker.getPlayerName(), worker.getWorkerNumber());
-            for (String eastWest : this.LEGAL_EAST_WEST) {
-                for (String northSouth : this.LEGAL_NORTH_SOUTH) {
-                    Direction tempDir = new Direction(eastWest, northSouth);
-                    Action action = new Action(ActionType.MOVE, workerId, tempDir);
-                    if (this.isMoveLegal(board, action, activePlayer)) {
-                        return false;
-                    }
+            int cell = NeighborTable.cellOf(worker.getRow(), worker.getColumn());
+            for (int move = 0; move < Turns.NUM_DIRECTIONS; move++) {
+                if (this.canMove(board, cell, move)) {
+                    return false;
                 }
             }
         }
         return true;
     }
 
+    /**
+     * Lists the legal turns of the active player by walking the neighbors of each worker directly, checking
+     * the same conditions as isMoveLegal, doesMoveWin and isBuildLegal without creating any actions.
+     */
+    public void generateTurns(IReadonlyBoard board, String activePlayer, TurnBuffer sink) {
+        sink.clear();
+        List<Worker> workers = board.getPlayerWorkers(activePlayer);
+        for (int i = 0; i < workers.size(); i++) {
+            Worker worker = workers.get(i);
+            int origin = NeighborTable.cellOf(worker.getRow(), worker.getColumn());
+            int workerNumber = worker.getWorkerNumber();
+            boolean otherWorkerWon = this.isOtherWorkerOnThirdFloor(board, workers, i);
+
+            // winning moves first
+            for (int move = 0; move < Turns.NUM_DIRECTIONS; move++) {
+                if (this.canMove(board, origin, move)) {
+                    int target = NeighborTable.neighbor(origin, move);
+                    if (otherWorkerWon || heightAt(board, target) == MAX_BUILDING_HEIGHT - 1) {
+                        sink.add(Turns.encode(workerNumber, move, Turns.NO_BUILD));
+                    }
+                }
+            }
+
+            for (int move = 0; move < Turns.NUM_DIRECTIONS; move++) {
+                if (this.canMove(board, origin, move)) {
+                    int moved = NeighborTable.neighbor(origin, move);
+                    for (int build = 0; build < Turns.NUM_DIRECTIONS; build++) {
+                        if (this.canBuild(board, moved, build, origin)) {
+                            sink.add(Turns.encode(workerNumber, move, build));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks conditions 3) to 5) of isMoveLegal for the worker on the given cell moving in the direction
+     * with the given index.
+     */
+    private boolean canMove(IReadonlyBoard board, int origin, int move) {
+        int target = NeighborTable.neighbor(origin, move);
+        return target != NeighborTable.NO_NEIGHBOR
+            && !isOccupiedAt(board, target)
+            && heightAt(board, target) <= heightAt(board, origin) + 1;
+    }
+
+    /**
+     * Checks the conditions of isBuildLegal for a worker that moved from the origin cell to the given cell
+     * building in the direction with the given index.
+     */
+    private boolean canBuild(IReadonlyBoard board, int moved, int build, int origin) {
+        int target = NeighborTable.neighbor(moved, build);
+        if (target == NeighborTable.NO_NEIGHBOR) {
+            return false;
+        }
+        return (target == origin || !isOccupiedAt(board, target))
+            && heightAt(board, target) < this.MAX_BUILDING_HEIGHT;
+    }
+
+    private static int heightAt(IReadonlyBoard board, int cell) {
+        return board.height(NeighborTable.rowOf(cell), NeighborTable.columnOf(cell));
+    }
+
+    private static boolean isOccupiedAt(IReadonlyBoard board, int cell) {
+        return board.isOccupied(NeighborTable.rowOf(cell), NeighborTable.columnOf(cell));
+    }
+
+    // return whether any of the given workers other than the one at the given index is on the third floor
+    private boolean isOtherWorkerOnThirdFloor(IReadonlyBoard board, List<Worker> workers, int index) {
+        for (int i = 0; i < workers.size(); i++) {
+            Worker other = workers.get(i);
+            if (i != index && board.height(other.getRow(), other.getColumn()) == MAX_BUILDING_HEIGHT - 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determines whether the active player would have won after making the given legal move, without
+     * generating the successor board. After the move the moved worker stands on the target cell and the
+     * player's other workers have not moved, so the player has won if the target cell is on the third
+     * floor or one of the other workers already is.
+     */
+    private boolean doesMoveWin(IReadonlyBoard board, Action move, String activePlayer) {
+        Worker movedWorker = board.findWorker(move.getWorkerId());
+        if (board.height(move.getWorkerId(), move.getDirection()) == MAX_BUILDING_HEIGHT - 1) {
+            return true;
+        }
+
+        for (Worker worker : board.getPlayerWorkers(activePlayer)) {
+            boolean isMovedWorker = worker.getWorkerNumber() == movedWorker.getWorkerNumber();
+            if (!isMovedWorker && board.height(worker.getRow(), worker.getColumn()) == MAX_BUILDING_HEIGHT - 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * "Standard Santorini" is won when a player has a worker reach the third floor of a building, so this
      * checks to see if any worker that belongs to the active player is on the third floor of a building
@@ -0,0 +1,81 @@
+package common.rules;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of turns encoded as described in Turns. A search keeps one buffer per level of
+ * the game tree and refills it for every position, so once the buffer has grown large enough
+ * listing turns never allocates.
+ */
+public class TurnBuffer {
+    // enough for two workers with 8 moves and 8 builds each, which standard games never exceed
+    private static final int DEFAULT_CAPACITY = 128;
+
+    private int[] turns;
+    private int size;
+
+    public TurnBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty buffer that can hold the given number of turns before growing.
+     *
+     * @param capacity initial capacity, at least 1
+     */
+    public TurnBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(String.format("%d is not a legal capacity", capacity));
+        }
+        this.turns = new int[capacity];
+        this.size = 0;
+    }
+
+    // add the given encoded turn to the end of this buffer
+    public void add(int turn) {
+        if (this.size == this.turns.length) {
+            this.turns = Arrays.copyOf(this.turns, this.turns.length * 2);
+        }
+        this.turns[this.size] = turn;
+        this.size += 1;
+    }
+
+    // return the encoded turn at the given index
+    public int get(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException(String.format("%d is not an index of a buffer of size %d", index, this.size));
+        }
+        return this.turns[index];
+    }
+
+    // exchange the turns at the given indices, so searches can reorder the turns they try
+    public void swap(int i, int j) {
+        int turn = get(i);
+        this.turns[i] = get(j);
+        this.turns[j] = turn;
+    }
+
+    // return the index of the given turn in this buffer, or -1 if it is not in it
+    public int indexOf(int turn) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.turns[i] == turn) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // return the number of turns in this buffer
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    // remove every turn from this buffer, keeping its capacity
+    public void clear() {
+        this.size = 0;
+    }
+}
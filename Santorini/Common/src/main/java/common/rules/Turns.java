@@ -0,0 +1,111 @@
+package common.rules;
+
+import common.board.IBoard;
+import common.data.Action;
+import common.data.ActionType;
+import common.data.Direction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Static helpers for turns encoded as single ints, as written by IRulesEngine.generateTurns.
+ *
+ * A turn is the number of the worker taking it, the index of the direction it moves in and the
+ * index of the direction it builds in, or NO_BUILD for a turn that wins by moving. Directions are
+ * indexed in the order of Direction.getAllDirections. Encoded turns only make sense together with
+ * the name of the player taking them.
+ */
+public final class Turns {
+    // number of directions a worker can move or build in
+    public static final int NUM_DIRECTIONS = 8;
+    // build index of a turn that only moves
+    public static final int NO_BUILD = 0xF;
+
+    private static final int BUILD_SHIFT = 0;
+    private static final int MOVE_SHIFT = 4;
+    private static final int WORKER_SHIFT = 8;
+    private static final int DIRECTION_MASK = 0xF;
+
+    private Turns() {
+    }
+
+    /**
+     * Encodes a turn.
+     *
+     * @param workerNumber number of the worker taking the turn
+     * @param move index of the direction the worker moves in
+     * @param build index of the direction the worker builds in, or NO_BUILD
+     * @return the encoded turn
+     */
+    public static int encode(int workerNumber, int move, int build) {
+        return (workerNumber << WORKER_SHIFT) | (move << MOVE_SHIFT) | (build << BUILD_SHIFT);
+    }
+
+    public static int workerNumber(int turn) {
+        return turn >>> WORKER_SHIFT;
+    }
+
+    public static int moveIndex(int turn) {
+        return (turn >>> MOVE_SHIFT) & DIRECTION_MASK;
+    }
+
+    public static int buildIndex(int turn) {
+        return (turn >>> BUILD_SHIFT) & DIRECTION_MASK;
+    }
+
+    // return whether the given turn builds after moving
+    public static boolean hasBuild(int turn) {
+        return buildIndex(turn) != NO_BUILD;
+    }
+
+    // return the direction with the given index
+    public static Direction direction(int index) {
+        return Direction.fromIndex(index);
+    }
+
+    /**
+     * Decodes a turn into the actions the rest of the game works with.
+     *
+     * @param turn encoded turn
+     * @param playerName name of the player taking the turn
+     * @return the move, followed by the build if the turn has one
+     */
+    public static List<Action> toActions(int turn, String playerName) {
+        String workerId = playerName + workerNumber(turn);
+        List<Action> actions = new ArrayList<>(2);
+        actions.add(new Action(ActionType.MOVE, workerId, direction(moveIndex(turn))));
+        if (hasBuild(turn)) {
+            actions.add(new Action(ActionType.BUILD, workerId, direction(buildIndex(turn))));
+        }
+        return actions;
+    }
+
+    /**
+     * Applies the given turn to the given board in place, to be reverted with undo.
+     *
+     * @param board board to apply the turn to
+     * @param turn encoded turn
+     * @param playerName name of the player taking the turn
+     */
+    public static void apply(IBoard board, int turn, String playerName) {
+        String workerId = playerName + workerNumber(turn);
+        board.apply(new Action(ActionType.MOVE, workerId, direction(moveIndex(turn))));
+        if (hasBuild(turn)) {
+            board.apply(new Action(ActionType.BUILD, workerId, direction(buildIndex(turn))));
+        }
+    }
+
+    /**
+     * Reverts the given turn, which must be the last turn applied to the board with apply.
+     *
+     * @param board board to revert the turn on
+     * @param turn encoded turn
+     */
+    public static void undo(IBoard board, int turn) {
+        board.undo();
+        if (hasBuild(turn)) {
+            board.undo();
+        }
+    }
+}
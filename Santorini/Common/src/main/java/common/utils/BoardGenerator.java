@@ -18,6 +18,32 @@ public class BoardGenerator {
         return board.toViewModel();
     }
 
+    /**
+     * Applies the given turn to the given board in place. Unlike generateSuccessor this does not
+     * copy the board, so search code can walk a game tree on a single board by pairing every
+     * call with a call to undoTurn.
+     *
+     * @param board board to apply the turn to
+     * @param actions the actions making up the turn
+     */
+    public static void applyTurn(IBoard board, List<Action> actions) {
+        for (Action action : actions) {
+            board.apply(action);
+        }
+    }
+
+    /**
+     * Reverts a turn previously applied to the given board with applyTurn.
+     *
+     * @param board board to revert the turn on
+     * @param actions the actions making up the turn
+     */
+    public static void undoTurn(IBoard board, List<Action> actions) {
+        for (int i = 0; i < actions.size(); i += 1) {
+            board.undo();
+        }
+    }
+
     private static void apply(IBoard board, Action action) {
         switch (action.getType()) {
             case MOVE:
@@ -0,0 +1,276 @@
+package common.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import common.data.Action;
+import common.data.ActionType;
+import common.data.Direction;
+import common.data.Worker;
+import common.rules.IRulesEngine;
+import common.rules.StandardSantoriniRulesEngine;
+import java.io.IOException;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class BitBoardTest {
+
+  private static final String BOARD_JSON = "[[0,\"1one1\",2,3,4,0],"
+      + "[0,0,0,0,0,0],"
+      + "[0,\"2two1\",0,0,0,0],"
+      + "[0,0,0,\"0one2\",0,0],"
+      + "[0,0,0,0,0,0],"
+      + "[\"3two2\",0,0,0,0,1]]";
+
+  private JsonNode boardJson() throws IOException {
+    return new ObjectMapper().readTree(BOARD_JSON);
+  }
+
+  /**
+   * Tests that a new empty board is empty.
+   */
+  @Test
+  public void testNewBoardEmpty() {
+    BitBoard board = new BitBoard();
+
+    for (int i = 0; i < 6; i += 1) {
+      for (int j = 0; j < 6; j += 1) {
+        assertThat(board.height(i, j)).isEqualTo(0);
+        assertThat(board.isOccupied(i, j)).isFalse();
+      }
+    }
+
+    assertThat(board.getPlayerWorkerMap()).isEmpty();
+  }
+
+  /**
+   * Tests that workers are numbered per player in creation order, like Board.
+   */
+  @Test
+  public void testCreateWorker() {
+    IBoard board = new BitBoard();
+
+    BuildingWorker worker1 = board.createWorker("one", 0, 0);
+    BuildingWorker worker2 = board.createWorker("two", 3, 2);
+    BuildingWorker worker3 = board.createWorker("one", 5, 5);
+
+    assertThat(worker1.getWorkerNumber()).isEqualTo(1);
+    assertThat(worker2.getWorkerNumber()).isEqualTo(1);
+    assertThat(worker3.getWorkerNumber()).isEqualTo(2);
+
+    assertThat(board.getNumWorkers("one")).isEqualTo(2);
+    assertThat(board.getNumWorkers("two")).isEqualTo(1);
+    assertThat(board.getNumWorkers("three")).isEqualTo(0);
+
+    Worker found = board.findWorker("one2");
+    assertThat(found.getRow()).isEqualTo(5);
+    assertThat(found.getColumn()).isEqualTo(5);
+    assertThat(board.hasWorker("two2")).isFalse();
+    assertThat(board.findWorker("two2")).isNull();
+  }
+
+  /**
+   * Tests that moving and building update the heights and worker positions.
+   */
+  @Test
+  public void testMoveAndBuild() {
+    IBoard board = new BitBoard();
+    board.createWorker("one", 2, 2);
+
+    board.move("one1", new Direction("EAST", "SOUTH"));
+
+    assertThat(board.isOccupied(2, 2)).isFalse();
+    assertThat(board.isOccupied(3, 3)).isTrue();
+    assertThat(board.findWorker("one1").getRow()).isEqualTo(3);
+    assertThat(board.findWorker("one1").getColumn()).isEqualTo(3);
+
+    Direction north = new Direction("PUT", "NORTH");
+    for (int i = 1; i <= 4; i += 1) {
+      assertThat(board.build("one1", north)).isEqualTo(i);
+      assertThat(board.height(2, 3)).isEqualTo(i);
+      assertThat(board.height("one1", north)).isEqualTo(i);
+    }
+
+    assertThat(board.isOccupied("one1", north)).isFalse();
+    assertThat(board.isNeighbor("one1", north)).isTrue();
+  }
+
+  /**
+   * Tests that isNeighbor respects the edges of the grid.
+   */
+  @Test
+  public void testIsNeighborEdges() {
+    IBoard board = new BitBoard();
+    board.createWorker("one", 0, 5);
+
+    assertThat(board.isNeighbor("one1", new Direction("EAST", "PUT"))).isFalse();
+    assertThat(board.isNeighbor("one1", new Direction("PUT", "NORTH"))).isFalse();
+    assertThat(board.isNeighbor("one1", new Direction("WEST", "SOUTH"))).isTrue();
+  }
+
+  /**
+   * Tests that a board parsed from JSON matches Board and serializes back to the same JSON.
+   */
+  @Test
+  public void testJsonRoundTrip() throws IOException {
+    JsonNode json = boardJson();
+    BitBoard bitBoard = new BitBoard(json);
+    Board board = new Board(json);
+
+    for (int i = 0; i < 6; i += 1) {
+      for (int j = 0; j < 6; j += 1) {
+        assertThat(bitBoard.height(i, j)).isEqualTo(board.height(i, j));
+        assertThat(bitBoard.isOccupied(i, j)).isEqualTo(board.isOccupied(i, j));
+      }
+    }
+
+    assertThat(bitBoard.toJson()).isEqualTo(json);
+    assertThat(bitBoard.getPlayerWorkerMap().keySet()).containsOnly("one", "two");
+  }
+
+  /**
+   * Tests converting between Board and BitBoard in both directions.
+   */
+  @Test
+  public void testConversion() throws IOException {
+    Board board = new Board(boardJson());
+
+    BitBoard bitBoard = new BitBoard(board);
+    assertThat(bitBoard.toJson()).isEqualTo(board.toJson());
+
+    Board back = new Board(bitBoard);
+    assertThat(back.toJson()).isEqualTo(board.toJson());
+  }
+
+  /**
+   * Tests that workers are listed in the same row-major order as Board lists them.
+   */
+  @Test
+  public void testPlayerWorkersOrder() throws IOException {
+    JsonNode json = boardJson();
+    BitBoard bitBoard = new BitBoard(json);
+    Board board = new Board(json);
+
+    bitBoard.move("one2", new Direction("WEST", "NORTH"));
+    board.move("one2", new Direction("WEST", "NORTH"));
+    bitBoard.move("one2", new Direction("WEST", "NORTH"));
+    board.move("one2", new Direction("WEST", "NORTH"));
+
+    for (String player : Arrays.asList("one", "two")) {
+      assertThat(bitBoard.getPlayerWorkers(player)).hasSize(2);
+      for (int i = 0; i < 2; i += 1) {
+        Worker expected = board.getPlayerWorkers(player).get(i);
+        Worker actual = bitBoard.getPlayerWorkers(player).get(i);
+        assertThat(actual.getWorkerId()).isEqualTo(expected.getWorkerId());
+        assertThat(actual.getRow()).isEqualTo(expected.getRow());
+        assertThat(actual.getColumn()).isEqualTo(expected.getColumn());
+      }
+    }
+  }
+
+  /**
+   * Tests that toBoard gives an independent copy.
+   */
+  @Test
+  public void testToBoardCopies() throws IOException {
+    BitBoard original = new BitBoard(boardJson());
+    IBoard copy = original.toBoard();
+
+    copy.move("one1", new Direction("PUT", "SOUTH"));
+    copy.build("one1", new Direction("PUT", "SOUTH"));
+    copy.createWorker("three", 4, 4);
+
+    assertThat(original.toJson()).isEqualTo(boardJson());
+    assertThat(copy.findWorker("one1").getRow()).isEqualTo(1);
+    assertThat(copy.height(2, 1)).isEqualTo(3);
+    assertThat(original.hasWorker("three1")).isFalse();
+  }
+
+  /**
+   * Tests that the rules engine gives the same answers on a BitBoard as on a Board.
+   */
+  @Test
+  public void testRulesEngineParity() throws IOException {
+    IRulesEngine rules = new StandardSantoriniRulesEngine();
+    Board board = new Board(boardJson());
+    BitBoard bitBoard = new BitBoard(boardJson());
+
+    for (String player : Arrays.asList("one", "two")) {
+      assertThat(rules.didPlayerWin(bitBoard, player)).isEqualTo(rules.didPlayerWin(board, player));
+      assertThat(rules.didPlayerLose(bitBoard, player)).isEqualTo(rules.didPlayerLose(board, player));
+    }
+  }
+
+  /**
+   * Tests that undo reverts applied moves and builds, restoring the board exactly.
+   */
+  @Test
+  public void testApplyUndo() {
+    IBoard board = new BitBoard();
+    board.createWorker("one", 2, 2);
+    board.createWorker("one", 2, 3);
+    board.createWorker("two", 4, 4);
+    board.build("one1", new Direction("WEST", "PUT"));
+    String before = board.toJson().toString();
+
+    board.apply(new Action(ActionType.MOVE, "one2", new Direction("WEST", "NORTH")));
+    board.apply(new Action(ActionType.BUILD, "one2", new Direction("EAST", "PUT")));
+    board.apply(new Action(ActionType.MOVE, "two1", new Direction("WEST", "NORTH")));
+    board.apply(new Action(ActionType.BUILD, "two1", new Direction("EAST", "PUT")));
+
+    assertThat(board.findWorker("one2").getRow()).isEqualTo(1);
+    assertThat(board.height(1, 3)).isEqualTo(1);
+    assertThat(board.height(3, 4)).isEqualTo(1);
+    assertThat(board.getPlayerWorkers("one").get(0).getWorkerId()).isEqualTo("one2");
+
+    board.undo();
+    board.undo();
+    assertThat(board.findWorker("two1").getRow()).isEqualTo(4);
+    assertThat(board.height(3, 4)).isEqualTo(0);
+
+    board.undo();
+    board.undo();
+    assertThat(board.toJson().toString()).isEqualTo(before);
+    assertThat(board.getPlayerWorkers("one").get(0).getWorkerId()).isEqualTo("one1");
+    assertThat(board.findWorker("one2").getColumn()).isEqualTo(3);
+  }
+
+  /**
+   * Tests that undo fails when nothing has been applied.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testUndoNothingApplied() {
+    IBoard board = new BitBoard();
+    board.createWorker("one", 2, 2);
+    board.move("one1", new Direction("WEST", "PUT"));
+
+    board.undo();
+  }
+
+  /**
+   * Tests that a BitBoard keeps the same hash as a Board holding the same position.
+   */
+  @Test
+  public void testHashMatchesBoard() throws IOException {
+    Board board = new Board(boardJson());
+    BitBoard bitBoard = new BitBoard(boardJson());
+
+    assertThat(bitBoard.getHash()).isEqualTo(board.getHash());
+
+    Action move = new Action(ActionType.MOVE, "two1", new Direction("EAST", "NORTH"));
+    Action build = new Action(ActionType.BUILD, "two1", new Direction("PUT", "NORTH"));
+    board.apply(move);
+    board.apply(build);
+    bitBoard.apply(move);
+    bitBoard.apply(build);
+
+    assertThat(bitBoard.getHash()).isEqualTo(board.getHash())
+                                  .isEqualTo(ZobristKeys.hashOf(bitBoard));
+
+    bitBoard.undo();
+    bitBoard.undo();
+    assertThat(bitBoard.getHash()).isEqualTo(ZobristKeys.hashOf(new Board(boardJson())));
+    assertThat(bitBoard.toBoard().getHash()).isEqualTo(bitBoard.getHash());
+  }
+}
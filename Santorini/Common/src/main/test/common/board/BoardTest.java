@@ -2,6 +2,8 @@ package common.board;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import common.data.Action;
+import common.data.ActionType;
 import common.data.Direction;
 import org.junit.Test;
 
@@ -306,4 +308,128 @@ public class BoardTest {
 
     assertThat(isOccupied).isFalse();
   }
+
+  /**
+   * Tests that the worker index follows workers as they move past each other, keeping each
+   * player's workers in row-major order.
+   */
+  @Test
+  public void testWorkerIndexFollowsMoves() {
+    IBoard board = new Board();
+    board.createWorker("one", 2, 2);
+    board.createWorker("one", 2, 3);
+
+    board.move("one2", new Direction("WEST", "NORTH"));
+
+    assertThat(board.findWorker("one2").getRow()).isEqualTo(1);
+    assertThat(board.findWorker("one2").getColumn()).isEqualTo(2);
+    assertThat(board.getPlayerWorkers("one").get(0).getWorkerId()).isEqualTo("one2");
+    assertThat(board.getPlayerWorkers("one").get(1).getWorkerId()).isEqualTo("one1");
+    assertThat(board.getNumWorkers("one")).isEqualTo(2);
+
+    IBoard copy = board.toBoard();
+    copy.move("one1", new Direction("PUT", "SOUTH"));
+
+    assertThat(copy.findWorker("one1").getRow()).isEqualTo(3);
+    assertThat(board.findWorker("one1").getRow()).isEqualTo(2);
+  }
+
+  /**
+   * Tests that looking up workers that are not on the board does not fail.
+   */
+  @Test
+  public void testFindMissingWorker() {
+    IBoard board = new Board();
+    board.createWorker("one", 0, 0);
+
+    assertThat(board.hasWorker("one2")).isFalse();
+    assertThat(board.hasWorker("id")).isFalse();
+    assertThat(board.findWorker("two1")).isNull();
+    assertThat(board.getPlayerWorkers("two")).isEmpty();
+    assertThat(board.getNumWorkers("two")).isEqualTo(0);
+  }
+
+  /**
+   * Tests that undo reverts applied moves and builds, restoring the board exactly.
+   */
+  @Test
+  public void testApplyUndo() {
+    IBoard board = new Board();
+    board.createWorker("one", 2, 2);
+    board.createWorker("one", 2, 3);
+    board.createWorker("two", 4, 4);
+    board.build("one1", new Direction("WEST", "PUT"));
+    String before = board.toJson().toString();
+
+    board.apply(new Action(ActionType.MOVE, "one2", new Direction("WEST", "NORTH")));
+    board.apply(new Action(ActionType.BUILD, "one2", new Direction("EAST", "PUT")));
+    board.apply(new Action(ActionType.MOVE, "two1", new Direction("WEST", "NORTH")));
+    board.apply(new Action(ActionType.BUILD, "two1", new Direction("EAST", "PUT")));
+
+    assertThat(board.findWorker("one2").getRow()).isEqualTo(1);
+    assertThat(board.height(1, 3)).isEqualTo(1);
+    assertThat(board.height(3, 4)).isEqualTo(1);
+    assertThat(board.getPlayerWorkers("one").get(0).getWorkerId()).isEqualTo("one2");
+
+    board.undo();
+    board.undo();
+    assertThat(board.findWorker("two1").getRow()).isEqualTo(4);
+    assertThat(board.height(3, 4)).isEqualTo(0);
+
+    board.undo();
+    board.undo();
+    assertThat(board.toJson().toString()).isEqualTo(before);
+    assertThat(board.getPlayerWorkers("one").get(0).getWorkerId()).isEqualTo("one1");
+    assertThat(board.findWorker("one2").getColumn()).isEqualTo(3);
+  }
+
+  /**
+   * Tests that undo fails when nothing has been applied.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testUndoNothingApplied() {
+    IBoard board = new Board();
+    board.createWorker("one", 2, 2);
+    board.move("one1", new Direction("WEST", "PUT"));
+
+    board.undo();
+  }
+
+  /**
+   * Tests that the hash is kept equal to a hash computed from scratch, and that reaching the same
+   * position through a different order of moves gives the same hash.
+   */
+  @Test
+  public void testHashFollowsChanges() {
+    IBoard board = new Board();
+    board.createWorker("one", 2, 2);
+    board.createWorker("two", 4, 4);
+    long start = board.getHash();
+
+    assertThat(start).isEqualTo(ZobristKeys.hashOf(board));
+
+    board.apply(new Action(ActionType.MOVE, "one1", new Direction("EAST", "PUT")));
+    board.apply(new Action(ActionType.BUILD, "one1", new Direction("PUT", "NORTH")));
+    board.apply(new Action(ActionType.MOVE, "two1", new Direction("PUT", "NORTH")));
+    board.apply(new Action(ActionType.BUILD, "two1", new Direction("WEST", "PUT")));
+    long end = board.getHash();
+
+    assertThat(end).isEqualTo(ZobristKeys.hashOf(board)).isNotEqualTo(start);
+
+    IBoard other = new Board();
+    other.createWorker("one", 2, 2);
+    other.createWorker("two", 4, 4);
+    other.move("two1", new Direction("PUT", "NORTH"));
+    other.build("two1", new Direction("WEST", "PUT"));
+    other.move("one1", new Direction("EAST", "PUT"));
+    other.build("one1", new Direction("PUT", "NORTH"));
+
+    assertThat(other.getHash()).isEqualTo(end);
+    assertThat(other.toBoard().getHash()).isEqualTo(end);
+
+    for (int i = 0; i < 4; i += 1) {
+      board.undo();
+    }
+    assertThat(board.getHash()).isEqualTo(start);
+  }
 }
@@ -0,0 +1,82 @@
+package common.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import common.board.NeighborTable;
+import java.util.List;
+import org.junit.Test;
+
+public class DirectionTest {
+
+  /**
+   * Tests that of returns the shared instances, parsing the strings like the constructor.
+   */
+  @Test
+  public void testOfIsInterned() {
+    List<Direction> all = Direction.getAllDirections();
+
+    assertThat(Direction.of("EAST", "NORTH")).isSameAs(all.get(0));
+    assertThat(Direction.of("west", "put")).isSameAs(all.get(6));
+    assertThat(Direction.of("PUT", "SOUTH")).isSameAs(Direction.of("PUT", "SOUTH"));
+    assertThat(Direction.getAllDirections()).isSameAs(all);
+
+    for (int i = 0; i < all.size(); i++) {
+      Direction direction = all.get(i);
+      Direction parsed = new Direction(direction.getEastWest(), direction.getNorthSouth());
+      assertThat(Direction.of(direction.getEastWest(), direction.getNorthSouth())).isSameAs(direction);
+      assertThat(Direction.fromIndex(i)).isSameAs(direction);
+      assertThat(parsed.getIndex()).isEqualTo(i);
+      assertThat(parsed.getRowModifier()).isEqualTo(direction.getRowModifier());
+      assertThat(parsed.getColumnModifier()).isEqualTo(direction.getColumnModifier());
+    }
+  }
+
+  /**
+   * Tests that staying put is not one of the canonical directions but still parses.
+   */
+  @Test
+  public void testPutPut() {
+    Direction put = Direction.of("PUT", "PUT");
+
+    assertThat(Direction.getAllDirections()).doesNotContain(put);
+    assertThat(put.getIndex()).isEqualTo(Direction.NO_INDEX);
+    assertThat(put.getRowModifier()).isEqualTo(0);
+    assertThat(put.getColumnModifier()).isEqualTo(0);
+    assertThat(put.getEastWest()).isEqualTo("PUT");
+  }
+
+  /**
+   * Tests the modifiers of each compass direction.
+   */
+  @Test
+  public void testModifiers() {
+    Direction northEast = Direction.of("EAST", "NORTH");
+    Direction southWest = new Direction("WEST", "SOUTH");
+
+    assertThat(northEast.getRowModifier()).isEqualTo(-1);
+    assertThat(northEast.getColumnModifier()).isEqualTo(1);
+    assertThat(southWest.getRowModifier()).isEqualTo(1);
+    assertThat(southWest.getColumnModifier()).isEqualTo(-1);
+  }
+
+  /**
+   * Tests that the neighbor table agrees with the modifiers and the edges of the board.
+   */
+  @Test
+  public void testNeighborTable() {
+    for (int cell = 0; cell < NeighborTable.NUM_CELLS; cell++) {
+      for (int i = 0; i < Direction.getAllDirections().size(); i++) {
+        Direction direction = Direction.fromIndex(i);
+        int row = NeighborTable.rowOf(cell) + direction.getRowModifier();
+        int column = NeighborTable.columnOf(cell) + direction.getColumnModifier();
+        boolean onBoard = row >= 0 && row < 6 && column >= 0 && column < 6;
+
+        int expected = onBoard ? row * 6 + column : NeighborTable.NO_NEIGHBOR;
+        assertThat(NeighborTable.neighbor(cell, i)).isEqualTo(expected);
+      }
+    }
+
+    assertThat(NeighborTable.neighbor(NeighborTable.cellOf(0, 0), 0)).isEqualTo(NeighborTable.NO_NEIGHBOR);
+    assertThat(NeighborTable.neighbor(NeighborTable.cellOf(0, 0), 2)).isEqualTo(NeighborTable.cellOf(1, 1));
+  }
+}
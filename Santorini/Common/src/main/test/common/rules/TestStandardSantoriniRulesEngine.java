@@ -398,6 +398,80 @@ public class TestStandardSantoriniRulesEngine {
             0,0)).isTrue();
   }
 
+  /**
+   * Tests that generateTurns lists exactly the turns isTurnLegal accepts, in order: per worker,
+   * the winning moves and then each move with each build.
+   */
+  @Test
+  public void testGenerateTurnsMatchesIsTurnLegal() {
+    board.createWorker(p1Name, 0, 0);
+    board.createWorker(p2Name, 1, 1);
+    board.createWorker(p1Name, 2, 2);
+    board.createWorker(p2Name, 3, 3);
+    board.build("one2", new Direction("PUT", "SOUTH"));
+    board.build("one2", new Direction("PUT", "SOUTH"));
+    board.move("one2", new Direction("PUT", "SOUTH"));
+    board.build("one2", new Direction("WEST", "PUT"));
+    board.build("one2", new Direction("WEST", "PUT"));
+    board.build("one2", new Direction("WEST", "PUT"));
+    board.build("one1", new Direction("EAST", "PUT"));
+
+    for (String player : players) {
+      List<List<Action>> expected = new ArrayList<>();
+      for (String workerId : new String[] {player + "1", player + "2"}) {
+        for (Direction move : Direction.getAllDirections()) {
+          List<Action> turn = new ArrayList<>();
+          turn.add(new Action(ActionType.MOVE, workerId, move));
+          if (rules.isTurnLegal(board, turn, player)) {
+            expected.add(turn);
+          }
+        }
+        for (Direction move : Direction.getAllDirections()) {
+          for (Direction build : Direction.getAllDirections()) {
+            List<Action> turn = new ArrayList<>();
+            turn.add(new Action(ActionType.MOVE, workerId, move));
+            turn.add(new Action(ActionType.BUILD, workerId, build));
+            if (rules.isTurnLegal(board, turn, player)) {
+              expected.add(turn);
+            }
+          }
+        }
+      }
+
+      if (player.equals(p1Name)) {
+        // one2 can win by moving west
+        assertThat(expected).anyMatch(turn -> turn.size() == 1);
+      }
+
+      TurnBuffer sink = new TurnBuffer(1);
+      rules.generateTurns(board, player, sink);
+
+      assertThat(sink.size()).isEqualTo(expected.size());
+      for (int i = 0; i < sink.size(); i++) {
+        List<Action> actual = Turns.toActions(sink.get(i), player);
+        assertThat(actual).hasSameSizeAs(expected.get(i));
+        for (int j = 0; j < actual.size(); j++) {
+          Action want = expected.get(i).get(j);
+          assertThat(actual.get(j).getType()).isEqualTo(want.getType());
+          assertThat(actual.get(j).getWorkerId()).isEqualTo(want.getWorkerId());
+          assertThat(actual.get(j).getDirection().getEastWest()).isEqualTo(want.getDirection().getEastWest());
+          assertThat(actual.get(j).getDirection().getNorthSouth()).isEqualTo(want.getDirection().getNorthSouth());
+        }
+      }
+    }
+  }
 
+  /**
+   * Tests that generateTurns lists nothing for a player without workers and clears the sink.
+   */
+  @Test
+  public void testGenerateTurnsNoWorkers() {
+    board.createWorker(p1Name, 0, 0);
+    TurnBuffer sink = new TurnBuffer();
+    sink.add(5);
+
+    rules.generateTurns(board, p2Name, sink);
 
+    assertThat(sink.isEmpty()).isTrue();
+  }
 }
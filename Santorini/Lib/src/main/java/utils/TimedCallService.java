@@ -0,0 +1,283 @@
+package utils;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Runs calls into untrusted code, such as players, on a shared pool of reusable threads, giving
+ * up on each call at its own deadline.
+ *
+ * A call that misses its deadline is interrupted, but code that ignores interrupts keeps its
+ * thread busy, possibly forever. Such a thread is quarantined: the pool grows by one thread to make
+ * up for it, and shrinks back if the call ever returns. The number of threads stuck this way is
+ * exposed along with the number of calls and timeouts, so leaks show up in monitoring instead of
+ * as a pool that slowly stops answering.
+ *
+ * A call's timeout starts when a thread picks it up, so calls queued behind a busy pool, like the
+ * turns of many games played at once, are not timed out for the wait.
+ *
+ * With virtual threads enabled (see VirtualThreads), the shared service runs each call on its own
+ * virtual thread instead, so waiting calls are not capped by a pool size. Stuck calls are still
+ * counted as quarantined, but there is no pool to grow.
+ */
+public class TimedCallService {
+
+  // Threads kept for calls that return in time
+  private static final int DEFAULT_POOL_SIZE = Math.max(16, 4 * Runtime.getRuntime().availableProcessors());
+  // Idle threads are let go after this many seconds
+  private static final long KEEP_ALIVE_SECONDS = 60;
+
+  private static final TimedCallService SHARED = VirtualThreads.isEnabled()
+      ? withVirtualThreads()
+      : new TimedCallService(DEFAULT_POOL_SIZE);
+
+  private final ExecutorService executor;
+  // the executor when it is a pool, or null when every call gets a virtual thread
+  private final ThreadPoolExecutor pool;
+  private final int poolSize;
+
+  private final AtomicLong calls = new AtomicLong();
+  private final AtomicLong timeouts = new AtomicLong();
+  private final AtomicLong failures = new AtomicLong();
+  private final AtomicLong everQuarantined = new AtomicLong();
+  private final AtomicInteger quarantined = new AtomicInteger();
+
+  /**
+   * Creates a service whose pool keeps the given number of threads for calls that return in time.
+   *
+   * @param poolSize number of threads, at least 1
+   */
+  public TimedCallService(int poolSize) {
+    if (poolSize < 1) {
+      throw new IllegalArgumentException(String.format("%d is not a legal pool size", poolSize));
+    }
+    this.poolSize = poolSize;
+    this.pool = new ThreadPoolExecutor(poolSize, poolSize, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), new DaemonThreadFactory());
+    this.pool.allowCoreThreadTimeOut(true);
+    this.executor = pool;
+  }
+
+  private TimedCallService(ExecutorService executor) {
+    this.poolSize = 0;
+    this.pool = null;
+    this.executor = executor;
+  }
+
+  /**
+   * Creates a service that runs every call on a new virtual thread.
+   *
+   * @return the service
+   * @throws IllegalStateException if this JVM has no virtual threads
+   */
+  public static TimedCallService withVirtualThreads() {
+    return new TimedCallService(VirtualThreads.newThreadPerTaskExecutor());
+  }
+
+  /**
+   * Returns the service shared by everything that makes timed calls, like Utils.timedCall.
+   */
+  public static TimedCallService shared() {
+    return SHARED;
+  }
+
+  /**
+   * Calls the given function on the given obj, but makes sure that the call does not last
+   * longer than the given timeout. The timeout starts once a thread runs the call, time spent
+   * waiting for a free thread does not count.
+   *
+   * @param <T> type the function returns
+   * @param obj obj to call function on
+   * @param func function to call on obj
+   * @param timeout length of time to wait for
+   * @param unit unit of timeout
+   * @return the result of the function, or empty if it timed out or threw
+   */
+  public <T, U> Optional<T> call(U obj, Function<U, T> func, long timeout, TimeUnit unit) {
+    calls.incrementAndGet();
+    Call<T> call = new Call<>(() -> func.apply(obj));
+    Future<T> future = executor.submit(call);
+
+    long started;
+    try {
+      started = call.awaitStart();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      call.quarantineIfRunning();
+      Thread.currentThread().interrupt();
+      return Optional.empty();
+    }
+    return await(call, future, started + unit.toNanos(timeout));
+  }
+
+  /**
+   * Calls the given function on the given obj, but makes sure that the call does not last past
+   * the given deadline. Time the call spends waiting for a free thread counts towards it.
+   *
+   * @param <T> type the function returns
+   * @param obj obj to call function on
+   * @param func function to call on obj
+   * @param deadline System.nanoTime value to give up at
+   * @return the result of the function, or empty if it timed out or threw
+   */
+  public <T, U> Optional<T> callBy(U obj, Function<U, T> func, long deadline) {
+    calls.incrementAndGet();
+    Call<T> call = new Call<>(() -> func.apply(obj));
+    return await(call, executor.submit(call), deadline);
+  }
+
+  /**
+   * Waits for the result of the given call until the given deadline, and cancels it if the
+   * deadline passes first.
+   */
+  private <T> Optional<T> await(Call<T> call, Future<T> future, long deadline) {
+    T result;
+    try {
+      result = future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      timeouts.incrementAndGet();
+      future.cancel(true);
+      call.quarantineIfRunning();
+      return Optional.empty();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      call.quarantineIfRunning();
+      Thread.currentThread().interrupt();
+      return Optional.empty();
+    } catch (ExecutionException e) {
+      failures.incrementAndGet();
+      return Optional.empty();
+    }
+
+    return Optional.of(result);
+  }
+
+  // returns the number of calls made
+  public long getCalls() {
+    return calls.get();
+  }
+
+  // returns the number of calls that missed their deadline
+  public long getTimeouts() {
+    return timeouts.get();
+  }
+
+  // returns the number of calls that threw
+  public long getFailures() {
+    return failures.get();
+  }
+
+  // returns the number of threads still stuck in calls that missed their deadline
+  public int getQuarantinedThreads() {
+    return quarantined.get();
+  }
+
+  // returns the number of threads ever quarantined, including ones whose calls later returned
+  public long getTotalQuarantinedThreads() {
+    return everQuarantined.get();
+  }
+
+  // returns the number of threads kept for calls that return in time, 0 with virtual threads
+  public int getPoolSize() {
+    return poolSize;
+  }
+
+  /**
+   * Resizes the pool so it has poolSize threads besides the quarantined ones.
+   */
+  private synchronized void resizePool() {
+    if (pool == null) {
+      return;
+    }
+    int size = poolSize + quarantined.get();
+    if (size > pool.getMaximumPoolSize()) {
+      pool.setMaximumPoolSize(size);
+      pool.setCorePoolSize(size);
+    } else {
+      pool.setCorePoolSize(size);
+      pool.setMaximumPoolSize(size);
+    }
+  }
+
+  /**
+   * A call tracking whether it is running, so a thread left running it past its deadline can be
+   * quarantined until it returns.
+   */
+  private class Call<T> implements Callable<T> {
+    private final Callable<T> body;
+    // whether the call has started, and whether it has returned since
+    private boolean started;
+    // System.nanoTime when the call started
+    private long startedAt;
+    private boolean finished;
+    private boolean isQuarantined;
+
+    Call(Callable<T> body) {
+      this.body = body;
+    }
+
+    @Override
+    public T call() throws Exception {
+      synchronized (this) {
+        started = true;
+        startedAt = System.nanoTime();
+        notifyAll();
+      }
+      try {
+        return body.call();
+      } finally {
+        release();
+      }
+    }
+
+    // waits for a thread to start the call, and returns when it did
+    synchronized long awaitStart() throws InterruptedException {
+      while (!started) {
+        wait();
+      }
+      return startedAt;
+    }
+
+    synchronized void quarantineIfRunning() {
+      if (started && !finished && !isQuarantined) {
+        isQuarantined = true;
+        quarantined.incrementAndGet();
+        everQuarantined.incrementAndGet();
+        resizePool();
+      }
+    }
+
+    private synchronized void release() {
+      finished = true;
+      if (isQuarantined) {
+        quarantined.decrementAndGet();
+        resizePool();
+      }
+    }
+  }
+
+  /**
+   * Makes daemon threads, so threads stuck in calls never keep the process alive.
+   */
+  private static class DaemonThreadFactory implements ThreadFactory {
+    private final AtomicInteger created = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "timed-call-" + created.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
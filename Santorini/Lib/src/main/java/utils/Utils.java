@@ -1,15 +1,10 @@
 package utils;
 
-import com.google.common.util.concurrent.SimpleTimeLimiter;
-import com.google.common.util.concurrent.TimeLimiter;
 import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.Optional;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -17,7 +12,7 @@ public class Utils {
 
   /**
    * Calls the given function on the given obj, but makes sure that the call does not last
-   * longer than timeout seconds.
+   * longer than timeout seconds. Calls run on the threads of the shared TimedCallService.
    *
    * @param <T> type the function returns
    * @param obj obj to call function on
@@ -26,21 +21,7 @@ public class Utils {
    * @return the result of the function, or empty if timeout
    */
   public static <T, U> Optional<T> timedCall(U obj, Function<U, T> func, int timeout) {
-    ExecutorService executor = Executors.newSingleThreadExecutor();
-
-    TimeLimiter limiter = SimpleTimeLimiter.create(executor);
-    T result;
-
-    try {
-      result = limiter.callWithTimeout(() -> func.apply(obj), timeout, TimeUnit.SECONDS);
-    } catch (Exception e) {
-
-      executor.shutdownNow();
-      return Optional.empty();
-    }
-
-    executor.shutdownNow();
-    return Optional.of(result);
+    return TimedCallService.shared().call(obj, func, timeout, TimeUnit.SECONDS);
   }
 
   public static String createRandomName() {
@@ -0,0 +1,104 @@
+package utils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Starts threads for connections and calls as virtual threads when the JVM has them and the
+ * santorini.virtualThreads system property is true, and as platform threads otherwise.
+ *
+ * Virtual threads came with JDK 21, while this code still builds for Java 8, so they are reached
+ * through reflection. A virtual thread blocked on a socket or a timed call gives up its carrier, so
+ * a process can serve many more remote players than it could run platform threads.
+ *
+ * To use them, run on JDK 21 or later with -Dsantorini.virtualThreads=true, for example
+ * java -Dsantorini.virtualThreads=true -cp ... client.Client. No other build is needed.
+ */
+public final class VirtualThreads {
+
+  // System property that turns on virtual threads
+  public static final String PROPERTY = "santorini.virtualThreads";
+
+  // Thread.ofVirtual and the Thread.Builder methods used on it, or null before JDK 21
+  private static final Method OF_VIRTUAL;
+  private static final Method BUILDER_NAME;
+  private static final Method BUILDER_UNSTARTED;
+  private static final Method NEW_PER_TASK_EXECUTOR;
+
+  static {
+    Method ofVirtual = null;
+    Method builderName = null;
+    Method builderUnstarted = null;
+    Method newPerTaskExecutor = null;
+    try {
+      Class<?> builder = Class.forName("java.lang.Thread$Builder");
+      ofVirtual = Thread.class.getMethod("ofVirtual");
+      builderName = builder.getMethod("name", String.class);
+      builderUnstarted = builder.getMethod("unstarted", Runnable.class);
+      newPerTaskExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+    } catch (ClassNotFoundException | NoSuchMethodException e) {
+      // do nothing, this JVM has no virtual threads
+      ofVirtual = null;
+    }
+    OF_VIRTUAL = ofVirtual;
+    BUILDER_NAME = builderName;
+    BUILDER_UNSTARTED = builderUnstarted;
+    NEW_PER_TASK_EXECUTOR = newPerTaskExecutor;
+  }
+
+  private VirtualThreads() {
+  }
+
+  // returns whether this JVM has virtual threads
+  public static boolean isAvailable() {
+    return OF_VIRTUAL != null;
+  }
+
+  // returns whether threads are started as virtual threads
+  public static boolean isEnabled() {
+    return isAvailable() && Boolean.getBoolean(PROPERTY);
+  }
+
+  /**
+   * Makes an unstarted thread running the given task, a virtual thread if enabled. Virtual threads
+   * are always daemon threads, so whoever starts one must wait for it if it should keep the
+   * process alive.
+   *
+   * @param name name of the thread
+   * @param task task for the thread to run
+   * @return the thread, not yet started
+   */
+  public static Thread newThread(String name, Runnable task) {
+    if (!isEnabled()) {
+      return new Thread(task, name);
+    }
+
+    try {
+      Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), name);
+      return (Thread) BUILDER_UNSTARTED.invoke(builder, task);
+    } catch (IllegalAccessException | InvocationTargetException e) {
+      throw new IllegalStateException("Unable to start a virtual thread", e);
+    }
+  }
+
+  /**
+   * Makes an executor that runs each task on a new virtual thread. Cancelling a task interrupts
+   * its thread like any other.
+   *
+   * @return the executor
+   * @throws IllegalStateException if this JVM has no virtual threads
+   */
+  public static ExecutorService newThreadPerTaskExecutor() {
+    if (!isAvailable()) {
+      throw new IllegalStateException("This JVM has no virtual threads");
+    }
+
+    try {
+      return (ExecutorService) NEW_PER_TASK_EXECUTOR.invoke(null);
+    } catch (IllegalAccessException | InvocationTargetException e) {
+      throw new IllegalStateException("Unable to start virtual threads", e);
+    }
+  }
+}
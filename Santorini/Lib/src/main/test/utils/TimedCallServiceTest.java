@@ -0,0 +1,165 @@
+package utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+
+public class TimedCallServiceTest {
+
+  /**
+   * Spins ignoring interrupts, like a runaway player, until told to stop.
+   */
+  private static String spinUntil(AtomicBoolean stop) {
+    while (!stop.get()) {
+      Thread.yield();
+    }
+    return "stopped";
+  }
+
+  /**
+   * Tests that a call returning in time gives its result
+   */
+  @Test
+  public void testCallInTime() {
+    TimedCallService service = new TimedCallService(2);
+
+    Optional<Integer> result = service.call("four", String::length, 1, TimeUnit.SECONDS);
+
+    assertThat(result).contains(4);
+    assertThat(service.getCalls()).isEqualTo(1);
+    assertThat(service.getTimeouts()).isEqualTo(0);
+  }
+
+  /**
+   * Tests that calls reuse the threads of the pool
+   */
+  @Test
+  public void testThreadsReused() {
+    TimedCallService service = new TimedCallService(1);
+
+    Optional<Thread> first = service.call(null, o -> Thread.currentThread(), 1, TimeUnit.SECONDS);
+    Optional<Thread> second = service.call(null, o -> Thread.currentThread(), 1, TimeUnit.SECONDS);
+
+    assertThat(first).isPresent();
+    assertThat(second).isEqualTo(first);
+    assertThat(first.get().isDaemon()).isTrue();
+  }
+
+  /**
+   * Tests that calls queued behind a busy pool are not timed out for the time they wait, as when
+   * more games run at once than the pool has threads
+   */
+  @Test
+  public void testQueuedCallsNotTimedOut() throws InterruptedException {
+    TimedCallService service = new TimedCallService(1);
+    List<Thread> callers = new ArrayList<>();
+    List<Optional<String>> results = Collections.synchronizedList(new ArrayList<>());
+
+    for (int i = 0; i < 4; i += 1) {
+      Thread caller = new Thread(() -> results.add(service.call(null, o -> {
+        try {
+          Thread.sleep(200);
+        } catch (InterruptedException e) {
+          return "interrupted";
+        }
+        return "done";
+      }, 500, TimeUnit.MILLISECONDS)));
+      caller.start();
+      callers.add(caller);
+    }
+    for (Thread caller : callers) {
+      caller.join();
+    }
+
+    assertThat(results).hasSize(4).allMatch(result -> result.equals(Optional.of("done")));
+    assertThat(service.getTimeouts()).isEqualTo(0);
+  }
+
+  /**
+   * Tests that a call that throws gives nothing and is counted as a failure
+   */
+  @Test
+  public void testCallThrows() {
+    TimedCallService service = new TimedCallService(1);
+
+    Optional<Integer> result = service.call(null, o -> {
+      throw new IllegalStateException("broken player");
+    }, 1, TimeUnit.SECONDS);
+
+    assertThat(result).isEmpty();
+    assertThat(service.getFailures()).isEqualTo(1);
+  }
+
+  /**
+   * Tests that a call ignoring its deadline times out and quarantines its thread, without taking
+   * the thread away from later calls
+   */
+  @Test
+  public void testStuckThreadQuarantined() {
+    TimedCallService service = new TimedCallService(1);
+    AtomicBoolean stop = new AtomicBoolean(false);
+
+    try {
+      Optional<String> stuck = service.call(stop, TimedCallServiceTest::spinUntil, 100, TimeUnit.MILLISECONDS);
+
+      assertThat(stuck).isEmpty();
+      assertThat(service.getTimeouts()).isEqualTo(1);
+      assertThat(service.getQuarantinedThreads()).isEqualTo(1);
+      assertThat(service.call("ok", String::length, 1, TimeUnit.SECONDS)).contains(2);
+    } finally {
+      stop.set(true);
+    }
+  }
+
+  /**
+   * Tests that a quarantined thread is released once its call returns
+   */
+  @Test
+  public void testQuarantinedThreadReleased() throws InterruptedException {
+    TimedCallService service = new TimedCallService(1);
+    AtomicBoolean stop = new AtomicBoolean(false);
+
+    service.call(stop, TimedCallServiceTest::spinUntil, 100, TimeUnit.MILLISECONDS);
+    stop.set(true);
+    for (int i = 0; i < 100 && service.getQuarantinedThreads() > 0; i += 1) {
+      Thread.sleep(10);
+    }
+
+    assertThat(service.getQuarantinedThreads()).isEqualTo(0);
+    assertThat(service.getTotalQuarantinedThreads()).isEqualTo(1);
+  }
+
+  /**
+   * Tests that a call whose deadline has already passed gives nothing
+   */
+  @Test
+  public void testDeadlinePassed() {
+    TimedCallService service = new TimedCallService(1);
+
+    Optional<Integer> result = service.callBy(null, o -> {
+      try {
+        Thread.sleep(1000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return 1;
+    }, System.nanoTime());
+
+    assertThat(result).isEmpty();
+    assertThat(service.getTimeouts()).isEqualTo(1);
+  }
+
+  /**
+   * Tests that a pool without threads is rejected
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testEmptyPool() {
+    new TimedCallService(0);
+  }
+}
@@ -0,0 +1,100 @@
+package utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.After;
+import org.junit.Test;
+
+public class VirtualThreadsTest {
+
+  @After
+  public void clearProperty() {
+    System.clearProperty(VirtualThreads.PROPERTY);
+  }
+
+  /**
+   * Tests that threads are platform threads unless virtual threads are turned on.
+   */
+  @Test
+  public void testPlatformByDefault() throws InterruptedException {
+    AtomicBoolean ran = new AtomicBoolean();
+    Thread thread = VirtualThreads.newThread("relay-test", () -> ran.set(true));
+
+    assertThat(VirtualThreads.isEnabled()).isFalse();
+    assertThat(thread.getName()).isEqualTo("relay-test");
+    assertThat(thread.isDaemon()).isFalse();
+
+    thread.start();
+    thread.join();
+    assertThat(ran.get()).isTrue();
+  }
+
+  /**
+   * Tests that turning virtual threads on makes virtual threads, on JVMs that have them.
+   */
+  @Test
+  public void testVirtualWhenEnabled() throws InterruptedException {
+    assumeTrue(VirtualThreads.isAvailable());
+    System.setProperty(VirtualThreads.PROPERTY, "true");
+
+    AtomicBoolean ran = new AtomicBoolean();
+    Thread thread = VirtualThreads.newThread("relay-test", () -> ran.set(true));
+
+    assertThat(VirtualThreads.isEnabled()).isTrue();
+    assertThat(thread.getName()).isEqualTo("relay-test");
+    assertThat(thread.isDaemon()).isTrue();
+
+    thread.start();
+    thread.join();
+    assertThat(ran.get()).isTrue();
+  }
+
+  /**
+   * Tests that a service on virtual threads still times out and interrupts calls.
+   */
+  @Test
+  public void testTimedCallsOnVirtualThreads() {
+    assumeTrue(VirtualThreads.isAvailable());
+    TimedCallService service = TimedCallService.withVirtualThreads();
+
+    Optional<String> result = service.call(this, test -> {
+      try {
+        Thread.sleep(10000);
+      } catch (InterruptedException e) {
+        return "interrupted";
+      }
+      return "late";
+    }, 50, TimeUnit.MILLISECONDS);
+
+    assertThat(result).isEmpty();
+    assertThat(service.call(this, test -> "quick", 1, TimeUnit.SECONDS)).contains("quick");
+    assertThat(service.getPoolSize()).isEqualTo(0);
+  }
+
+  /**
+   * Tests that turning virtual threads on does nothing on JVMs without them.
+   */
+  @Test
+  public void testNotAvailable() {
+    assumeFalse(VirtualThreads.isAvailable());
+    System.setProperty(VirtualThreads.PROPERTY, "true");
+
+    assertThat(VirtualThreads.isEnabled()).isFalse();
+    assertThat(VirtualThreads.newThread("relay-test", () -> { }).isDaemon()).isFalse();
+  }
+
+  /**
+   * Tests that a virtual thread executor cannot be made on JVMs without virtual threads.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testNoVirtualExecutor() {
+    assumeFalse(VirtualThreads.isAvailable());
+
+    TimedCallService.withVirtualThreads();
+  }
+}
@@ -3,159 +3,267 @@ package observer;
 import common.board.IReadonlyBoard;
 import common.data.Action;
 import common.interfaces.IObserver;
+import java.io.Flushable;
 import java.io.IOException;
 import java.util.List;
 import java.util.function.Function;
 import common.interfaces.IPlayer;
 
-public class StdOutObserver implements IObserver {
+/**
+ * Prints every update to an Appendable, by default standard out.
+ *
+ * Each update is rendered into a reused StringBuilder and written with a single append. A
+ * buffered observer holds rendered updates until they add up to a given number of characters or
+ * the oldest has waited a given time, and writes them all at once, so busy games do not pay for a
+ * write to the console per update. Either way the characters written are the same, buffered ones
+ * just arrive later; call flush to write them right away.
+ */
+public class StdOutObserver implements IObserver, Flushable {
+
+  // Characters written at once by default when buffered, about twenty boards
+  public static final int DEFAULT_FLUSH_CHARS = 8192;
+  // Longest an update waits by default when buffered
+  public static final long DEFAULT_FLUSH_MILLIS = 100;
 
   private final Appendable app;
+  // rendered updates not written to app yet
+  private final StringBuilder buffer = new StringBuilder();
+  private final int flushChars;
+  private final long flushNanos;
+  // when the oldest update in the buffer was rendered
+  private long bufferedSince;
 
   public StdOutObserver() {
     this(System.out);
   }
 
   public StdOutObserver(Appendable app) {
+    this(app, 0, 0);
+  }
+
+  /**
+   * Creates an observer that writes updates to the given Appendable once enough have been rendered.
+   * Updates are only written when an update arrives or on flush, so an update can wait longer than
+   * flushMillis if no other follows it.
+   *
+   * @param app Appendable to print to
+   * @param flushChars number of rendered characters to write at once, 0 to write every update
+   * @param flushMillis longest time in milliseconds to hold an update before writing it
+   */
+  public StdOutObserver(Appendable app, int flushChars, long flushMillis) {
+    if (flushChars < 0) {
+      throw new IllegalArgumentException(String.format("%d is not a legal flush size", flushChars));
+    }
+    if (flushMillis < 0) {
+      throw new IllegalArgumentException(String.format("%d is not a legal flush time", flushMillis));
+    }
     this.app = app;
+    this.flushChars = flushChars;
+    this.flushNanos = flushMillis * 1000000;
+  }
+
+  /**
+   * Creates an observer that writes to standard out in batches of DEFAULT_FLUSH_CHARS characters,
+   * holding updates for at most DEFAULT_FLUSH_MILLIS.
+   *
+   * @return buffered observer printing to standard out
+   */
+  public static StdOutObserver buffered() {
+    return new StdOutObserver(System.out, DEFAULT_FLUSH_CHARS, DEFAULT_FLUSH_MILLIS);
   }
 
   @Override
-  public void update(IReadonlyBoard board) {
-    try {
-      printBoard(board);
-    } catch (IOException e) {
-      throw new RuntimeException("Error printing board", e);
-    }
+  public synchronized void update(IReadonlyBoard board) {
+    render(() -> printBoard(board));
   }
 
   @Override
-  public void update(List<Action> turn) {
-    try {
-      printTurn(turn);
-    } catch (IOException e) {
-      throw new RuntimeException("Error printing turn", e);
-    }
+  public synchronized void update(List<Action> turn) {
+    render(() -> printTurn(turn));
   }
 
   @Override
-  public void updateGiveUp(IPlayer player) {
-    try {
-      app.append("\"");
+  public synchronized void updateGiveUp(IPlayer player) {
+    render(() -> {
+      buffer.append("\"");
       printPlayer(player);
-      app.append(" gave up.\"\n");
+      buffer.append(" gave up.\"\n");
+    });
+  }
+
+  @Override
+  public synchronized void updateWin(IPlayer player) {
+    render(() -> {
+      buffer.append("\"");
+      printPlayer(player);
+      buffer.append(" won the game!\"\n");
+    });
+  }
+
+  @Override
+  public synchronized void updateError(String error) {
+    render(() -> {
+      buffer.append("\"");
+      buffer.append(error);
+      buffer.append("\"");
+      buffer.append("\n");
+    });
+  }
+
+  /**
+   * Writes every buffered update to the Appendable, and flushes it if it can be.
+   */
+  @Override
+  public synchronized void flush() {
+    try {
+      writeBuffer();
+      if (app instanceof Flushable) {
+        ((Flushable) app).flush();
+      }
     } catch (IOException e) {
-      throw new RuntimeException("Error printing player", e);
+      throw new RuntimeException("Error flushing output", e);
     }
   }
 
-  @Override
-  public void updateWin(IPlayer player) {
+  /**
+   * Renders one update into the buffer, then writes the buffer out if it is due. An update that
+   * fails part way is cut back out of the buffer, so its partial output is never written.
+   *
+   * @param update renders the update into the buffer
+   */
+  private void render(Render update) {
+    int start = buffer.length();
+    boolean rendered = false;
     try {
-      app.append("\"");
-      printPlayer(player);
-      app.append(" won the game!\"\n");
+      update.render();
+      rendered = true;
     } catch (IOException e) {
-      throw new RuntimeException("Error printing player", e);
+      throw new RuntimeException("Error printing update", e);
+    } finally {
+      if (!rendered) {
+        buffer.setLength(start);
+      }
     }
+    written();
   }
 
-  @Override
-  public void updateError(String error) {
+  /**
+   * Called after an update is rendered into the buffer, writes the buffer out if it is full or
+   * has been held too long.
+   */
+  private void written() {
+    long now = System.nanoTime();
+    if (bufferedSince == 0) {
+      bufferedSince = now;
+    }
+    if (buffer.length() < flushChars && now - bufferedSince < flushNanos) {
+      return;
+    }
+
     try {
-      app.append("\"");
-      app.append(error);
-      app.append("\"");
-      app.append("\n");
+      writeBuffer();
+      // Batches are flushed as they are written, a batch is what we held back
+      if (flushChars > 0 && app instanceof Flushable) {
+        ((Flushable) app).flush();
+      }
     } catch (IOException e) {
-      throw new RuntimeException("Error printing error", e);
+      throw new RuntimeException("Error printing update", e);
+    }
+  }
+
+  private void writeBuffer() throws IOException {
+    if (buffer.length() > 0) {
+      app.append(buffer);
+      buffer.setLength(0);
     }
+    bufferedSince = 0;
   }
 
   /**
-   * Prints the board to Appendable.
+   * Prints the board to the buffer.
    *
    * @param board board to print
-   * @throws IOException if something goes wrong with IO
+   * @throws IOException if a cell cannot print itself
    */
   private void printBoard(IReadonlyBoard board) throws IOException {
-    app.append("[");
+    buffer.append("[");
 
     for (int row = 0; row < board.getMaxRows(); row += 1) {
-      app.append("[");
+      buffer.append("[");
 
       for (int col = 0; col < board.getMaxColumns(); col += 1) {
-        board.getCell(row, col).appendSelf(app);
+        board.getCell(row, col).appendSelf(buffer);
         appendCommaOrBrace(board, col, IReadonlyBoard::getMaxColumns);
       }
 
       appendCommaOrBrace(board, row, IReadonlyBoard::getMaxRows);
-      app.append("\n");
+      buffer.append("\n");
     }
   }
 
   /**
-   * Prints either a comma or brace to Appendable based on the given number and the getMax function
+   * Prints either a comma or brace to the buffer based on the given number and the getMax function
    *
    * @param board board we are printing
    * @param index current index
    * @param getMax function that returns the max index when supplied with board
-   * @throws IOException if something goes wrong with IO
    */
-  private void appendCommaOrBrace(IReadonlyBoard board, int index, Function<IReadonlyBoard, Integer> getMax) throws IOException {
+  private void appendCommaOrBrace(IReadonlyBoard board, int index, Function<IReadonlyBoard, Integer> getMax) {
     if (index + 1 < getMax.apply(board)) {
-      app.append(",");
+      buffer.append(",");
     } else {
-      app.append("]");
+      buffer.append("]");
     }
   }
 
   /**
-   * Prints the specified turn to the Appendable
+   * Prints the specified turn to the buffer
    *
    * @param turn turn to print
-   * @throws IOException if something goes wrong printing the turn
    */
-  private void printTurn(List<Action> turn) throws IOException {
-    app.append("[");
+  private void printTurn(List<Action> turn) {
+    buffer.append("[");
 
     // We know turn has size at least 1 to be considered a valid turn
-    app.append("\"");
-    app.append(turn.get(0).getWorkerId());
-    app.append("\"");
+    buffer.append("\"");
+    buffer.append(turn.get(0).getWorkerId());
+    buffer.append("\"");
 
     for (Action aTurn : turn) {
-      app.append(",");
+      buffer.append(",");
       printAction(aTurn);
     }
 
-    app.append("]");
-    app.append("\n");
+    buffer.append("]");
+    buffer.append("\n");
   }
 
   /**
-   * Prints the specified action to the Appendable
+   * Prints the specified action to the buffer
    *
    * @param action action to print
-   * @throws IOException if something goes wrong printing the action
    */
-  private void printAction(Action action) throws IOException {
-    app.append("\"");
-    app.append(action.getDirection().getEastWest());
-    app.append("\"");
-    app.append(",");
-    app.append("\"");
-    app.append(action.getDirection().getNorthSouth());
-    app.append("\"");
+  private void printAction(Action action) {
+    buffer.append("\"");
+    buffer.append(action.getDirection().getEastWest());
+    buffer.append("\"");
+    buffer.append(",");
+    buffer.append("\"");
+    buffer.append(action.getDirection().getNorthSouth());
+    buffer.append("\"");
   }
 
   /**
-   * Prints the specified IPlayer to the appendable
+   * Prints the specified IPlayer to the buffer
    *
    * @param player IPlayer to print
-   * @throws IOException if something goes wrong printing the player
    */
-  private void printPlayer(IPlayer player) throws IOException {
-    app.append(player.getPlayerName());
+  private void printPlayer(IPlayer player) {
+    buffer.append(player.getPlayerName());
+  }
+
+  // Renders an update into the buffer
+  private interface Render {
+    void render() throws IOException;
   }
 }
@@ -1,6 +1,9 @@
 package observer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import common.board.Board;
 import common.board.Height;
@@ -158,4 +161,106 @@ public class StdOutObserverTest {
 
     assertThat(builder).isEqualToIgnoringWhitespace("\"Error!!\"");
   }
+
+  private IPlayer makePlayer(String name) {
+    IPlayer player = mock(IPlayer.class);
+    when(player.getPlayerName()).thenReturn(name);
+    return player;
+  }
+
+  /**
+   * Plays the same updates to the given observer: a board, a turn, a give up, an error and a win.
+   */
+  private void playUpdates(IObserver observer) {
+    IBoard board = new Board();
+    board.createWorker("one", 0, 0);
+    board.createWorker("two", 3, 3);
+
+    List<Action> turn = new ArrayList<>();
+    turn.add(new Action(ActionType.MOVE, "one1", new Direction("EAST", "SOUTH")));
+    turn.add(new Action(ActionType.BUILD, "one1", new Direction("WEST", "NORTH")));
+
+    for (int i = 0; i < 5; i += 1) {
+      observer.update(board);
+      observer.update(turn);
+    }
+    observer.updateGiveUp(makePlayer("one"));
+    observer.updateError("Error!!");
+    observer.updateWin(makePlayer("two"));
+  }
+
+  /**
+   * Tests that a buffered observer holds updates until flushed, then prints exactly what an
+   * unbuffered one does.
+   */
+  @Test
+  public void testBufferedSameOutput() {
+    StringBuilder buffered = new StringBuilder();
+    StdOutObserver bufferedObserver = new StdOutObserver(buffered, 100000, 100000);
+
+    playUpdates(observer);
+    playUpdates(bufferedObserver);
+
+    assertThat(buffered).isEmpty();
+    bufferedObserver.flush();
+    assertThat(buffered.toString()).isEqualTo(builder.toString());
+  }
+
+  /**
+   * Tests that a buffered observer writes its updates once they reach the flush size.
+   */
+  @Test
+  public void testBufferedFlushSize() {
+    StringBuilder buffered = new StringBuilder();
+    StdOutObserver bufferedObserver = new StdOutObserver(buffered, 200, 100000);
+
+    playUpdates(observer);
+    playUpdates(bufferedObserver);
+
+    assertThat(buffered.length()).isGreaterThanOrEqualTo(200);
+    assertThat(builder.toString()).startsWith(buffered.toString());
+    bufferedObserver.flush();
+    assertThat(buffered.toString()).isEqualTo(builder.toString());
+  }
+
+  /**
+   * Tests that a buffered observer with no flush time writes every update.
+   */
+  @Test
+  public void testBufferedFlushTime() {
+    StringBuilder buffered = new StringBuilder();
+    IObserver bufferedObserver = new StdOutObserver(buffered, 100000, 0);
+
+    bufferedObserver.updateError("Error!!");
+
+    assertThat(buffered.toString()).isEqualTo("\"Error!!\"\n");
+  }
+
+  /**
+   * Tests that an update that fails part way leaves none of its output behind, so the updates
+   * around it print as if it never came.
+   */
+  @Test
+  public void testFailedUpdateLeavesNoOutput() {
+    StringBuilder buffered = new StringBuilder();
+    StdOutObserver bufferedObserver = new StdOutObserver(buffered, 100000, 100000);
+    IPlayer broken = mock(IPlayer.class);
+    when(broken.getPlayerName()).thenThrow(new IllegalStateException("disconnected"));
+
+    bufferedObserver.updateError("before");
+    assertThatThrownBy(() -> bufferedObserver.updateWin(broken)).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> bufferedObserver.update(new ArrayList<>())).isInstanceOf(IndexOutOfBoundsException.class);
+    bufferedObserver.updateError("after");
+    bufferedObserver.flush();
+
+    assertThat(buffered.toString()).isEqualTo("\"before\"\n\"after\"\n");
+  }
+
+  /**
+   * Tests that a negative flush size is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeFlushSize() {
+    new StdOutObserver(builder, -1, 0);
+  }
 }
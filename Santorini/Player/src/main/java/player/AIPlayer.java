@@ -6,16 +6,25 @@ import common.data.PlaceWorkerAction;
 import common.interfaces.IPlayer;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import strategy.AlphaBetaStrategy;
 import strategy.DiagonalPlacementStrategy;
+import strategy.HeuristicEvaluator;
 import strategy.IPlacementStrategy;
 import strategy.ITurnStrategy;
 import strategy.StayAliveStrategy;
 import strategy.Strategy;
+import strategy.TranspositionTable;
 
 public class AIPlayer implements IPlayer {
 
+    // turn budget of a player whose strategy may take as long as it needs
+    public static final long NO_TURN_BUDGET = 0;
+
     private String playerName;
     private final Strategy strategy;
+    // how long the strategy may spend on each turn, in milliseconds
+    private final long turnBudgetMillis;
 
     public AIPlayer(Strategy strategy) {
         this(UUID.randomUUID().toString(), strategy);
@@ -30,16 +39,56 @@ public class AIPlayer implements IPlayer {
         IPlacementStrategy placementStrategy = new DiagonalPlacementStrategy();
         ITurnStrategy turnStrategy = new StayAliveStrategy(1);
         this.strategy = new Strategy(placementStrategy, turnStrategy);
+        this.turnBudgetMillis = NO_TURN_BUDGET;
         this.playerName = name;
         this.strategy.setCurrentPlayer(name);
     }
 
     public AIPlayer(String name, Strategy strategy) {
+        this(name, strategy, NO_TURN_BUDGET);
+    }
+
+    /**
+     * AIPlayer constructor with a time budget for each turn. Strategies that manage their time
+     * search as deep as they can within the budget, so it should be kept safely below the time
+     * the referee allows for a turn.
+     *
+     * @param name name of this player
+     * @param strategy strategy to play with
+     * @param turnBudgetMillis how long to spend on each turn in milliseconds, or NO_TURN_BUDGET
+     */
+    public AIPlayer(String name, Strategy strategy, long turnBudgetMillis) {
+        if (turnBudgetMillis < 0) {
+            throw new IllegalArgumentException(String.format("%d is not a legal turn budget", turnBudgetMillis));
+        }
         this.playerName = name;
         this.strategy = strategy;
+        this.turnBudgetMillis = turnBudgetMillis;
         this.strategy.setCurrentPlayer(name);
     }
 
+    /**
+     * AIPlayer constructor with diagonal placement strategy and an alpha-beta strategy that deepens
+     * its search until the turn budget runs out, splitting each search across the given number of
+     * threads.
+     *
+     * @param name name of this player
+     * @param searchThreads number of threads to search with, at least 1
+     * @param turnBudgetMillis how long to spend on each turn in milliseconds, more than 0
+     */
+    public AIPlayer(String name, int searchThreads, long turnBudgetMillis) {
+        this(name, searchStrategy(searchThreads, turnBudgetMillis), turnBudgetMillis);
+    }
+
+    private static Strategy searchStrategy(int searchThreads, long turnBudgetMillis) {
+        if (turnBudgetMillis <= NO_TURN_BUDGET) {
+            throw new IllegalArgumentException("A searching player needs a turn budget");
+        }
+        ITurnStrategy turnStrategy = new AlphaBetaStrategy(AlphaBetaStrategy.MAX_DEPTH,
+            new HeuristicEvaluator(), new TranspositionTable(), searchThreads);
+        return new Strategy(new DiagonalPlacementStrategy(), turnStrategy);
+    }
+
     @Override
     public PlaceWorkerAction getPlaceWorker(IReadonlyBoard b) {
         return strategy.getPlaceWorker(b);
@@ -47,7 +96,11 @@ public class AIPlayer implements IPlayer {
 
     @Override
     public List<Action> getTurn(IReadonlyBoard b) {
-        return strategy.getTurn(b);
+        if (turnBudgetMillis == NO_TURN_BUDGET) {
+            return strategy.getTurn(b);
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(turnBudgetMillis);
+        return strategy.getTurn(b, deadline);
     }
 
     @Override
@@ -0,0 +1,417 @@
+package strategy;
+
+import common.board.IBoard;
+import common.board.IReadonlyBoard;
+import common.board.ZobristKeys;
+import common.data.Action;
+import common.rules.IRulesEngine;
+import common.rules.StandardSantoriniRulesEngine;
+import common.rules.TurnBuffer;
+import common.rules.Turns;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Picks turns with a negamax search to a fixed depth, pruned with alpha-beta and scored at the
+ * leaves by an IBoardEvaluator. Unlike StayAliveStrategy this ranks turns instead of only telling
+ * whether they survive, so it prefers quicker wins, slower losses and better positions.
+ *
+ * Every position searched is stored in a transposition table along with the best turn found for
+ * it, which is tried first when the position comes up again and is what makes pruning effective.
+ *
+ * Given a deadline, the search deepens one turn at a time up to the depth instead, and answers with
+ * the best turn of the deepest search it finished. Each search mostly replays the previous one out
+ * of the transposition table before looking any further, so deepening costs little extra.
+ *
+ * With more than one thread, the first turn at the root is searched on its own to get a bound, and
+ * the rest are then searched in parallel against the best score found so far, each on its own copy
+ * of the board. All threads share the transposition table.
+ */
+public class AlphaBetaStrategy implements ITimedTurnStrategy {
+    // score of a won position, less the number of turns it takes to win
+    public static final int WIN = 1000000;
+    // deepest search this strategy can be asked for
+    public static final int MAX_DEPTH = TranspositionTable.MAX_DEPTH;
+    // anything within this of WIN is a forced win or loss
+    private static final int MAX_PLY = MAX_DEPTH + 1;
+    private static final int INFINITY = WIN + 1;
+
+    private String currentPlayer;
+    private String opponent;
+    private final IRulesEngine rulesEngine;
+    private final IBoardEvaluator evaluator;
+    // positions searched, kept across turns of the same game
+    private final TranspositionTable table;
+    // searches the root turns in parallel, null when searching on the caller's thread only
+    private final ForkJoinPool pool;
+
+    private final int depth;
+
+    public AlphaBetaStrategy(int depth) {
+        this(depth, new HeuristicEvaluator());
+    }
+
+    public AlphaBetaStrategy(int depth, IBoardEvaluator evaluator) {
+        this(depth, evaluator, new TranspositionTable());
+    }
+
+    public AlphaBetaStrategy(int depth, IBoardEvaluator evaluator, TranspositionTable table) {
+        this(depth, evaluator, table, 1);
+    }
+
+    /**
+     * Creates an alpha-beta strategy.
+     *
+     * @param depth number of turns to look ahead, between 1 and MAX_DEPTH
+     * @param evaluator how to score positions at the end of the search, which must be thread safe
+     *                  when searching with more than one thread
+     * @param table transposition table to use, which this strategy clears when its players change
+     * @param threads number of threads to search with, at least 1
+     */
+    public AlphaBetaStrategy(int depth, IBoardEvaluator evaluator, TranspositionTable table, int threads) {
+        if (depth < 1 || depth > MAX_DEPTH) {
+            throw new IllegalArgumentException(String.format("%d is not a legal search depth", depth));
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException(String.format("%d is not a legal number of threads", threads));
+        }
+        this.rulesEngine = new StandardSantoriniRulesEngine();
+        this.evaluator = evaluator;
+        this.table = table;
+        this.depth = depth;
+        this.pool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    public void setPlayer(String playerName) {
+        this.currentPlayer = playerName;
+        // stored results are keyed by who is to move, which depends on the players
+        this.table.clear();
+    }
+
+    public void setOpponent(String opponentName) {
+        this.opponent = opponentName;
+        this.table.clear();
+    }
+
+    /**
+     * Gets the turn based on the given board.
+     * @param b the given board to work off of
+     * @return the best turn found, or an empty turn to give up when there are no legal turns
+     */
+    public List<Action> getTurn(IReadonlyBoard b) {
+        IBoard root = b.toBoard();
+        table.newSearch();
+
+        int best;
+        try {
+            best = searchRoot(root, depth, SearchDeadline.none());
+        } catch (SearchTimeoutException e) {
+            // only a parallel search that was interrupted stops early, answer from one turn deep
+            best = searchRoot(root, 1, SearchDeadline.none());
+        }
+        if (best == TranspositionTable.NO_MOVE) {
+            return new ArrayList<>();
+        }
+        return Turns.toActions(best, currentPlayer);
+    }
+
+    /**
+     * Gets the turn based on the given board, deepening the search until the deadline passes or
+     * the depth of this strategy is reached. A search one turn deep always completes, however
+     * close the deadline is.
+     * @param b the given board to work off of
+     * @param deadline System.nanoTime value to answer by
+     * @return the best turn of the deepest completed search, or an empty turn to give up when
+     * there are no legal turns
+     */
+    public List<Action> getTurn(IReadonlyBoard b, long deadline) {
+        IBoard root = b.toBoard();
+        table.newSearch();
+
+        int best = searchRoot(root, 1, SearchDeadline.none());
+        if (best == TranspositionTable.NO_MOVE) {
+            return new ArrayList<>();
+        }
+
+        SearchDeadline searchDeadline = SearchDeadline.at(deadline);
+        try {
+            for (int nextDepth = 2; nextDepth <= depth && !isDecided(root); nextDepth++) {
+                best = searchRoot(root, nextDepth, searchDeadline);
+            }
+        } catch (SearchTimeoutException e) {
+            // the search that timed out is incomplete, keep the best turn of the one before it
+        }
+        return Turns.toActions(best, currentPlayer);
+    }
+
+    /**
+     * Returns whether the last search of the given position found a forced win or loss, which
+     * searching deeper cannot change.
+     */
+    private boolean isDecided(IReadonlyBoard board) {
+        long entry = table.probe(positionKey(currentPlayer, board));
+        return entry != TranspositionTable.MISS
+            && Math.abs(TranspositionTable.scoreOf(entry)) >= WIN - MAX_PLY;
+    }
+
+    /**
+     * Searches the current player's turns on the given board to the given depth. The board itself
+     * is only read, every search runs on a copy of it.
+     *
+     * @return the best turn, or NO_MOVE if the current player has none
+     * @throws SearchTimeoutException if the deadline passes or the calling thread is interrupted
+     *     before the search completes
+     */
+    int searchRoot(IReadonlyBoard root, int depth, SearchDeadline deadline) {
+        Searcher searcher = new Searcher(root.toBoard(), deadline);
+        TurnBuffer turns = searcher.bufferAt(0);
+        rulesEngine.generateTurns(root, currentPlayer, turns);
+        if (turns.isEmpty()) {
+            return TranspositionTable.NO_MOVE;
+        }
+
+        long key = positionKey(currentPlayer, root);
+        searcher.orderTurns(turns, key);
+
+        // the first turn is the best one of any earlier search, so it sets a tight bound for the rest
+        int alpha = searcher.scoreTurn(currentPlayer, turns.get(0), depth, 0, -INFINITY, INFINITY);
+        int bestTurn = turns.get(0);
+        // a search one turn deep is too quick to be worth splitting, and so never fails
+        if (pool == null || depth == 1) {
+            for (int i = 1; i < turns.size(); i++) {
+                int turn = turns.get(i);
+                int score = searcher.scoreTurn(currentPlayer, turn, depth, 0, alpha, INFINITY);
+                if (score > alpha) {
+                    alpha = score;
+                    bestTurn = turn;
+                }
+            }
+        } else {
+            long best = splitRoot(root, turns, depth, alpha, deadline);
+            alpha = (int) (best >> 32);
+            bestTurn = turns.get(turns.size() - (int) best);
+        }
+
+        table.store(key, depth, toTable(alpha, 0), TranspositionTable.Bound.EXACT, bestTurn);
+        return bestTurn;
+    }
+
+    /**
+     * Searches every root turn but the first in parallel, each against the best score found so
+     * far. Ties go to the turn listed first, like they do searching on one thread.
+     *
+     * @return the score and index of the best turn, packed as by pack
+     */
+    private long splitRoot(IReadonlyBoard root, TurnBuffer turns, int depth, int firstScore, SearchDeadline deadline) {
+        int size = turns.size();
+        AtomicLong best = new AtomicLong(pack(firstScore, 0, size));
+        AtomicBoolean timedOut = new AtomicBoolean(false);
+
+        List<Callable<Void>> tasks = new ArrayList<>(size - 1);
+        for (int i = 1; i < size; i++) {
+            int index = i;
+            int turn = turns.get(i);
+            tasks.add(() -> {
+                try {
+                    Searcher searcher = new Searcher(root.toBoard(), deadline.copy());
+                    int alpha = (int) (best.get() >> 32);
+                    int score = searcher.scoreTurn(currentPlayer, turn, depth, 0, alpha, INFINITY);
+                    if (score > alpha) {
+                        best.accumulateAndGet(pack(score, index, size), Math::max);
+                    }
+                } catch (SearchTimeoutException e) {
+                    timedOut.set(true);
+                }
+                return null;
+            });
+        }
+
+        try {
+            for (Future<Void> result : pool.invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw SearchTimeoutException.INSTANCE;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A parallel search failed", e.getCause());
+        }
+
+        if (timedOut.get()) {
+            throw SearchTimeoutException.INSTANCE;
+        }
+        return best.get();
+    }
+
+    /**
+     * Packs a score and the index of its turn into a long that compares higher for a higher score,
+     * and for a lower index between equal scores.
+     */
+    private static long pack(int score, int index, int size) {
+        return ((long) score << 32) | (size - index);
+    }
+
+    /**
+     * Returns the transposition table key for the given board with the given player to move.
+     */
+    private long positionKey(String playerToMove, IReadonlyBoard board) {
+        if (playerToMove.equals(currentPlayer)) {
+            return board.getHash();
+        }
+        return board.getHash() ^ ZobristKeys.SIDE_TO_MOVE;
+    }
+
+    private String otherPlayer(String playerName) {
+        return playerName.equals(currentPlayer) ? opponent : currentPlayer;
+    }
+
+    // wins and losses are stored relative to the position rather than the root, so they stay
+    // correct when the position is reached at a different ply
+    private static int toTable(int score, int ply) {
+        if (score >= WIN - MAX_PLY) {
+            return score + ply;
+        } else if (score <= -(WIN - MAX_PLY)) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= WIN - MAX_PLY) {
+            return score - ply;
+        } else if (score <= -(WIN - MAX_PLY)) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * The state of one thread's search: the board it walks in place, a buffer of turns per ply
+     * from the root and its deadline.
+     */
+    private class Searcher {
+        private final IBoard board;
+        private final SearchDeadline deadline;
+        private final List<TurnBuffer> buffers = new ArrayList<>();
+
+        Searcher(IBoard board, SearchDeadline deadline) {
+            this.board = board;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Returns the score of the given player taking the given turn, from that player's point
+         * of view. The board is back in its original state when this returns normally.
+         */
+        int scoreTurn(String playerName, int turn, int depth, int ply, int alpha, int beta) {
+            Turns.apply(board, turn, playerName);
+            int score;
+            if (rulesEngine.didPlayerWin(board, playerName)) {
+                score = WIN - (ply + 1);
+            } else {
+                score = -negamax(otherPlayer(playerName), depth - 1, ply + 1, -beta, -alpha);
+            }
+            Turns.undo(board, turn);
+            return score;
+        }
+
+        /**
+         * Returns the negamax score of the board for the given player to move, searching the
+         * given number of turns ahead within the window (alpha, beta).
+         *
+         * @param ply number of turns taken since the root
+         */
+        private int negamax(String playerName, int depth, int ply, int alpha, int beta) {
+            deadline.check();
+            int originalAlpha = alpha;
+            long key = positionKey(playerName, board);
+            long entry = table.probe(key);
+            if (entry != TranspositionTable.MISS && TranspositionTable.depthOf(entry) >= depth) {
+                int stored = fromTable(TranspositionTable.scoreOf(entry), ply);
+                switch (TranspositionTable.boundOf(entry)) {
+                    case EXACT:
+                        return stored;
+                    case LOWER:
+                        alpha = Math.max(alpha, stored);
+                        break;
+                    case UPPER:
+                        beta = Math.min(beta, stored);
+                        break;
+                }
+                if (alpha >= beta) {
+                    return stored;
+                }
+            }
+
+            if (depth == 0) {
+                return evaluator.evaluate(board, playerName, otherPlayer(playerName));
+            }
+
+            TurnBuffer turns = bufferAt(ply);
+            rulesEngine.generateTurns(board, playerName, turns);
+            // a player with no legal turns has lost
+            if (turns.isEmpty()) {
+                return -(WIN - ply);
+            }
+            orderTurns(turns, key);
+
+            int best = -INFINITY;
+            int bestTurn = TranspositionTable.NO_MOVE;
+            for (int i = 0; i < turns.size(); i++) {
+                int turn = turns.get(i);
+                int score = scoreTurn(playerName, turn, depth, ply, alpha, beta);
+                if (score > best) {
+                    best = score;
+                    bestTurn = turn;
+                }
+                alpha = Math.max(alpha, best);
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+
+            TranspositionTable.Bound bound;
+            if (best <= originalAlpha) {
+                bound = TranspositionTable.Bound.UPPER;
+            } else if (best >= beta) {
+                bound = TranspositionTable.Bound.LOWER;
+            } else {
+                bound = TranspositionTable.Bound.EXACT;
+            }
+            table.store(key, depth, toTable(best, ply), bound, bestTurn);
+            return best;
+        }
+
+        /**
+         * Moves the best turn stored for the position with the given key to the front, since it
+         * is the turn most likely to cause a cutoff.
+         */
+        void orderTurns(TurnBuffer turns, long key) {
+            long entry = table.probe(key);
+            if (entry != TranspositionTable.MISS) {
+                int index = turns.indexOf(TranspositionTable.moveOf(entry));
+                if (index > 0) {
+                    turns.swap(0, index);
+                }
+            }
+        }
+
+        /**
+         * Returns the buffer the position the given number of turns from the root lists its
+         * turns in.
+         */
+        TurnBuffer bufferAt(int ply) {
+            while (buffers.size() <= ply) {
+                buffers.add(new TurnBuffer());
+            }
+            return buffers.get(ply);
+        }
+    }
+}
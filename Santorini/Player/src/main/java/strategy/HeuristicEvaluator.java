@@ -0,0 +1,86 @@
+package strategy;
+
+import common.board.IReadonlyBoard;
+import common.board.NeighborTable;
+import common.data.Worker;
+
+import java.util.List;
+
+/**
+ * Evaluates a board as the difference between how well placed each player's workers are. A worker
+ * is well placed when it is:
+ * 1) high up, since it can only climb one floor per turn
+ * 2) mobile, with many cells it could move to
+ * 3) close to third floor cells, weighted by its own height, since from the second floor it can
+ *    step up and win
+ */
+public class HeuristicEvaluator implements IBoardEvaluator {
+    private static final int DEFAULT_HEIGHT_WEIGHT = 10;
+    private static final int DEFAULT_MOBILITY_WEIGHT = 1;
+    private static final int DEFAULT_PROXIMITY_WEIGHT = 4;
+    // a worker that moves onto this floor wins
+    private static final int WINNING_HEIGHT = 3;
+
+    private final int heightWeight;
+    private final int mobilityWeight;
+    private final int proximityWeight;
+
+    public HeuristicEvaluator() {
+        this(DEFAULT_HEIGHT_WEIGHT, DEFAULT_MOBILITY_WEIGHT, DEFAULT_PROXIMITY_WEIGHT);
+    }
+
+    /**
+     * Creates an evaluator with the given weight for each feature.
+     *
+     * @param heightWeight points per floor a worker stands on
+     * @param mobilityWeight points per cell a worker can move to
+     * @param proximityWeight points per floor a worker stands on for each third floor cell next to it
+     */
+    public HeuristicEvaluator(int heightWeight, int mobilityWeight, int proximityWeight) {
+        this.heightWeight = heightWeight;
+        this.mobilityWeight = mobilityWeight;
+        this.proximityWeight = proximityWeight;
+    }
+
+    @Override
+    public int evaluate(IReadonlyBoard board, String player, String opponent) {
+        return this.score(board, player) - this.score(board, opponent);
+    }
+
+    /**
+     * Adds up how well placed the given player's workers are.
+     */
+    private int score(IReadonlyBoard board, String playerName) {
+        int total = 0;
+        List<Worker> workers = board.getPlayerWorkers(playerName);
+        for (int i = 0; i < workers.size(); i++) {
+            Worker worker = workers.get(i);
+            int height = board.height(worker.getRow(), worker.getColumn());
+            int cell = NeighborTable.cellOf(worker.getRow(), worker.getColumn());
+            // 1)
+            total += this.heightWeight * height;
+
+            for (int direction = 0; direction < 8; direction++) {
+                int neighbor = NeighborTable.neighbor(cell, direction);
+                if (neighbor == NeighborTable.NO_NEIGHBOR) {
+                    continue;
+                }
+                int row = NeighborTable.rowOf(neighbor);
+                int column = NeighborTable.columnOf(neighbor);
+                if (board.isOccupied(row, column)) {
+                    continue;
+                }
+                int neighborHeight = board.height(row, column);
+                // 2)
+                if (neighborHeight <= height + 1) {
+                    total += this.mobilityWeight;
+                }
+                // 3)
+                if (neighborHeight == WINNING_HEIGHT) {
+                    total += this.proximityWeight * height;
+                }
+            }
+        }
+        return total;
+    }
+}
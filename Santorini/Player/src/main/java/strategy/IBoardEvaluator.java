@@ -0,0 +1,14 @@
+package strategy;
+
+import common.board.IReadonlyBoard;
+
+/**
+ * Scores boards for searches that stop before the end of the game.
+ */
+public interface IBoardEvaluator {
+
+    // Return how good the board is for the player against the opponent, higher is better for the player.
+    // Searches assume scores are zero-sum, so swapping the player and the opponent must negate the score,
+    // and that they stay well below AlphaBetaStrategy.WIN in magnitude.
+    int evaluate(IReadonlyBoard board, String player, String opponent);
+}
@@ -0,0 +1,17 @@
+package strategy;
+
+import common.board.IReadonlyBoard;
+import common.data.Action;
+
+import java.util.List;
+
+/**
+ * A turn strategy that can cut its search short to answer by a deadline.
+ */
+public interface ITimedTurnStrategy extends ITurnStrategy {
+
+    // Return the best turn found before the deadline, a System.nanoTime value. The search checks the deadline
+    // as it goes and returns the result of the deepest search it completed, so the turn can be found a little
+    // after the deadline but never after a whole extra search.
+    List<Action> getTurn(IReadonlyBoard b, long deadline);
+}
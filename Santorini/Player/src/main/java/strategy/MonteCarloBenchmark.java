@@ -0,0 +1,66 @@
+package strategy;
+
+import common.board.Board;
+import common.board.BuildingWorker;
+import common.board.Height;
+import common.board.IBoard;
+import common.board.ICell;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Monte Carlo search throughput against thread count, to size hardware and turn budgets.
+ *
+ * Usage: java strategy.MonteCarloBenchmark [budgetMillis] [threads...]
+ * Prints one line per thread count with the playouts per second searching an opening position.
+ */
+public class MonteCarloBenchmark {
+    private static final long DEFAULT_BUDGET_MILLIS = 2000;
+    private static final int[] DEFAULT_THREADS = {1, 2, 4, 8};
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        long budgetMillis = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_BUDGET_MILLIS;
+        int[] threadCounts = DEFAULT_THREADS;
+        if (args.length > 1) {
+            threadCounts = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                threadCounts[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+
+        IBoard board = openingBoard();
+        double baseline = 0;
+        System.out.println("threads\tplayouts/sec\tspeedup");
+        for (int threads : threadCounts) {
+            double best = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                // a new strategy each round, so no tree is reused between rounds
+                MonteCarloStrategy strategy = new MonteCarloStrategy(budgetMillis, 1.4, round, threads);
+                strategy.setPlayer("one");
+                strategy.setOpponent("two");
+                strategy.getTurn(board, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis));
+                best = Math.max(best, strategy.getLastPlayoutsPerSecond());
+            }
+            if (baseline == 0) {
+                baseline = best;
+            }
+            System.out.println(String.format("%d\t%.0f\t%.2f", threads, best, best / baseline));
+        }
+        System.exit(0);
+    }
+
+    private static IBoard openingBoard() {
+        ICell[][] cells = new ICell[6][6];
+        for (int i = 0; i < 6; i++) {
+            for (int j = 0; j < 6; j++) {
+                cells[i][j] = new Height(0);
+            }
+        }
+        cells[1][1] = new BuildingWorker("one", 1, 0);
+        cells[1][4] = new BuildingWorker("one", 2, 0);
+        cells[4][1] = new BuildingWorker("two", 1, 0);
+        cells[4][4] = new BuildingWorker("two", 2, 0);
+        return new Board(cells);
+    }
+}
@@ -0,0 +1,457 @@
+package strategy;
+
+import common.board.IBoard;
+import common.board.IReadonlyBoard;
+import common.data.Action;
+import common.rules.IRulesEngine;
+import common.rules.StandardSantoriniRulesEngine;
+import common.rules.TurnBuffer;
+import common.rules.Turns;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Picks turns with Monte Carlo tree search. Each iteration walks down the tree of turns searched
+ * so far picking children by UCT, adds one new turn to the tree, plays the rest of the game out
+ * with random turns and counts the result towards every turn on the way. The turn taken is the
+ * one tried most often.
+ *
+ * Playouts are random except that a player who can win with a move always does, and the tree
+ * only lists winning moves for a player who has one. Every iteration walks the same board in
+ * place and undoes what it applied afterwards.
+ *
+ * The tree is kept between turns: when the opponent answers with a turn already in the tree, the
+ * search picks up from there instead of starting over.
+ *
+ * With more than one thread, every thread runs iterations on the same tree, each on its own copy
+ * of the board. Visit and win counts are atomic, and a thread walking through a node counts a
+ * virtual loss there until its playout finishes, which steers the other threads down different
+ * paths meanwhile. Adding children locks only the node they are added to, and children are read
+ * without locking.
+ */
+public class MonteCarloStrategy implements ITimedTurnStrategy {
+    // time to spend on a turn when not given a deadline, half the time the referee allows
+    public static final long DEFAULT_BUDGET_MILLIS = 1000;
+    // weight of exploration against exploitation in UCT, sqrt(2) in theory
+    private static final double DEFAULT_EXPLORATION = 1.4;
+    // playouts longer than this are called a draw, real games end long before
+    private static final int MAX_PLAYOUT_TURNS = 200;
+    // results are counted in half points so draws fit in an integer
+    private static final int WIN_POINTS = 2;
+    private static final int DRAW_POINTS = 1;
+    // lost visits counted at each node a thread passes through, until its playout finishes
+    private static final int VIRTUAL_LOSS = 1;
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private String currentPlayer;
+    private String opponent;
+    private final IRulesEngine rulesEngine;
+    private final long budgetMillis;
+    private final double exploration;
+    private final SplittableRandom random;
+    // runs iterations in parallel, null when searching on the caller's thread only
+    private final ForkJoinPool pool;
+    private final int threads;
+    private final int virtualLoss;
+
+    // the turn picked last time, whose children may include the position of the next turn
+    private Node lastChoice;
+    private long lastPlayouts;
+    private double lastPlayoutsPerSecond;
+
+    public MonteCarloStrategy() {
+        this(DEFAULT_BUDGET_MILLIS);
+    }
+
+    public MonteCarloStrategy(long budgetMillis) {
+        this(budgetMillis, DEFAULT_EXPLORATION, System.nanoTime());
+    }
+
+    public MonteCarloStrategy(long budgetMillis, double exploration, long seed) {
+        this(budgetMillis, exploration, seed, 1);
+    }
+
+    /**
+     * Creates a Monte Carlo strategy.
+     *
+     * @param budgetMillis time to spend on a turn when not given a deadline, more than 0
+     * @param exploration UCT exploration constant, higher tries less visited turns more often
+     * @param seed seed of the random playouts
+     * @param threads number of threads to search with, at least 1
+     */
+    public MonteCarloStrategy(long budgetMillis, double exploration, long seed, int threads) {
+        if (budgetMillis <= 0) {
+            throw new IllegalArgumentException(String.format("%d is not a legal budget", budgetMillis));
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException(String.format("%d is not a legal number of threads", threads));
+        }
+        this.rulesEngine = new StandardSantoriniRulesEngine();
+        this.budgetMillis = budgetMillis;
+        this.exploration = exploration;
+        this.random = new SplittableRandom(seed);
+        this.threads = threads;
+        this.pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        // a lone thread has no one to steer away, so it searches exactly as it would unshared
+        this.virtualLoss = threads > 1 ? VIRTUAL_LOSS : 0;
+    }
+
+    public void setPlayer(String playerName) {
+        this.currentPlayer = playerName;
+        this.lastChoice = null;
+    }
+
+    public void setOpponent(String opponentName) {
+        this.opponent = opponentName;
+        this.lastChoice = null;
+    }
+
+    /**
+     * Gets the turn based on the given board, searching for the budget of this strategy.
+     * @param b the given board to work off of
+     * @return the formulated list of actions, or an empty turn to give up when there are none
+     */
+    public List<Action> getTurn(IReadonlyBoard b) {
+        return getTurn(b, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis));
+    }
+
+    /**
+     * Gets the turn based on the given board, searching until the deadline. Every thread runs at
+     * least one iteration, however close the deadline is, and a caller who is interrupted still
+     * gets a turn from at least one iteration.
+     * @param b the given board to work off of
+     * @param deadline System.nanoTime value to answer by
+     * @return the formulated list of actions, or an empty turn to give up when there are none
+     */
+    public List<Action> getTurn(IReadonlyBoard b, long deadline) {
+        Node root = reuseOrCreateRoot(b);
+        root.expand(b, new TurnBuffer());
+        if (root.isTerminal()) {
+            lastChoice = null;
+            return new ArrayList<>();
+        }
+
+        long start = System.nanoTime();
+        // an interrupted caller only has time for one iteration, which is not worth the pool
+        long playouts = pool == null || Thread.currentThread().isInterrupted()
+            ? new Searcher(b.toBoard(), random.split()).search(root, deadline)
+            : searchInParallel(root, b, deadline);
+        if (root.children.length == 0) {
+            // the parallel search was interrupted before any searcher ran, so run one here
+            playouts += new Searcher(b.toBoard(), random.split()).search(root, deadline);
+        }
+        recordThroughput(playouts, System.nanoTime() - start);
+
+        Node best = root.mostVisitedChild();
+        lastChoice = best;
+        return Turns.toActions(best.turn, currentPlayer);
+    }
+
+    /**
+     * Returns the number of playouts run by the last search, over all threads.
+     */
+    public long getLastPlayouts() {
+        return lastPlayouts;
+    }
+
+    /**
+     * Returns how many playouts per second the last search ran over all threads, to size hardware
+     * and budgets by.
+     */
+    public double getLastPlayoutsPerSecond() {
+        return lastPlayoutsPerSecond;
+    }
+
+    /**
+     * Runs one searcher per thread on the tree under the given root until the deadline.
+     *
+     * @return the number of playouts run by all searchers
+     */
+    private long searchInParallel(Node root, IReadonlyBoard b, long deadline) {
+        List<Callable<Long>> tasks = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Searcher searcher = new Searcher(b.toBoard(), random.split());
+            tasks.add(() -> searcher.search(root, deadline));
+        }
+
+        long playouts = 0;
+        try {
+            for (Future<Long> result : pool.invokeAll(tasks)) {
+                playouts += result.get();
+            }
+        } catch (InterruptedException e) {
+            // answer with what was searched so far, invokeAll cancelled the rest
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A parallel search failed", e.getCause());
+        }
+        return playouts;
+    }
+
+    private void recordThroughput(long playouts, long elapsedNanos) {
+        lastPlayouts = playouts;
+        lastPlayoutsPerSecond = playouts * (double) TimeUnit.SECONDS.toNanos(1) / Math.max(elapsedNanos, 1);
+    }
+
+    /**
+     * Returns the node of the last search that matches the given board, if the opponent answered
+     * the last turn picked with a turn that was searched, or a new root otherwise.
+     */
+    private Node reuseOrCreateRoot(IReadonlyBoard board) {
+        if (lastChoice != null) {
+            for (Node reply : lastChoice.children) {
+                if (reply.hash == board.getHash()) {
+                    reply.parent = null;
+                    return reply;
+                }
+            }
+        }
+        return new Node(TranspositionTable.NO_MOVE, opponent, null, board.getHash(), 0);
+    }
+
+    private static boolean hasWinningTurn(TurnBuffer turns) {
+        for (int i = 0; i < turns.size(); i++) {
+            if (!Turns.hasBuild(turns.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String otherPlayer(String playerName) {
+        return playerName.equals(currentPlayer) ? opponent : currentPlayer;
+    }
+
+    /**
+     * Runs iterations of the search on one thread, with its own board and random numbers.
+     */
+    private class Searcher {
+        private final IBoard board;
+        private final SplittableRandom random;
+        // turns listed during playouts and expansion, and the turns applied by this iteration
+        private final TurnBuffer turns = new TurnBuffer();
+        private final TurnBuffer applied = new TurnBuffer();
+
+        Searcher(IBoard board, SplittableRandom random) {
+            this.board = board;
+            this.random = random;
+        }
+
+        /**
+         * Runs iterations from the given root, whose position is on this searcher's board, until
+         * the deadline, and at least one.
+         *
+         * @return the number of iterations run
+         */
+        long search(Node root, long deadline) {
+            long playouts = 0;
+            do {
+                iterate(root);
+                playouts += 1;
+            } while (System.nanoTime() - deadline < 0 && !Thread.currentThread().isInterrupted());
+            return playouts;
+        }
+
+        /**
+         * Runs one iteration of the search from the given root. The board is back in its original
+         * state when this returns.
+         */
+        private void iterate(Node root) {
+            applied.clear();
+            root.visits.addAndGet(virtualLoss);
+
+            // selection
+            Node node = root;
+            while (!node.isTerminal() && node.isFullyExpanded()) {
+                node = node.select(exploration);
+                node.visits.addAndGet(virtualLoss);
+                apply(node.turn, node.mover);
+            }
+
+            // expansion
+            if (!node.isTerminal()) {
+                node.expand(board, turns);
+                Node child = node.expandChild(this);
+                if (child != null) {
+                    applied.add(child.turn);
+                    node = child;
+                }
+            }
+
+            // simulation, a terminal node is a win for the player who moved into it
+            String winner = node.isTerminal() ? node.mover : playout(otherPlayer(node.mover));
+
+            for (int i = applied.size() - 1; i >= 0; i--) {
+                Turns.undo(board, applied.get(i));
+            }
+
+            // backpropagation, taking back the virtual losses
+            for (Node n = node; n != null; n = n.parent) {
+                n.visits.addAndGet(1 - virtualLoss);
+                if (winner == null) {
+                    n.points.addAndGet(DRAW_POINTS);
+                } else if (winner.equals(n.mover)) {
+                    n.points.addAndGet(WIN_POINTS);
+                }
+            }
+        }
+
+        /**
+         * Plays random turns from the position on the board, starting with the given player,
+         * until someone wins. Turns played are added to the applied turns, for the caller to undo.
+         *
+         * @return the name of the winner, or null if the playout ran too long
+         */
+        private String playout(String toMove) {
+            for (int i = 0; i < MAX_PLAYOUT_TURNS; i++) {
+                rulesEngine.generateTurns(board, toMove, turns);
+                if (turns.isEmpty()) {
+                    return otherPlayer(toMove);
+                }
+                // only winning turns have no build
+                if (hasWinningTurn(turns)) {
+                    return toMove;
+                }
+                apply(turns.get(random.nextInt(turns.size())), toMove);
+                toMove = otherPlayer(toMove);
+            }
+            return null;
+        }
+
+        private void apply(int turn, String playerName) {
+            Turns.apply(board, turn, playerName);
+            applied.add(turn);
+        }
+    }
+
+    /**
+     * A position in the search tree, reached by its mover taking its turn from its parent's
+     * position. Wins are counted from the mover's point of view.
+     *
+     * The turns not yet in the tree are guarded by the node's lock. Children are published by
+     * replacing the array, so they can be read without it.
+     */
+    private class Node {
+        private final int turn;
+        private final String mover;
+        private final long hash;
+        private volatile Node parent;
+        private volatile Node[] children = NO_CHILDREN;
+        // legal turns from this position not yet in the tree, null until the node is expanded
+        private int[] untried;
+        private int untriedCount;
+        private volatile boolean fullyExpanded;
+        private volatile boolean terminal;
+        // visits including virtual losses in progress, and points won by the mover
+        private final AtomicInteger visits;
+        private final AtomicLong points = new AtomicLong();
+
+        Node(int turn, String mover, Node parent, long hash, int visits) {
+            this.turn = turn;
+            this.mover = mover;
+            this.parent = parent;
+            this.hash = hash;
+            this.visits = new AtomicInteger(visits);
+        }
+
+        boolean isTerminal() {
+            return terminal;
+        }
+
+        boolean isFullyExpanded() {
+            return fullyExpanded;
+        }
+
+        /**
+         * Lists the legal turns from this node's position, which is on the given board, using the
+         * given buffer. A node whose player to move has no turns is terminal, a win for its mover.
+         * When the player to move can win by moving, only those winning moves are listed.
+         */
+        synchronized void expand(IReadonlyBoard board, TurnBuffer turns) {
+            if (untried != null) {
+                return;
+            }
+            rulesEngine.generateTurns(board, otherPlayer(mover), turns);
+            boolean canWin = hasWinningTurn(turns);
+            int[] listed = new int[turns.size()];
+            int count = 0;
+            for (int i = 0; i < turns.size(); i++) {
+                int turn = turns.get(i);
+                if (!canWin || !Turns.hasBuild(turn)) {
+                    listed[count] = turn;
+                    count += 1;
+                }
+            }
+            untried = listed;
+            untriedCount = count;
+            terminal = terminal || count == 0;
+            fullyExpanded = count == 0;
+        }
+
+        /**
+         * Adds a random turn not yet in the tree as a child, applying it to the searcher's board.
+         * The child starts with the searcher's virtual loss, so it is never published unvisited.
+         *
+         * @return the new child, or null if another thread added the last turn first
+         */
+        synchronized Node expandChild(Searcher searcher) {
+            if (untriedCount == 0) {
+                return null;
+            }
+            int index = searcher.random.nextInt(untriedCount);
+            int chosen = untried[index];
+            untriedCount -= 1;
+            untried[index] = untried[untriedCount];
+
+            String childMover = otherPlayer(mover);
+            Turns.apply(searcher.board, chosen, childMover);
+            Node child = new Node(chosen, childMover, this, searcher.board.getHash(), virtualLoss);
+            child.terminal = rulesEngine.didPlayerWin(searcher.board, childMover);
+
+            Node[] grown = Arrays.copyOf(children, children.length + 1);
+            grown[children.length] = child;
+            children = grown;
+            fullyExpanded = untriedCount == 0;
+            return child;
+        }
+
+        // returns the child with the highest UCT score
+        Node select(double exploration) {
+            double logVisits = Math.log(Math.max(visits.get(), 1));
+            Node best = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (Node child : children) {
+                int childVisits = child.visits.get();
+                double score = childVisits == 0
+                    ? Double.POSITIVE_INFINITY
+                    : child.points.get() / (double) (WIN_POINTS * childVisits)
+                        + exploration * Math.sqrt(logVisits / childVisits);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        Node mostVisitedChild() {
+            Node best = children[0];
+            for (Node child : children) {
+                if (child.visits.get() > best.visits.get()) {
+                    best = child;
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package strategy;
+
+/**
+ * The deadline of one search, which the search checks cooperatively as it visits positions. Only
+ * the clock is read every CHECK_INTERVAL checks, since reading it is much slower than visiting a
+ * position. Not thread safe, every thread searching needs its own.
+ */
+class SearchDeadline {
+    // a power of two, so checking the count is a mask
+    private static final int CHECK_INTERVAL = 1024;
+
+    private final long deadline;
+    private final boolean enabled;
+    private int checks;
+
+    private SearchDeadline(long deadline, boolean enabled) {
+        this.deadline = deadline;
+        this.enabled = enabled;
+        this.checks = 0;
+    }
+
+    // returns a deadline that never passes
+    static SearchDeadline none() {
+        return new SearchDeadline(0L, false);
+    }
+
+    // returns a deadline at the given System.nanoTime value
+    static SearchDeadline at(long deadline) {
+        return new SearchDeadline(deadline, true);
+    }
+
+    // returns a deadline at the same time with its own count of checks, for another thread
+    SearchDeadline copy() {
+        return new SearchDeadline(this.deadline, this.enabled);
+    }
+
+    /**
+     * Called once per position searched, aborts the search once the deadline has passed.
+     *
+     * @throws SearchTimeoutException if the deadline has passed
+     */
+    void check() {
+        this.checks += 1;
+        if ((this.checks & (CHECK_INTERVAL - 1)) == 0 && hasPassed()) {
+            throw SearchTimeoutException.INSTANCE;
+        }
+    }
+
+    boolean hasPassed() {
+        return this.enabled && System.nanoTime() - this.deadline >= 0;
+    }
+}
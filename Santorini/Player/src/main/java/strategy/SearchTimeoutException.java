@@ -0,0 +1,14 @@
+package strategy;
+
+/**
+ * Thrown from deep inside a search to unwind it when its deadline passes. The search that started
+ * it catches it and falls back to the result of its last completed iteration, so it carries no
+ * message or stack trace and a single instance is shared.
+ */
+class SearchTimeoutException extends RuntimeException {
+    static final SearchTimeoutException INSTANCE = new SearchTimeoutException();
+
+    private SearchTimeoutException() {
+        super(null, null, false, false);
+    }
+}
@@ -1,192 +1,358 @@
 package strategy;
 
+import common.board.IBoard;
 import common.board.IReadonlyBoard;
+import common.board.ZobristKeys;
 import common.data.Action;
-import common.data.ActionType;
-import common.data.Direction;
-import common.data.Worker;
 import common.rules.IRulesEngine;
 import common.rules.StandardSantoriniRulesEngine;
+import common.rules.TurnBuffer;
+import common.rules.Turns;
 import common.utils.BoardGenerator;
 
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Stay alive strategy for a given player given that there is only 1 opponent
+ *
+ * With more than one thread, the root turns are scored in parallel, each on its own copy of the
+ * board, and the first turn in order that survives is still the one picked. All threads share the
+ * transposition table.
  */
-public class StayAliveStrategy implements ITurnStrategy {
+public class StayAliveStrategy implements ITimedTurnStrategy {
 
     private String currentPlayer;
     private String opponent;
     private final IRulesEngine rulesEngine;
-    private final List<Direction> DIRECTIONS = Direction.getAllDirections();
 
     private final int depth;
+    // results of calcTree by position, kept across turns of the same game
+    private final TranspositionTable table;
+    // scores the root turns in parallel, null when scoring on the caller's thread only
+    private final ForkJoinPool pool;
 
     public StayAliveStrategy(int depth) {
+        this(depth, new TranspositionTable());
+    }
+
+    /**
+     * Creates a stay alive strategy that caches the positions it searches in the given table.
+     *
+     * @param depth number of turns to look ahead
+     * @param table transposition table to use, which this strategy clears when its players change
+     */
+    public StayAliveStrategy(int depth, TranspositionTable table) {
+        this(depth, table, 1);
+    }
+
+    /**
+     * Creates a stay alive strategy that scores its root turns with the given number of threads.
+     *
+     * @param depth number of turns to look ahead
+     * @param table transposition table to use, which this strategy clears when its players change
+     * @param threads number of threads to search with, at least 1
+     */
+    public StayAliveStrategy(int depth, TranspositionTable table, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(String.format("%d is not a legal number of threads", threads));
+        }
         this.rulesEngine = new StandardSantoriniRulesEngine();
         this.depth = depth;
+        this.table = table;
+        this.pool = threads > 1 ? new ForkJoinPool(threads) : null;
     }
 
     public void setPlayer(String playerName) {
         this.currentPlayer = playerName;
+        // stored results are from the point of view of the old player
+        this.table.clear();
     }
 
     public void setOpponent(String opponentName) {
         this.opponent = opponentName;
+        this.table.clear();
     }
 
     /**
-     * Calculates all the moves for each worker that a player has. Checks the validity of each move
-     * and returns the List of moves that is valid against the board
+     * Calculates every legal turn a player can take, worker by worker, with the winning moves of
+     * each worker ahead of its moves with builds.
      * @param playerName the player to analyze
      * @param board the board to look at
      * @return
      */
     public List<List<Action>> getLegalMoves(String playerName, IReadonlyBoard board) {
-        List<Worker> playerWorkers = board.getPlayerWorkers(playerName);
+        TurnBuffer turns = new TurnBuffer();
+        this.rulesEngine.generateTurns(board, playerName, turns);
 
-        List<List<Action>> results = new ArrayList<>();
-        // Foreach worker calculate all the moves, and all the movebuilds it can do
-        for (Worker worker : playerWorkers) {
-            List<Action> legalMoves = this.calculateLegalMoves(board, worker.getWorkerId(), playerName);
-            List<List<Action>> winningMoves = filterToWinMoves(legalMoves, board, playerName);
-            List<List<Action>> moveBuilds = calculateLegalMoveBuilds(worker.getWorkerId(), board, legalMoves, playerName);
-
-            results.addAll(winningMoves);
-            results.addAll(moveBuilds);
+        List<List<Action>> results = new ArrayList<>(turns.size());
+        for (int i = 0; i < turns.size(); i++) {
+            results.add(Turns.toActions(turns.get(i), playerName));
         }
         return results;
     }
 
+    public int score(List<Action> potentialTurn, IReadonlyBoard board, int depth) {
+        return new Searcher(board.toBoard(), SearchDeadline.none()).scoreInPlace(potentialTurn, depth);
+    }
+
     /**
-     * Calculate all move actions regardless of legality so that they can be used to
-     * determine legal move-only turns as well as legal full turns that include builds
-     * @return a list of Actions objects with the relevant data
+     * Gets the turn based on the given board.
+     * @param b the given board to work off of
+     * @return the formulated list of actions
      */
-    private List<Action> calculateLegalMoves(IReadonlyBoard board, String workerId, String playerName) {
-        List<Action> results = new ArrayList<>();
-        for (Direction d : this.DIRECTIONS) {
-            Action newAction = new Action(ActionType.MOVE, workerId, d);
-            if (rulesEngine.isMoveLegal(board, newAction, playerName)) {
-                results.add(newAction);
+    public List<Action> getTurn(IReadonlyBoard b) {
+
+        List<List<Action>> posTurns = this.getLegalMoves(currentPlayer, b);
+        table.newSearch();
+
+        List<Action> bestMove = posTurns.get(0);
+        try {
+            List<Action> survivor = firstSurvivor(posTurns, b, depth, SearchDeadline.none());
+            if (survivor != null) {
+                return survivor;
             }
+        } catch (SearchTimeoutException e) {
+            // only a parallel search that was interrupted stops early, answer with the first turn
         }
-        return results;
+
+        return bestMove;
     }
 
     /**
-     * Calculates the moves around a worker (denoted by the 8 possible new coordinates)
-     * The evaluates the legality of those moves
-     * @param actions the list of possible move turn actions to look over
-     * @param board the board to look on
-     * @param playerName the name of the player to ensure we're calculating moving the correct pieces
-     * @return the list of legal turns this worker has
+     * Gets the turn based on the given board, looking one more turn ahead at a time until the
+     * deadline passes or the depth of this strategy is reached. Returns the first turn that
+     * survives the deepest completed search, or that survived longest if none survive it.
+     * @param b the given board to work off of
+     * @param deadline System.nanoTime value to answer by
+     * @return the formulated list of actions, or an empty turn to give up when there are none
      */
-    private List<List<Action>> filterToWinMoves(List<Action> actions, IReadonlyBoard board, String playerName) {
-        return actions.stream()
-                      .map(Collections::singletonList)
-                      .filter(turn -> this.rulesEngine.isTurnLegal(board, turn, playerName))
-                      .collect(Collectors.toList());
+    public List<Action> getTurn(IReadonlyBoard b, long deadline) {
+        List<List<Action>> posTurns = this.getLegalMoves(currentPlayer, b);
+        if (posTurns.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        table.newSearch();
+        SearchDeadline searchDeadline = SearchDeadline.at(deadline);
+
+        List<Action> bestMove = posTurns.get(0);
+        try {
+            for (int nextDepth = 1; nextDepth <= depth; nextDepth++) {
+                List<Action> survivor = firstSurvivor(posTurns, b, nextDepth, searchDeadline);
+                if (survivor == null) {
+                    // nothing lasts this long, so the previous survivor lasts longest
+                    break;
+                }
+                bestMove = survivor;
+            }
+        } catch (SearchTimeoutException e) {
+            // the search that timed out is incomplete, keep the survivor of the one before it
+        }
+        return bestMove;
     }
 
     /**
-     * Calculates the legal moveBuilds given a worker, board, and list of legal singular moves
-     * @param workerId The id of the worker to look around
-     * @param board the board to look on
-     * @param moves the list of all moves already computed that we now want to build of of
-     * @return the list of legal turns that constitute a move + build this worker can do.
+     * Returns the first of the given turns that survives the given number of turns, or null.
+     *
+     * @throws SearchTimeoutException if the deadline passes or the calling thread is interrupted
+     *     before the answer is known
      */
-    private List<List<Action>> calculateLegalMoveBuilds(String workerId, IReadonlyBoard board, List<Action> moves, String playerName) {
-        List<List<Action>> results = new ArrayList<>();
-        for (Action action : moves) {
-            List<Action> turn = Collections.singletonList(action);
-            for (Direction d : this.DIRECTIONS) {
-                List<Action> newTurn = new ArrayList<>(turn);
-                Action build = new Action(ActionType.BUILD, workerId, d);
-                newTurn.add(build);
-                if (this.rulesEngine.isTurnLegal(board, newTurn, playerName)) {
-                    results.add(newTurn);
+    private List<Action> firstSurvivor(List<List<Action>> posTurns, IReadonlyBoard board, int depth,
+                                       SearchDeadline deadline) {
+        if (pool == null) {
+            Searcher searcher = new Searcher(board.toBoard(), deadline);
+            for (List<Action> turn : posTurns) {
+                if (searcher.scoreInPlace(turn, depth) == 1) {
+                    return turn;
                 }
             }
+            return null;
         }
-        return results;
+        return splitRoot(posTurns, board, depth, deadline);
     }
 
-    public int score(List<Action> potentialTurn, IReadonlyBoard board, int depth) {
-        if (rulesEngine.didPlayerWin(board, currentPlayer) || (depth == 0 && !potentialTurn.isEmpty())) {
-            return 1;
-        } else if (potentialTurn.isEmpty() || didIActuallyLose(board)) {
-            return 0;
-        }
+    /**
+     * Scores every root turn in parallel. A turn after a survivor already found is skipped, since
+     * it could not be picked anyway.
+     */
+    private List<Action> splitRoot(List<List<Action>> posTurns, IReadonlyBoard board, int depth,
+                                   SearchDeadline deadline) {
+        int size = posTurns.size();
+        // lowest index of a turn that survives, and of one whose search timed out
+        AtomicInteger firstSurvivor = new AtomicInteger(size);
+        AtomicInteger firstTimedOut = new AtomicInteger(size);
 
-        IReadonlyBoard successor = BoardGenerator.generateSuccessor(board, potentialTurn);
+        List<Callable<Void>> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int index = i;
+            List<Action> turn = posTurns.get(i);
+            tasks.add(() -> {
+                if (firstSurvivor.get() < index) {
+                    return null;
+                }
+                try {
+                    Searcher searcher = new Searcher(board.toBoard(), deadline.copy());
+                    if (searcher.scoreInPlace(turn, depth) == 1) {
+                        firstSurvivor.accumulateAndGet(index, Math::min);
+                    }
+                } catch (SearchTimeoutException e) {
+                    firstTimedOut.accumulateAndGet(index, Math::min);
+                }
+                return null;
+            });
+        }
 
-        List<List<Action>> opponentTurns = getLegalMoves(opponent, successor);
+        try {
+            for (Future<Void> result : pool.invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw SearchTimeoutException.INSTANCE;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A parallel search failed", e.getCause());
+        }
 
-        // calcTree('my opponent', opponentTurns
-        int nextDepth = depth - 1;
-        return calcTree(opponent, opponentTurns, successor, nextDepth);
+        // a turn ahead of the survivor that timed out might have survived as well
+        if (firstTimedOut.get() < firstSurvivor.get()) {
+            throw SearchTimeoutException.INSTANCE;
+        }
+        return firstSurvivor.get() < size ? posTurns.get(firstSurvivor.get()) : null;
     }
 
-    private int calcTree(String playerName, List<List<Action>> potentialActions, IReadonlyBoard board, int depth) {
-        // TODO maybe have this return an int so we can minimize over it (looking ahead)
-        // TODO this is important as we would return 0 if one state is a loss in the tree and that will bubble up
-        // Base case of either no actions to take / loss or a win
-        if ((playerName.equals(currentPlayer) && potentialActions.isEmpty())) {
-            return 0;
-        } else if (rulesEngine.didPlayerWin(board, currentPlayer)) {
-            return 1;
+    /**
+     * Returns the transposition table key for the given board with the given player to move.
+     */
+    private long positionKey(String playerToMove, IReadonlyBoard board) {
+        if (playerToMove.equals(currentPlayer)) {
+            return board.getHash();
         }
+        return board.getHash() ^ ZobristKeys.SIDE_TO_MOVE;
+    }
+
+    private boolean didIActuallyLose(IReadonlyBoard board) {
+        return rulesEngine.didPlayerLose(board, currentPlayer) || rulesEngine.didPlayerWin(board, opponent);
+    }
+
+    /**
+     * The state of one thread's search: the board it walks in place, a buffer of turns per
+     * remaining search depth and its deadline.
+     */
+    private class Searcher {
+        private final IBoard board;
+        private final SearchDeadline deadline;
+        // one buffer of turns per remaining search depth, reused across positions
+        private final List<TurnBuffer> buffers = new ArrayList<>();
 
-        Map<List<Action>, Integer> turnsToScore = new HashMap<>();
+        Searcher(IBoard board, SearchDeadline deadline) {
+            this.board = board;
+            this.deadline = deadline;
+        }
 
-        for (List<Action> turn : potentialActions) {
-            IReadonlyBoard nextState = BoardGenerator.generateSuccessor(board, turn);
-            if (rulesEngine.didPlayerWin(nextState, opponent)) {
+        /**
+         * Scores the given turn by applying it and walking the rest of the game tree on this
+         * searcher's board in place. The board is back in its original state when this returns.
+         */
+        int scoreInPlace(List<Action> potentialTurn, int depth) {
+            if (rulesEngine.didPlayerWin(board, currentPlayer) || (depth == 0 && !potentialTurn.isEmpty())) {
+                return 1;
+            } else if (potentialTurn.isEmpty() || didIActuallyLose(board)) {
                 return 0;
             }
-            String nextName = playerName.equals(currentPlayer) ? opponent : currentPlayer;
 
-            List<List<Action>> possiblNextTurns = getLegalMoves(nextName, nextState);
-            int nextScores;
-            if (depth == 0) {
-                nextScores = 1;
-            } else {
-                int nextDepth = depth - 1;
-                nextScores = calcTree(nextName, possiblNextTurns, nextState, nextDepth);
-            }
-            if (nextScores == 0) {
-                return nextScores;
-            } else {
-                turnsToScore.put(turn, nextScores);
+            BoardGenerator.applyTurn(board, potentialTurn);
+
+            // calcTree('my opponent', opponentTurns
+            int nextDepth = depth - 1;
+            int result = calcTree(opponent, nextDepth);
+
+            BoardGenerator.undoTurn(board, potentialTurn);
+            return result;
+        }
+
+        /**
+         * Determines whether the current player survives when it is the given player's turn on the
+         * board, consulting the transposition table before expanding the position.
+         *
+         * Surviving is monotone in depth: surviving a search of some depth means surviving every
+         * shallower one, and losing within some depth means losing within every deeper one. So a
+         * stored survival answers searches up to its depth and a stored loss answers searches from
+         * its depth on.
+         */
+        private int calcTree(String playerName, int depth) {
+            deadline.check();
+            long key = positionKey(playerName, board);
+            long entry = table.probe(key);
+            if (entry != TranspositionTable.MISS) {
+                int storedScore = TranspositionTable.scoreOf(entry);
+                int storedDepth = TranspositionTable.depthOf(entry);
+                if ((storedScore == 1 && storedDepth >= depth) || (storedScore == 0 && storedDepth <= depth)) {
+                    return storedScore;
+                }
             }
+
+            TurnBuffer potentialTurns = bufferAt(depth);
+            rulesEngine.generateTurns(board, playerName, potentialTurns);
+            int result = calcTree(playerName, potentialTurns, depth);
+            table.store(key, depth, result, TranspositionTable.Bound.EXACT);
+            return result;
         }
-        int result = Collections.min(turnsToScore.values());
-        return result;
-    }
 
-    /**
-     * Gets the turn based on the given board.
-     * @param b the given board to work off of
-     * @return the formulated list of actions
-     */
-    public List<Action> getTurn(IReadonlyBoard b) {
+        /**
+         * Determines whether the current player survives every one of the given turns, walking the
+         * game tree on the board in place. Every turn applied to the board is undone before
+         * this returns.
+         */
+        private int calcTree(String playerName, TurnBuffer potentialTurns, int depth) {
+            // Base case of either no actions to take / loss or a win
+            if ((playerName.equals(currentPlayer) && potentialTurns.isEmpty())) {
+                return 0;
+            } else if (rulesEngine.didPlayerWin(board, currentPlayer)) {
+                return 1;
+            }
 
-        List<List<Action>> posTurns = this.getLegalMoves(currentPlayer, b);
+            String nextName = playerName.equals(currentPlayer) ? opponent : currentPlayer;
 
-        List<Action> bestMove = posTurns.get(0);
-        for (List<Action> turn : posTurns) {
-            if (this.score(turn, b, depth) == 1) {
-                return turn;
+            for (int i = 0; i < potentialTurns.size(); i++) {
+                int turn = potentialTurns.get(i);
+                Turns.apply(board, turn, playerName);
+
+                int nextScores;
+                if (rulesEngine.didPlayerWin(board, opponent)) {
+                    nextScores = 0;
+                } else if (depth == 0) {
+                    nextScores = 1;
+                } else {
+                    int nextDepth = depth - 1;
+                    nextScores = calcTree(nextName, nextDepth);
+                }
+
+                Turns.undo(board, turn);
+
+                // a single losing line is enough to lose, which bubbles up
+                if (nextScores == 0) {
+                    return nextScores;
+                }
             }
+            return 1;
         }
 
-        return bestMove;
-    }
-
-    private boolean didIActuallyLose(IReadonlyBoard board) {
-        return rulesEngine.didPlayerLose(board, currentPlayer) || rulesEngine.didPlayerWin(board, opponent);
+        /**
+         * Returns the buffer that positions searched with the given depth remaining list their turns
+         * in. Positions being searched at the same time are always at different depths, so they
+         * never share a buffer.
+         */
+        private TurnBuffer bufferAt(int depth) {
+            while (buffers.size() <= depth) {
+                buffers.add(new TurnBuffer());
+            }
+            return buffers.get(depth);
+        }
     }
 }
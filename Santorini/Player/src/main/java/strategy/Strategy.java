@@ -28,6 +28,20 @@ public class Strategy {
         return turnStrategy.getTurn(b);
     }
 
+    /**
+     * Gets the turn to take, answering by the given deadline if the turn strategy can manage its
+     * time and ignoring the deadline otherwise.
+     * @param b the given board to work off of
+     * @param deadline System.nanoTime value to answer by
+     * @return the formulated list of actions
+     */
+    public List<Action> getTurn(IReadonlyBoard b, long deadline) {
+        if (turnStrategy instanceof ITimedTurnStrategy) {
+            return ((ITimedTurnStrategy) turnStrategy).getTurn(b, deadline);
+        }
+        return turnStrategy.getTurn(b);
+    }
+
     public void setCurrentPlayer(String currentPlayer) {
         this.turnStrategy.setPlayer(currentPlayer);
     }
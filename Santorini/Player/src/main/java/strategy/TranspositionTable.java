@@ -0,0 +1,193 @@
+package strategy;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size table of search results keyed by position hash, so a search can reuse the result
+ * for a position it already reached through a different order of turns.
+ *
+ * The table is a power-of-two array of entries indexed by the low bits of the key. Each entry is
+ * packed into a single long stored next to the key XORed with it, so probing and storing never
+ * allocate and several threads can share one table without locking: an entry torn by concurrent
+ * writes no longer matches its key and reads as a miss. When two positions compete for an entry,
+ * the one searched deeper is kept, unless the stored one is left over from an earlier search (see
+ * newSearch).
+ */
+public class TranspositionTable {
+
+    /**
+     * How a stored score relates to the true score of the position.
+     */
+    public enum Bound {
+        // the score is the true score
+        EXACT,
+        // the true score is at least the score
+        LOWER,
+        // the true score is at most the score
+        UPPER
+    }
+
+    // returned by probe when the table holds nothing for a key, no stored entry is 0
+    public static final long MISS = 0L;
+    // stored as the best move of entries that have none
+    public static final int NO_MOVE = -1;
+    // deepest search depth an entry can record
+    public static final int MAX_DEPTH = 0xFF;
+
+    // 2^16 entries, roughly a megabyte
+    private static final int DEFAULT_SIZE_BITS = 16;
+    private static final Bound[] BOUNDS = Bound.values();
+
+    // layout of an entry, from the low bits: score, depth, bound, used flag, generation, move + 1
+    private static final int DEPTH_SHIFT = 32;
+    private static final int BOUND_SHIFT = 40;
+    private static final int USED_SHIFT = 42;
+    private static final int GENERATION_SHIFT = 43;
+    private static final int MOVE_SHIFT = 51;
+    private static final long GENERATION_MASK = 0xFF;
+    private static final long MOVE_MASK = 0x1FFF;
+
+    private final int mask;
+    // the key of each entry XORed with the entry
+    private final long[] keys;
+    private final long[] entries;
+
+    // the search entries are written by, only ever changed between searches
+    private volatile int generation;
+
+    public TranspositionTable() {
+        this(DEFAULT_SIZE_BITS);
+    }
+
+    /**
+     * Creates a table with 2^sizeBits entries.
+     *
+     * @param sizeBits log2 of the number of entries, between 1 and 30
+     */
+    public TranspositionTable(int sizeBits) {
+        if (sizeBits < 1 || sizeBits > 30) {
+            throw new IllegalArgumentException(String.format("%d is not a legal table size", sizeBits));
+        }
+
+        int size = 1 << sizeBits;
+        this.mask = size - 1;
+        this.keys = new long[size];
+        this.entries = new long[size];
+        this.generation = 0;
+    }
+
+    /**
+     * Looks up the entry for the given key.
+     *
+     * @param key position hash
+     * @return the entry to read with depthOf, scoreOf, boundOf and moveOf, or MISS
+     */
+    public long probe(long key) {
+        int index = indexOf(key);
+        long entry = this.entries[index];
+        if (entry != MISS && (this.keys[index] ^ entry) == key) {
+            return entry;
+        }
+        return MISS;
+    }
+
+    // returns how deep the position of the given entry was searched
+    public static int depthOf(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & MAX_DEPTH;
+    }
+
+    public static int scoreOf(long entry) {
+        return (int) entry;
+    }
+
+    public static Bound boundOf(long entry) {
+        return BOUNDS[(int) (entry >>> BOUND_SHIFT) & 0x3];
+    }
+
+    // returns the best move stored in the given entry, or NO_MOVE
+    public static int moveOf(long entry) {
+        return (int) ((entry >>> MOVE_SHIFT) & MOVE_MASK) - 1;
+    }
+
+    /**
+     * Stores a search result for the given key. The result replaces what is in its entry if the
+     * entry is empty, holds the same position, was written by an earlier search, or was searched
+     * no deeper than this result.
+     *
+     * @param key position hash
+     * @param depth how deep the position was searched, at most MAX_DEPTH
+     * @param score score of the position
+     * @param bound how the score relates to the true score
+     */
+    public void store(long key, int depth, int score, Bound bound) {
+        store(key, depth, score, bound, NO_MOVE);
+    }
+
+    /**
+     * Stores a search result along with the best move found for the position, which searches
+     * try first when they reach the position again. Replaces entries like store without a move.
+     *
+     * @param key position hash
+     * @param depth how deep the position was searched, at most MAX_DEPTH
+     * @param score score of the position
+     * @param bound how the score relates to the true score
+     * @param move best move found, as an encoded turn, or NO_MOVE
+     */
+    public void store(long key, int depth, int score, Bound bound, int move) {
+        if (depth < 0 || depth > MAX_DEPTH) {
+            throw new IllegalArgumentException(String.format("%d is not a legal depth", depth));
+        }
+        if (move < NO_MOVE || move >= MOVE_MASK) {
+            throw new IllegalArgumentException(String.format("%d is not a legal move", move));
+        }
+
+        int index = indexOf(key);
+        int currentGeneration = this.generation;
+        long old = this.entries[index];
+        boolean replace = old == MISS
+            || (this.keys[index] ^ old) == key
+            || generationOf(old) != currentGeneration
+            || depthOf(old) <= depth;
+
+        if (replace) {
+            long entry = (score & 0xFFFFFFFFL)
+                | ((long) depth << DEPTH_SHIFT)
+                | ((long) bound.ordinal() << BOUND_SHIFT)
+                | (1L << USED_SHIFT)
+                | ((long) currentGeneration << GENERATION_SHIFT)
+                | ((long) (move + 1) << MOVE_SHIFT);
+            this.entries[index] = entry;
+            this.keys[index] = key ^ entry;
+        }
+    }
+
+    /**
+     * Marks the start of a new search. Entries from earlier searches can still be probed, but are
+     * the first to be replaced. Must not be called while a search is using the table.
+     */
+    public void newSearch() {
+        this.generation = (int) ((this.generation + 1) & GENERATION_MASK);
+    }
+
+    /**
+     * Empties the table, e.g. when the positions it holds were scored for a different player.
+     * Must not be called while a search is using the table.
+     */
+    public void clear() {
+        Arrays.fill(this.entries, MISS);
+        Arrays.fill(this.keys, 0L);
+    }
+
+    // returns the number of entries in this table
+    public int size() {
+        return this.keys.length;
+    }
+
+    private static int generationOf(long entry) {
+        return (int) ((entry >>> GENERATION_SHIFT) & GENERATION_MASK);
+    }
+
+    private int indexOf(long key) {
+        return (int) (key ^ (key >>> 32)) & this.mask;
+    }
+}
@@ -2,11 +2,16 @@ package player;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import common.board.Board;
+import common.board.IBoard;
+import common.data.Action;
 import common.interfaces.IPlayer;
+import common.rules.StandardSantoriniRulesEngine;
+import java.util.List;
 import org.junit.Test;
 import strategy.Strategy;
 
@@ -21,6 +26,10 @@ public class TestAIPlayer {
       app.append("call to getTurn\n");
       return null;
     });
+    when(strategy.getTurn(any(), anyLong())).then(invocation -> {
+      app.append("call to timed getTurn\n");
+      return null;
+    });
     when(strategy.getPlaceWorker(any())).then(invocation -> {
       app.append("call to getPlaceWorker\n");
       return null;
@@ -56,4 +65,39 @@ public class TestAIPlayer {
     assertThat(builder).containsIgnoringCase("call to getTurn");
   }
 
+  @Test
+  public void testGetTurnWithBudgetCallsTimedStrategy() {
+    StringBuilder builder = new StringBuilder();
+    IPlayer player = new AIPlayer("player", mockStrategy(builder), 100);
+
+    player.getTurn(new Board());
+
+    assertThat(builder).containsIgnoringCase("call to timed getTurn");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeBudget() {
+    new AIPlayer("player", new Strategy(null, null), -1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSearchingPlayerNeedsBudget() {
+    new AIPlayer("player", 2, AIPlayer.NO_TURN_BUDGET);
+  }
+
+  @Test
+  public void testSearchingPlayerTakesTurn() {
+    IBoard board = new Board();
+    board.createWorker("player", 0, 0);
+    board.createWorker("player", 1, 1);
+    board.createWorker("other", 4, 4);
+    board.createWorker("other", 5, 5);
+    AIPlayer player = new AIPlayer("player", 2, 100);
+    player.setOpponentName("other");
+
+    List<Action> turn = player.getTurn(board);
+
+    assertThat(new StandardSantoriniRulesEngine().isTurnLegal(board, turn, "player")).isTrue();
+  }
+
 }
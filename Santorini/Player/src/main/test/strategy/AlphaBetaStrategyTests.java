@@ -0,0 +1,231 @@
+package strategy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import common.board.Board;
+import common.board.BuildingWorker;
+import common.board.Height;
+import common.board.IBoard;
+import common.board.ICell;
+import common.data.Action;
+import common.data.ActionType;
+import common.data.Worker;
+import common.rules.StandardSantoriniRulesEngine;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import player.AIPlayer;
+
+public class AlphaBetaStrategyTests {
+
+    private ICell[][] emptyCells() {
+        ICell[][] results = new ICell[6][6];
+
+        for (int i = 0; i < 6; i++) {
+            for (int j = 0; j < 6; j++) {
+                results[i][j] = new Height(0);
+            }
+        }
+        return results;
+    }
+
+    private AlphaBetaStrategy strategy(int depth) {
+        return strategy(depth, 1);
+    }
+
+    private AlphaBetaStrategy strategy(int depth, int threads) {
+        AlphaBetaStrategy turnStrategy = new AlphaBetaStrategy(depth, new HeuristicEvaluator(),
+            new TranspositionTable(), threads);
+        turnStrategy.setPlayer("one");
+        turnStrategy.setOpponent("two");
+        return turnStrategy;
+    }
+
+    @Test
+    public void itTakesAnImmediateWin() {
+        ICell[][] cells = emptyCells();
+        cells[2][2] = new BuildingWorker("one", 1, 2);
+        cells[2][3] = new Height(3);
+        cells[0][0] = new BuildingWorker("one", 2, 0);
+        cells[4][4] = new BuildingWorker("two", 1, 2);
+        cells[4][5] = new Height(3);
+        cells[5][0] = new BuildingWorker("two", 2, 0);
+
+        List<Action> turn = strategy(3).getTurn(new Board(cells));
+
+        assertEquals(1, turn.size());
+        assertEquals("one1", turn.get(0).getWorkerId());
+        assertEquals("EAST", turn.get(0).getDirection().getEastWest());
+        assertEquals("PUT", turn.get(0).getDirection().getNorthSouth());
+    }
+
+    @Test
+    public void itBlocksTheOpponentsWin() {
+        itBlocksTheOpponentsWin(1);
+    }
+
+    @Test
+    public void itBlocksTheOpponentsWinInParallel() {
+        itBlocksTheOpponentsWin(4);
+    }
+
+    private void itBlocksTheOpponentsWin(int threads) {
+        ICell[][] cells = emptyCells();
+        cells[0][0] = new BuildingWorker("one", 1, 0);
+        cells[2][5] = new BuildingWorker("one", 2, 0);
+        cells[4][4] = new BuildingWorker("two", 1, 2);
+        cells[4][5] = new Height(3);
+        cells[5][0] = new BuildingWorker("two", 2, 0);
+        IBoard board = new Board(cells);
+
+        List<Action> turn = strategy(3, threads).getTurn(board);
+
+        assertEquals(2, turn.size());
+        Worker worker = board.findWorker(turn.get(0).getWorkerId());
+        int row = worker.getRow() + turn.get(0).getDirection().getRowModifier()
+            + turn.get(1).getDirection().getRowModifier();
+        int column = worker.getColumn() + turn.get(0).getDirection().getColumnModifier()
+            + turn.get(1).getDirection().getColumnModifier();
+        assertEquals(ActionType.BUILD, turn.get(1).getType());
+        assertEquals(4, row);
+        assertEquals(5, column);
+    }
+
+    @Test
+    public void itGivesUpWithoutLegalTurns() {
+        ICell[][] cells = emptyCells();
+        cells[0][0] = new BuildingWorker("one", 1, 0);
+        cells[0][1] = new Height(4);
+        cells[1][0] = new Height(4);
+        cells[1][1] = new Height(4);
+        cells[0][5] = new BuildingWorker("one", 2, 0);
+        cells[0][4] = new Height(4);
+        cells[1][4] = new Height(4);
+        cells[1][5] = new Height(4);
+        cells[5][0] = new BuildingWorker("two", 1, 0);
+        cells[5][5] = new BuildingWorker("two", 2, 0);
+
+        assertTrue(strategy(2).getTurn(new Board(cells)).isEmpty());
+    }
+
+    @Test
+    public void itLeavesTheBoardUnchanged() {
+        ICell[][] cells = emptyCells();
+        cells[1][1] = new BuildingWorker("one", 1, 0);
+        cells[1][2] = new BuildingWorker("one", 2, 1);
+        cells[3][3] = new BuildingWorker("two", 1, 0);
+        cells[4][3] = new BuildingWorker("two", 2, 0);
+        cells[2][2] = new Height(2);
+        IBoard board = new Board(cells);
+        String before = board.toJson().toString();
+        long hash = board.getHash();
+
+        new AIPlayer("one", new Strategy(new DiagonalPlacementStrategy(), strategy(3))).getTurn(board);
+
+        assertEquals(before, board.toJson().toString());
+        assertEquals(hash, board.getHash());
+    }
+
+    @Test
+    public void itEvaluatesZeroSum() {
+        ICell[][] cells = emptyCells();
+        cells[1][1] = new BuildingWorker("one", 1, 2);
+        cells[1][2] = new Height(3);
+        cells[0][0] = new BuildingWorker("one", 2, 1);
+        cells[3][3] = new BuildingWorker("two", 1, 0);
+        cells[5][5] = new BuildingWorker("two", 2, 0);
+        IBoard board = new Board(cells);
+        IBoardEvaluator evaluator = new HeuristicEvaluator();
+
+        int score = evaluator.evaluate(board, "one", "two");
+
+        assertTrue(score > 0);
+        assertEquals(-score, evaluator.evaluate(board, "two", "one"));
+    }
+
+    @Test
+    public void itAnswersByTheDeadline() {
+        ICell[][] cells = emptyCells();
+        cells[1][1] = new BuildingWorker("one", 1, 0);
+        cells[1][4] = new BuildingWorker("one", 2, 1);
+        cells[4][1] = new BuildingWorker("two", 1, 0);
+        cells[4][4] = new BuildingWorker("two", 2, 1);
+        cells[2][2] = new Height(2);
+        cells[3][3] = new Height(1);
+        IBoard board = new Board(cells);
+        AlphaBetaStrategy turnStrategy = strategy(64);
+
+        long start = System.nanoTime();
+        List<Action> turn = turnStrategy.getTurn(board, start + TimeUnit.MILLISECONDS.toNanos(200));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsed < 1000);
+        assertTrue(new StandardSantoriniRulesEngine().isTurnLegal(board, turn, "one"));
+    }
+
+    @Test
+    public void itTakesAnImmediateWinWithADeadline() {
+        ICell[][] cells = emptyCells();
+        cells[2][2] = new BuildingWorker("one", 1, 2);
+        cells[2][3] = new Height(3);
+        cells[0][0] = new BuildingWorker("one", 2, 0);
+        cells[4][4] = new BuildingWorker("two", 1, 2);
+        cells[4][5] = new Height(3);
+        cells[5][0] = new BuildingWorker("two", 2, 0);
+
+        // a deadline that has already passed still gets a complete one turn search
+        List<Action> turn = strategy(64).getTurn(new Board(cells), System.nanoTime());
+
+        assertEquals(1, turn.size());
+        assertEquals("one1", turn.get(0).getWorkerId());
+    }
+
+    @Test
+    public void itAnswersByTheDeadlineInParallel() {
+        ICell[][] cells = emptyCells();
+        cells[1][1] = new BuildingWorker("one", 1, 0);
+        cells[1][4] = new BuildingWorker("one", 2, 1);
+        cells[4][1] = new BuildingWorker("two", 1, 0);
+        cells[4][4] = new BuildingWorker("two", 2, 1);
+        cells[2][2] = new Height(2);
+        IBoard board = new Board(cells);
+
+        long start = System.nanoTime();
+        List<Action> turn = strategy(64, 4).getTurn(board, start + TimeUnit.MILLISECONDS.toNanos(200));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsed < 1000);
+        assertTrue(new StandardSantoriniRulesEngine().isTurnLegal(board, turn, "one"));
+    }
+
+    @Test
+    public void itAnswersWhenInterruptedInParallel() {
+        ICell[][] cells = emptyCells();
+        cells[1][1] = new BuildingWorker("one", 1, 0);
+        cells[1][4] = new BuildingWorker("one", 2, 1);
+        cells[4][1] = new BuildingWorker("two", 1, 0);
+        cells[4][4] = new BuildingWorker("two", 2, 1);
+        IBoard board = new Board(cells);
+
+        Thread.currentThread().interrupt();
+        try {
+            List<Action> turn = strategy(3, 4).getTurn(board);
+
+            assertTrue(new StandardSantoriniRulesEngine().isTurnLegal(board, turn, "one"));
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void itRejectsZeroThreads() {
+        new AlphaBetaStrategy(2, new HeuristicEvaluator(), new TranspositionTable(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void itRejectsZeroDepth() {
+        new AlphaBetaStrategy(0);
+    }
+}
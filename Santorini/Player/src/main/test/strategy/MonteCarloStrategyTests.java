@@ -0,0 +1,209 @@
+package strategy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import common.board.Board;
+import common.board.BuildingWorker;
+import common.board.Height;
+import common.board.IBoard;
+import common.board.ICell;
+import common.data.Action;
+import common.data.ActionType;
+import common.data.Worker;
+import common.rules.StandardSantoriniRulesEngine;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import player.AIPlayer;
+
+public class MonteCarloStrategyTests {
+
+    private ICell[][] emptyCells() {
+        ICell[][] results = new ICell[6][6];
+
+        for (int i = 0; i < 6; i++) {
+            for (int j = 0; j < 6; j++) {
+                results[i][j] = new Height(0);
+            }
+        }
+        return results;
+    }
+
+    private MonteCarloStrategy strategy(long budgetMillis) {
+        return strategy(budgetMillis, 1);
+    }
+
+    private MonteCarloStrategy strategy(long budgetMillis, int threads) {
+        MonteCarloStrategy turnStrategy = new MonteCarloStrategy(budgetMillis, 1.4, 42, threads);
+        turnStrategy.setPlayer("one");
+        turnStrategy.setOpponent("two");
+        return turnStrategy;
+    }
+
+    private IBoard openBoard() {
+        ICell[][] cells = emptyCells();
+        cells[1][1] = new BuildingWorker("one", 1, 0);
+        cells[1][4] = new BuildingWorker("one", 2, 1);
+        cells[4][1] = new BuildingWorker("two", 1, 0);
+        cells[4][4] = new BuildingWorker("two", 2, 1);
+        cells[2][2] = new Height(2);
+        cells[3][3] = new Height(1);
+        return new Board(cells);
+    }
+
+    @Test
+    public void itTakesAnImmediateWin() {
+        ICell[][] cells = emptyCells();
+        cells[2][2] = new BuildingWorker("one", 1, 2);
+        cells[2][3] = new Height(3);
+        cells[0][0] = new BuildingWorker("one", 2, 0);
+        cells[4][4] = new BuildingWorker("two", 1, 2);
+        cells[4][5] = new Height(3);
+        cells[5][0] = new BuildingWorker("two", 2, 0);
+
+        List<Action> turn = strategy(200).getTurn(new Board(cells));
+
+        assertEquals(1, turn.size());
+        assertEquals("one1", turn.get(0).getWorkerId());
+        assertEquals("EAST", turn.get(0).getDirection().getEastWest());
+        assertEquals("PUT", turn.get(0).getDirection().getNorthSouth());
+    }
+
+    @Test
+    public void itBlocksTheOpponentsWin() {
+        itBlocksTheOpponentsWin(1);
+    }
+
+    @Test
+    public void itBlocksTheOpponentsWinInParallel() {
+        itBlocksTheOpponentsWin(4);
+    }
+
+    private void itBlocksTheOpponentsWin(int threads) {
+        ICell[][] cells = emptyCells();
+        cells[0][0] = new BuildingWorker("one", 1, 0);
+        cells[2][5] = new BuildingWorker("one", 2, 0);
+        cells[4][4] = new BuildingWorker("two", 1, 2);
+        cells[4][5] = new Height(3);
+        cells[5][0] = new BuildingWorker("two", 2, 0);
+        IBoard board = new Board(cells);
+
+        List<Action> turn = strategy(500, threads).getTurn(board);
+
+        assertEquals(2, turn.size());
+        Worker worker = board.findWorker(turn.get(0).getWorkerId());
+        int row = worker.getRow() + turn.get(0).getDirection().getRowModifier()
+            + turn.get(1).getDirection().getRowModifier();
+        int column = worker.getColumn() + turn.get(0).getDirection().getColumnModifier()
+            + turn.get(1).getDirection().getColumnModifier();
+        assertEquals(ActionType.BUILD, turn.get(1).getType());
+        assertEquals(4, row);
+        assertEquals(5, column);
+    }
+
+    @Test
+    public void itGivesUpWithoutLegalTurns() {
+        ICell[][] cells = emptyCells();
+        cells[0][0] = new BuildingWorker("one", 1, 0);
+        cells[0][1] = new Height(4);
+        cells[1][0] = new Height(4);
+        cells[1][1] = new Height(4);
+        cells[0][5] = new BuildingWorker("one", 2, 0);
+        cells[0][4] = new Height(4);
+        cells[1][4] = new Height(4);
+        cells[1][5] = new Height(4);
+        cells[5][0] = new BuildingWorker("two", 1, 0);
+        cells[5][5] = new BuildingWorker("two", 2, 0);
+
+        assertTrue(strategy(100).getTurn(new Board(cells)).isEmpty());
+    }
+
+    @Test
+    public void itLeavesTheBoardUnchanged() {
+        IBoard board = openBoard();
+        String before = board.toJson().toString();
+        long hash = board.getHash();
+
+        new AIPlayer("one", new Strategy(new DiagonalPlacementStrategy(), strategy(100))).getTurn(board);
+
+        assertEquals(before, board.toJson().toString());
+        assertEquals(hash, board.getHash());
+    }
+
+    @Test
+    public void itAnswersByTheDeadlineAndReportsThroughput() {
+        IBoard board = openBoard();
+        MonteCarloStrategy turnStrategy = strategy(60000);
+
+        long start = System.nanoTime();
+        List<Action> turn = turnStrategy.getTurn(board, start + TimeUnit.MILLISECONDS.toNanos(200));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsed < 1000);
+        assertTrue(new StandardSantoriniRulesEngine().isTurnLegal(board, turn, "one"));
+        assertTrue(turnStrategy.getLastPlayouts() > 0);
+        assertTrue(turnStrategy.getLastPlayoutsPerSecond() > 0);
+    }
+
+    @Test
+    public void itAnswersByTheDeadlineInParallel() {
+        IBoard board = openBoard();
+        MonteCarloStrategy turnStrategy = strategy(60000, 4);
+
+        long start = System.nanoTime();
+        List<Action> turn = turnStrategy.getTurn(board, start + TimeUnit.MILLISECONDS.toNanos(200));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsed < 1000);
+        assertTrue(new StandardSantoriniRulesEngine().isTurnLegal(board, turn, "one"));
+        // every thread runs at least one playout
+        assertTrue(turnStrategy.getLastPlayouts() >= 4);
+    }
+
+    @Test
+    public void itKeepsPlayingLegallyAcrossTurns() {
+        IBoard board = openBoard();
+        MonteCarloStrategy turnStrategy = strategy(100);
+        MonteCarloStrategy opponentStrategy = new MonteCarloStrategy(100, 1.4, 7);
+        opponentStrategy.setPlayer("two");
+        opponentStrategy.setOpponent("one");
+        StandardSantoriniRulesEngine rules = new StandardSantoriniRulesEngine();
+
+        // the opponent searches the same way, so its replies are usually in the tree already
+        for (int i = 0; i < 3; i++) {
+            List<Action> turn = turnStrategy.getTurn(board);
+            assertTrue(rules.isTurnLegal(board, turn, "one"));
+            turn.forEach(board::apply);
+
+            List<Action> reply = opponentStrategy.getTurn(board);
+            assertTrue(rules.isTurnLegal(board, reply, "two"));
+            reply.forEach(board::apply);
+        }
+    }
+
+    @Test
+    public void itAnswersWhenInterruptedInParallel() {
+        IBoard board = openBoard();
+
+        Thread.currentThread().interrupt();
+        try {
+            List<Action> turn = strategy(200, 4).getTurn(board);
+
+            assertTrue(new StandardSantoriniRulesEngine().isTurnLegal(board, turn, "one"));
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void itRejectsZeroThreads() {
+        new MonteCarloStrategy(100, 1.4, 42, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void itRejectsZeroBudget() {
+        new MonteCarloStrategy(0);
+    }
+}
@@ -11,6 +11,7 @@ import common.data.Action;
 import common.data.ActionType;
 import common.data.Direction;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.junit.Test;
 
@@ -122,4 +123,65 @@ public class StayAliveStrategyTests {
         assertEquals(1, value);
     }
 
+    @Test
+    public void itDeepensUntilTheDeadline() {
+        IBoard board = new Board(formulateAdvancedBoard());
+
+        StayAliveStrategy turnStrategy = new StayAliveStrategy(3);
+        turnStrategy.setPlayer("one");
+        turnStrategy.setOpponent("two");
+
+        List<Action> timed = turnStrategy.getTurn(board.toViewModel(), System.nanoTime() + 1000000000L);
+        List<Action> untimed = turnStrategy.getTurn(board.toViewModel());
+
+        assertEquals(untimed.size(), timed.size());
+        assertEquals(untimed.get(0).getWorkerId(), timed.get(0).getWorkerId());
+        assertEquals(untimed.get(0).getDirection().getIndex(), timed.get(0).getDirection().getIndex());
+        assertEquals(untimed.get(1).getDirection().getIndex(), timed.get(1).getDirection().getIndex());
+    }
+
+    @Test
+    public void itPicksTheSameTurnInParallel() {
+        IBoard board = new Board(formulateAdvancedBoard());
+
+        StayAliveStrategy sequential = new StayAliveStrategy(3);
+        sequential.setPlayer("one");
+        sequential.setOpponent("two");
+        StayAliveStrategy parallel = new StayAliveStrategy(3, new TranspositionTable(), 4);
+        parallel.setPlayer("one");
+        parallel.setOpponent("two");
+
+        List<Action> expected = sequential.getTurn(board.toViewModel());
+        for (List<Action> turn : Arrays.asList(parallel.getTurn(board.toViewModel()),
+            parallel.getTurn(board.toViewModel(), System.nanoTime() + 1000000000L))) {
+            assertEquals(expected.size(), turn.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getWorkerId(), turn.get(i).getWorkerId());
+                assertEquals(expected.get(i).getDirection().getIndex(), turn.get(i).getDirection().getIndex());
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void itRejectsZeroThreads() {
+        new StayAliveStrategy(2, new TranspositionTable(), 0);
+    }
+
+    @Test
+    public void itScoresTheSameWithAWarmTable() {
+        IBoard board = new Board(formulateAdvancedBoard());
+
+        StayAliveStrategy turnStrategy = new StayAliveStrategy(3, new TranspositionTable(10));
+        turnStrategy.setPlayer("one");
+        turnStrategy.setOpponent("two");
+        List<Action> turnToTake = new ArrayList<>();
+        turnToTake.add(new Action(ActionType.MOVE, "one1", new Direction("EAST", "SOUTH")));
+        turnToTake.add(new Action(ActionType.BUILD, "one1", new Direction("WEST", "PUT")));
+
+        // the second and third scores are answered at least partly from the table
+        assertEquals(1, turnStrategy.score(turnToTake, board.toViewModel(), 3));
+        assertEquals(1, turnStrategy.score(turnToTake, board.toViewModel(), 3));
+        assertEquals(1, turnStrategy.score(turnToTake, board.toViewModel(), 1));
+    }
+
 }
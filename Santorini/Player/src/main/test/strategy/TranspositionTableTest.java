@@ -0,0 +1,116 @@
+package strategy;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class TranspositionTableTest {
+
+    @Test
+    public void itMissesUnknownKeys() {
+        TranspositionTable table = new TranspositionTable(4);
+
+        assertEquals(TranspositionTable.MISS, table.probe(0L));
+        assertEquals(TranspositionTable.MISS, table.probe(12345L));
+    }
+
+    @Test
+    public void itFindsStoredEntries() {
+        TranspositionTable table = new TranspositionTable(4);
+        table.store(0L, 3, 1, TranspositionTable.Bound.EXACT);
+
+        long entry = table.probe(0L);
+        assertEquals(3, TranspositionTable.depthOf(entry));
+        assertEquals(1, TranspositionTable.scoreOf(entry));
+        assertEquals(TranspositionTable.Bound.EXACT, TranspositionTable.boundOf(entry));
+    }
+
+    @Test
+    public void itDetectsCollisions() {
+        TranspositionTable table = new TranspositionTable(4);
+        table.store(1L, 3, 1, TranspositionTable.Bound.LOWER);
+
+        // same low bits, different key
+        assertEquals(TranspositionTable.MISS, table.probe(1L + table.size()));
+    }
+
+    @Test
+    public void itKeepsDeeperEntriesWithinASearch() {
+        TranspositionTable table = new TranspositionTable(4);
+        long deep = 1L;
+        long shallow = 1L + table.size();
+
+        table.store(deep, 4, 1, TranspositionTable.Bound.EXACT);
+        table.store(shallow, 2, 0, TranspositionTable.Bound.EXACT);
+        assertEquals(TranspositionTable.MISS, table.probe(shallow));
+        assertEquals(4, TranspositionTable.depthOf(table.probe(deep)));
+
+        table.newSearch();
+        table.store(shallow, 2, 0, TranspositionTable.Bound.EXACT);
+        assertEquals(TranspositionTable.MISS, table.probe(deep));
+        assertEquals(0, TranspositionTable.scoreOf(table.probe(shallow)));
+    }
+
+    @Test
+    public void itEmptiesOnClear() {
+        TranspositionTable table = new TranspositionTable(4);
+        table.store(7L, 1, 1, TranspositionTable.Bound.UPPER);
+        table.clear();
+
+        assertEquals(TranspositionTable.MISS, table.probe(7L));
+    }
+
+    @Test
+    public void itRoundTripsEveryField() {
+        TranspositionTable table = new TranspositionTable(4);
+        table.store(9L, TranspositionTable.MAX_DEPTH, -1000000, TranspositionTable.Bound.UPPER, 0x2F7);
+        table.store(10L, 0, 12, TranspositionTable.Bound.LOWER);
+
+        long entry = table.probe(9L);
+        assertEquals(TranspositionTable.MAX_DEPTH, TranspositionTable.depthOf(entry));
+        assertEquals(-1000000, TranspositionTable.scoreOf(entry));
+        assertEquals(TranspositionTable.Bound.UPPER, TranspositionTable.boundOf(entry));
+        assertEquals(0x2F7, TranspositionTable.moveOf(entry));
+        assertEquals(TranspositionTable.NO_MOVE, TranspositionTable.moveOf(table.probe(10L)));
+    }
+
+    @Test
+    public void itStaysConsistentUnderConcurrentWrites() throws Exception {
+        TranspositionTable table = new TranspositionTable(2);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            writers.add(executor.submit(() -> {
+                for (int i = 0; i < 100000; i++) {
+                    long key = i % 64;
+                    // every field is derived from the key, so a torn entry would not match
+                    table.store(key, (int) key, (int) key * 3, TranspositionTable.Bound.EXACT, (int) key);
+                    long entry = table.probe(key);
+                    if (entry != TranspositionTable.MISS) {
+                        assertEquals(key * 3, TranspositionTable.scoreOf(entry));
+                        assertEquals(key, TranspositionTable.moveOf(entry));
+                    }
+                }
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        executor.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void itRejectsDeepEntries() {
+        new TranspositionTable(4).store(1L, TranspositionTable.MAX_DEPTH + 1, 0, TranspositionTable.Bound.EXACT);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void itRejectsBadSizes() {
+        new TranspositionTable(0);
+    }
+}
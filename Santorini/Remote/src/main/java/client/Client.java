@@ -11,8 +11,11 @@ import java.io.Reader;
 import java.lang.reflect.InvocationTargetException;
 import java.net.Socket;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import utils.Utils;
+import protocol.BinaryMessage;
+import utils.VirtualThreads;
 
 /**
  * Client for the players. Allows user to send config from STDIN and sets up
@@ -64,17 +67,41 @@ public class Client {
       List<IObserver> observers,
       String ip,
       int port
+  ) throws IOException {
+    startClient(players, observers, ip, port, BinaryMessage.JSON);
+  }
+
+  /**
+   *
+   * Starts a client that can ask the server for another protocol than Json.
+   *
+   * @param players the players in the tournament
+   * @param observers the observers in the tournament
+   * @param ip the ip address they are connecting to
+   * @param port the port number they are connecting to
+   * @param protocol protocol to ask for, "json", "binary" or "delta", the server may pick another
+   * @throws IOException if the connection fails
+   */
+  public static void startClient(
+      List<IPlayer> players,
+      List<IObserver> observers,
+      String ip,
+      int port,
+      String protocol
   ) throws IOException {
     List<Socket> sockets = new ArrayList<>();
+    List<Thread> relays = new ArrayList<>();
 
     if (port >= 50000 && port <= 60000) {
       for (IPlayer player : players) {
         Socket socket = new Socket(ip, port);
 
-        Thread thread = new Thread(new Relay(socket, player, observers));
+        // One thread per connection, a virtual one if enabled
+        Thread thread = VirtualThreads.newThread("relay-" + relays.size(), new Relay(socket, player, observers, protocol));
         thread.start();
 
         sockets.add(socket);
+        relays.add(thread);
 
         // pause for half a second between connections to ensure
         // they connect in specified order
@@ -85,6 +112,18 @@ public class Client {
         }
       }
 
+      // Virtual threads do not keep the process alive, so wait for the relays to finish
+      if (VirtualThreads.isEnabled()) {
+        for (Thread relay : relays) {
+          try {
+            relay.join();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            break;
+          }
+        }
+      }
+
       // If all the sockets are closed, exit
       if (sockets.stream().allMatch(Socket::isClosed)) {
         System.exit(0);
@@ -124,7 +163,8 @@ public class Client {
 
   /**
    * Reads in the config file that gives the information about the players and the observers
-   * participating in the tournament.
+   * participating in the tournament. An optional "protocol" field, "json", "binary" or "delta",
+   * picks the protocol to ask the server for, Json by default.
    *
    * @param config a JsonNode containing player and observer info
    */
@@ -138,6 +178,8 @@ public class Client {
     String observersString = "observers";
     String ipString = "ip";
     String portString = "port";
+    String protocolString = "protocol";
+    String protocol = BinaryMessage.JSON;
 
     if (config.isObject()
         && config.has(playersString)
@@ -163,11 +205,18 @@ public class Client {
           + "\"players\", \"observers\", \"ip\", and \"port\"");
     }
 
+    if (config.has(protocolString)) {
+      protocol = config.get(protocolString).asText();
+      if (!Arrays.asList(BinaryMessage.JSON, BinaryMessage.BINARY, BinaryMessage.DELTA).contains(protocol)) {
+        throw new IllegalArgumentException("\"protocol\" must be \"json\", \"binary\" or \"delta\"");
+      }
+    }
+
 
     List<IPlayer> players = parsePlayers(playersNode);
     List<IObserver> observers = parseObservers(observersNode);
 
-    startClient(players, observers, ip, port);
+    startClient(players, observers, ip, port, protocol);
   }
 
   private static List<IObserver> parseObservers(JsonNode observersNode) {
@@ -14,20 +14,36 @@ import common.data.Direction;
 import common.data.PlaceWorkerAction;
 import common.interfaces.IObserver;
 import common.interfaces.IPlayer;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import protocol.BinaryMessage;
+import protocol.DeltaDecoder;
 
 /**
  * Relay that accepts Json commands from a remote manager and sends the
  * appropriate response.
+ *
+ * A relay can ask the manager for the binary or delta protocol when it connects, see BinaryMessage,
+ * and falls back to the next one down if the manager picks it, down to Json. In the delta protocol
+ * the relay keeps its board between turns and only applies the cells that changed.
  */
 public class Relay implements Runnable {
 
@@ -37,6 +53,12 @@ public class Relay implements Runnable {
   private Socket socket;
   private IPlayer player;
   private List<IObserver> observers;
+  // protocol to ask for
+  private String protocol;
+  // name of the opponent, the binary protocol only sends it in other messages
+  private String opponentName;
+  // board kept between turns of the delta protocol
+  private final DeltaDecoder deltas = new DeltaDecoder();
 
   // constructor for testing purposes
   Relay(IPlayer player) {
@@ -53,9 +75,22 @@ public class Relay implements Runnable {
    * @param observers any observers that are connecting
    */
   public Relay(Socket socket, IPlayer player, List<IObserver> observers) {
+    this(socket, player, observers, BinaryMessage.JSON);
+  }
+
+  /**
+   * Constructor for a relay that can ask for another protocol than Json
+   *
+   * @param socket the socket that players are connecting on
+   * @param player the player that is connecting
+   * @param observers any observers that are connecting
+   * @param protocol protocol to ask the manager for: "json", "binary" or "delta"
+   */
+  public Relay(Socket socket, IPlayer player, List<IObserver> observers, String protocol) {
     this.socket = socket;
     this.player = player;
     this.observers = observers;
+    this.protocol = protocol;
   }
 
   /**
@@ -75,6 +110,22 @@ public class Relay implements Runnable {
    */
   private void manageConnection() throws IOException {
     PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+
+    if (!protocol.equals(BinaryMessage.JSON)) {
+      // Offers the protocol asked for and every one after it
+      List<String> offered = Arrays.asList(BinaryMessage.DELTA, BinaryMessage.BINARY, BinaryMessage.JSON);
+      out.println(BinaryMessage.helloMessage(offered.subList(offered.indexOf(protocol), offered.size())));
+      // Read without buffering, nothing after the answer may be taken as Json
+      String answer = readLine(socket.getInputStream());
+      if (answer == null) {
+        return;
+      }
+      if (!BinaryMessage.toProtocol(mapper.readTree(answer)).equals(BinaryMessage.JSON)) {
+        manageBinaryConnection();
+        return;
+      }
+    }
+
     BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
 
     // Sends the name
@@ -94,6 +145,90 @@ public class Relay implements Runnable {
     }
   }
 
+  /**
+   * Sends the name of the player and manages binary messages to and from the client.
+   * @throws IOException
+   */
+  private void manageBinaryConnection() throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+    OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+
+    out.write(BinaryMessage.nameFrame(BinaryMessage.NAME, player.getPlayerName()));
+    out.flush();
+
+    while (!socket.isClosed()) {
+      byte[] body;
+      try {
+        body = new byte[in.readInt()];
+        in.readFully(body);
+      } catch (EOFException e) {
+        return;
+      }
+
+      Optional<byte[]> response = this.respond(ByteBuffer.wrap(body));
+      if (response.isPresent()) {
+        out.write(response.get());
+        out.flush();
+      }
+    }
+  }
+
+  /**
+   * Response binary message from the player, if it is required.
+   *
+   * @param prompt body of the prompt frame
+   * @return frame of the response
+   */
+  public Optional<byte[]> respond(ByteBuffer prompt) {
+    switch (BinaryMessage.typeOf(prompt)) {
+      case BinaryMessage.OTHER:
+        deltas.reset();
+        this.other(BinaryMessage.toName(prompt));
+        return Optional.empty();
+      case BinaryMessage.PLAYING_AS:
+        deltas.reset();
+        this.playingAs(BinaryMessage.toName(prompt));
+        return Optional.empty();
+      case BinaryMessage.PLACEMENT:
+        // A new game, its first board is sent whole
+        deltas.reset();
+        IBoard placeBoard = BinaryMessage.toBoard(prompt, player.getPlayerName(), opponentName);
+        return Optional.of(BinaryMessage.placeFrame(this.place(placeBoard)));
+      case BinaryMessage.TAKE_TURN:
+      case BinaryMessage.TURN_DELTA:
+        IBoard board = deltas.toBoard(prompt, player.getPlayerName(), opponentName);
+        if (board == null) {
+          return Optional.of(BinaryMessage.resyncFrame());
+        }
+        return Optional.of(BinaryMessage.turnFrame(this.turn(board)));
+      case BinaryMessage.INFORM:
+        // Only happens at end of game. Want to stop thread.
+        this.closeSocket();
+        return Optional.empty();
+      default:
+        throw new IllegalArgumentException(String.format("%d is not a legal message", BinaryMessage.typeOf(prompt)));
+    }
+  }
+
+  /**
+   * Reads one line of the given stream, a byte at a time so nothing after it is read.
+   *
+   * @param in stream to read
+   * @return the line, or null if the stream ends first
+   * @throws IOException if the stream cannot be read
+   */
+  private static String readLine(InputStream in) throws IOException {
+    ByteArrayOutputStream line = new ByteArrayOutputStream();
+    int next;
+    while ((next = in.read()) != '\n') {
+      if (next < 0) {
+        return null;
+      }
+      line.write(next);
+    }
+    return new String(line.toByteArray(), StandardCharsets.UTF_8);
+  }
+
   /**
    * Response Json message from the player, if it is required.
    *
@@ -147,7 +282,16 @@ public class Relay implements Runnable {
    * @return Json Action representing next move
    */
   private JsonNode action(JsonNode boardNode) {
-    IBoard board = new Board(boardNode);
+    return buildActionResponse(turn(new Board(boardNode)));
+  }
+
+  /**
+   * Returns the turn the player takes on the given board
+   *
+   * @param board the current board
+   * @return a move and an optional build, or no actions to give up
+   */
+  private List<Action> turn(IBoard board) {
     this.updateObservers(observer -> observer.update(board));
 
     List<Action> actions = player.getTurn(board);
@@ -157,7 +301,7 @@ public class Relay implements Runnable {
       this.updateObservers(observer -> observer.updateGiveUp(player));
     }
 
-    return buildActionResponse(actions);
+    return actions;
   }
 
   /**
@@ -202,12 +346,19 @@ public class Relay implements Runnable {
    */
   private JsonNode place(JsonNode node) {
     // Create a new board with the given placements
-    IBoard placeBoard = buildPlaceBoard(node);
-    this.updateObservers(observer -> observer.update(placeBoard));
+    return buildPlaceResponse(place(buildPlaceBoard(node)));
+  }
 
-    PlaceWorkerAction place = player.getPlaceWorker(placeBoard);
+  /**
+   * Returns where the player places a worker on the given board
+   *
+   * @param placeBoard board holding the workers already placed
+   * @return the placement
+   */
+  private PlaceWorkerAction place(IBoard placeBoard) {
+    this.updateObservers(observer -> observer.update(placeBoard));
 
-    return buildPlaceResponse(place);
+    return player.getPlaceWorker(placeBoard);
   }
 
   /**
@@ -377,6 +528,7 @@ public class Relay implements Runnable {
    * @param name name of the opponent player
    */
   private void other(String name) {
+    this.opponentName = name;
     player.setOpponentName(name);
   }
 
@@ -0,0 +1,569 @@
+package protocol;
+
+import admin.result.GameResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import common.board.Board;
+import common.board.BuildingWorker;
+import common.board.Height;
+import common.board.IBoard;
+import common.board.ICell;
+import common.board.IReadonlyBoard;
+import common.data.Action;
+import common.data.ActionType;
+import common.data.Direction;
+import common.data.PlaceWorkerAction;
+import common.data.Worker;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The compact binary protocol a client can ask for instead of Json when it connects.
+ *
+ * The client offers the protocols it speaks, most preferred first, as its first message:
+ * ["hello", ["binary", "json"]]. The server answers with the one it picked, ["protocol", "binary"],
+ * and both sides speak that protocol from then on, starting with the client's name. A client that
+ * sends its name straight away speaks Json, as before. Both messages of the exchange are Json.
+ *
+ * Every binary message is a frame: a 4 byte length, then a body of that many bytes whose first byte
+ * is the kind of message. A board is 18 bytes of heights packed two cells to a byte, then a count and
+ * one byte per worker holding its cell, its number and whether it belongs to the player being asked
+ * or their opponent, so names are only sent in playing-as and other messages. A turn is one byte.
+ *
+ * The delta protocol is the binary protocol, except that a take turn message after the first of a
+ * game only lists the cells that changed since the last board sent, each as its index and a code
+ * byte, see DeltaEncoder and DeltaDecoder. Now and then it also carries the board's hash, and a
+ * client whose board no longer matches it answers with a resync message to get the whole board.
+ */
+public final class BinaryMessage {
+
+  public static final String JSON = "json";
+  public static final String BINARY = "binary";
+  public static final String DELTA = "delta";
+
+  private static final String HELLO = "hello";
+  private static final String PROTOCOL = "protocol";
+
+  // Kinds of message sent by the server
+  public static final byte PLAYING_AS = 1;
+  public static final byte OTHER = 2;
+  public static final byte PLACEMENT = 3;
+  public static final byte TAKE_TURN = 4;
+  public static final byte INFORM = 5;
+  public static final byte TURN_DELTA = 6;
+
+  // Kinds of message sent by the client
+  public static final byte NAME = 16;
+  public static final byte PLACE = 17;
+  public static final byte TURN = 18;
+  public static final byte GIVE_UP = 19;
+  public static final byte RESYNC = 20;
+
+  // Bytes of the length before every body
+  public static final int LENGTH_BYTES = 4;
+
+  private static final int ROWS = 6;
+  private static final int COLUMNS = 6;
+  private static final int CELLS = ROWS * COLUMNS;
+  private static final int HEIGHT_BYTES = CELLS / 2;
+  private static final int MAX_NAME_BYTES = 0xFF;
+
+  // layout of a worker byte: cell, then worker number - 1, then whether it is the opponent's
+  private static final int CELL_MASK = 0x3F;
+  private static final int WORKER_NUMBER_BIT = 0x40;
+  private static final int OPPONENT_BIT = 0x80;
+
+  // layout of a turn byte: has build, build direction, move direction, then worker number - 1
+  private static final int HAS_BUILD_BIT = 0x01;
+  private static final int BUILD_SHIFT = 1;
+  private static final int MOVE_SHIFT = 4;
+  private static final int DIRECTION_MASK = 0x7;
+  private static final int TURN_WORKER_BIT = 0x80;
+
+  // layout of a cell code: height, then whether a worker stands there, its number - 1 and whether
+  // it is the opponent's
+  private static final int HEIGHT_MASK = 0x7;
+  private static final int CODE_WORKER_BIT = 0x08;
+  private static final int CODE_NUMBER_BIT = 0x10;
+  private static final int CODE_OPPONENT_BIT = 0x20;
+  // bytes of the hash at the end of a delta that carries one
+  private static final int CHECKSUM_BYTES = 8;
+
+  private static final ObjectMapper mapper = new ObjectMapper();
+
+  private BinaryMessage() {
+  }
+
+  /**
+   * Returns the hello message offering the given protocols.
+   *
+   * @param protocols protocols the client speaks, most preferred first
+   * @return the message as Json text
+   */
+  public static String helloMessage(List<String> protocols) {
+    ArrayNode message = mapper.createArrayNode();
+    message.add(HELLO);
+    ArrayNode offered = message.addArray();
+    for (String protocol : protocols) {
+      offered.add(protocol);
+    }
+    return message.toString();
+  }
+
+  /**
+   * Is the given message a hello message?
+   *
+   * @param node message to check
+   * @return true if hello, false otherwise
+   */
+  public static boolean isHello(JsonNode node) {
+    return node.isArray()
+        && node.size() == 2
+        && node.get(0).asText().equals(HELLO)
+        && node.get(1).isArray();
+  }
+
+  /**
+   * Picks the protocol to speak in answer to a hello message: the first one offered that is
+   * supported, or Json if there is none.
+   *
+   * @param hello the hello message
+   * @param supported protocols the server speaks
+   * @return the protocol picked
+   */
+  public static String chooseProtocol(JsonNode hello, Collection<String> supported) {
+    for (JsonNode offered : hello.get(1)) {
+      if (supported.contains(offered.asText())) {
+        return offered.asText();
+      }
+    }
+    return JSON;
+  }
+
+  /**
+   * Returns the message telling the client which protocol was picked.
+   *
+   * @param protocol the protocol picked
+   * @return the message as Json text
+   */
+  public static String protocolMessage(String protocol) {
+    ArrayNode message = mapper.createArrayNode();
+    message.add(PROTOCOL);
+    message.add(protocol);
+    return message.toString();
+  }
+
+  /**
+   * Reads the protocol picked from the server's answer to a hello message. Anything other than
+   * a protocol message means Json.
+   *
+   * @param node the answer
+   * @return the protocol picked
+   */
+  public static String toProtocol(JsonNode node) {
+    if (node != null
+        && node.isArray()
+        && node.size() == 2
+        && node.get(0).asText().equals(PROTOCOL)) {
+      return node.get(1).asText();
+    }
+    return JSON;
+  }
+
+  /**
+   * Returns the kind of the given body, without consuming it.
+   *
+   * @param body body of a frame
+   * @return the kind of message
+   */
+  public static byte typeOf(ByteBuffer body) {
+    return body.get(body.position());
+  }
+
+  /**
+   * Returns a frame holding the given name, as the kind of message given: NAME, PLAYING_AS or
+   * OTHER.
+   *
+   * @param type kind of message
+   * @param name the name
+   * @return the frame
+   */
+  public static byte[] nameFrame(byte type, String name) {
+    byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer frame = start(type, bytes.length);
+    frame.put(bytes);
+    return frame.array();
+  }
+
+  /**
+   * Reads the name in a NAME, PLAYING_AS or OTHER body.
+   *
+   * @param body body of the frame
+   * @return the name
+   */
+  public static String toName(ByteBuffer body) {
+    byte type = body.get();
+    if (type != NAME && type != PLAYING_AS && type != OTHER) {
+      throw new IllegalArgumentException(String.format("%d is not a legal name message", type));
+    }
+    byte[] bytes = new byte[body.remaining()];
+    body.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Returns the placement frame listing the workers already on the board.
+   *
+   * @param board the current board
+   * @param playerName name of the player being asked
+   * @param opponentName name of their opponent
+   * @return the frame
+   */
+  public static byte[] placementFrame(IReadonlyBoard board, String playerName, String opponentName) {
+    List<Worker> workers = workers(board, playerName, opponentName);
+    ByteBuffer frame = start(PLACEMENT, 1 + workers.size());
+    putWorkers(frame, workers, playerName);
+    return frame.array();
+  }
+
+  /**
+   * Returns the take turn frame holding the current board.
+   *
+   * @param board the current board
+   * @param playerName name of the player being asked
+   * @param opponentName name of their opponent
+   * @return the frame
+   */
+  public static byte[] takeTurnFrame(IReadonlyBoard board, String playerName, String opponentName) {
+    List<Worker> workers = workers(board, playerName, opponentName);
+    ByteBuffer frame = start(TAKE_TURN, HEIGHT_BYTES + 1 + workers.size());
+    for (int cell = 0; cell < CELLS; cell += 2) {
+      int first = board.height(cell / COLUMNS, cell % COLUMNS);
+      int second = board.height((cell + 1) / COLUMNS, (cell + 1) % COLUMNS);
+      frame.put((byte) (first << 4 | second));
+    }
+    putWorkers(frame, workers, playerName);
+    return frame.array();
+  }
+
+  /**
+   * Builds the board held by a PLACEMENT or TAKE_TURN body. A placement board has no buildings.
+   *
+   * @param body body of the frame
+   * @param playerName name of the player being asked
+   * @param opponentName name of their opponent
+   * @return the board
+   */
+  public static IBoard toBoard(ByteBuffer body, String playerName, String opponentName) {
+    byte type = body.get();
+    if (type != PLACEMENT && type != TAKE_TURN) {
+      throw new IllegalArgumentException(String.format("%d is not a legal board message", type));
+    }
+
+    int[] heights = new int[CELLS];
+    if (type == TAKE_TURN) {
+      for (int cell = 0; cell < CELLS; cell += 2) {
+        int packed = body.get() & 0xFF;
+        heights[cell] = packed >>> 4;
+        heights[cell + 1] = packed & 0xF;
+      }
+    }
+
+    ICell[][] cells = new ICell[ROWS][COLUMNS];
+    for (int cell = 0; cell < CELLS; cell += 1) {
+      cells[cell / COLUMNS][cell % COLUMNS] = new Height(heights[cell]);
+    }
+
+    int count = body.get() & 0xFF;
+    for (int i = 0; i < count; i += 1) {
+      int worker = body.get() & 0xFF;
+      int cell = worker & CELL_MASK;
+      if (cell >= CELLS) {
+        throw new IllegalArgumentException(String.format("%d is not a legal cell", cell));
+      }
+      String name = (worker & OPPONENT_BIT) == 0 ? playerName : opponentName;
+      int number = (worker & WORKER_NUMBER_BIT) == 0 ? 1 : 2;
+      cells[cell / COLUMNS][cell % COLUMNS] = new BuildingWorker(name, number, heights[cell]);
+    }
+
+    return new Board(cells);
+  }
+
+  /**
+   * Returns the frame answering a placement message with the given placement.
+   *
+   * @param place the placement
+   * @return the frame
+   */
+  public static byte[] placeFrame(PlaceWorkerAction place) {
+    ByteBuffer frame = start(PLACE, 1);
+    frame.put((byte) cellOf(place.getRow(), place.getColumn()));
+    return frame.array();
+  }
+
+  /**
+   * Reads the placement in a PLACE body.
+   *
+   * @param body body of the frame
+   * @return the placement
+   */
+  public static PlaceWorkerAction toPlacement(ByteBuffer body) {
+    byte type = body.get();
+    if (type != PLACE) {
+      throw new IllegalArgumentException(String.format("%d is not a legal place message", type));
+    }
+    int cell = body.get() & 0xFF;
+    if (cell >= CELLS) {
+      throw new IllegalArgumentException(String.format("%d is not a legal cell", cell));
+    }
+    return new PlaceWorkerAction(cell / COLUMNS, cell % COLUMNS);
+  }
+
+  /**
+   * Returns the frame answering a take turn message with the given turn: a move and an optional
+   * build, or no actions to give up.
+   *
+   * @param turn the turn
+   * @return the frame
+   */
+  public static byte[] turnFrame(List<Action> turn) {
+    if (turn.isEmpty()) {
+      return start(GIVE_UP, 0).array();
+    }
+
+    Action move = turn.get(0);
+    int encoded = workerNumberOf(move.getWorkerId()) == 1 ? 0 : TURN_WORKER_BIT;
+    encoded |= indexOf(move.getDirection()) << MOVE_SHIFT;
+    if (turn.size() > 1) {
+      encoded |= indexOf(turn.get(1).getDirection()) << BUILD_SHIFT | HAS_BUILD_BIT;
+    }
+
+    ByteBuffer frame = start(TURN, 1);
+    frame.put((byte) encoded);
+    return frame.array();
+  }
+
+  /**
+   * Reads the turn in a TURN or GIVE_UP body.
+   *
+   * @param body body of the frame
+   * @param playerName name of the player whose turn it is
+   * @return a move and an optional build, or an empty list to give up
+   */
+  public static List<Action> toTurn(ByteBuffer body, String playerName) {
+    List<Action> turn = new ArrayList<>();
+    byte type = body.get();
+    if (type == GIVE_UP) {
+      return turn;
+    }
+    if (type != TURN) {
+      throw new IllegalArgumentException(String.format("%d is not a legal turn message", type));
+    }
+
+    int encoded = body.get() & 0xFF;
+    String workerId = playerName + ((encoded & TURN_WORKER_BIT) == 0 ? 1 : 2);
+    Direction move = Direction.fromIndex(encoded >>> MOVE_SHIFT & DIRECTION_MASK);
+    turn.add(new Action(ActionType.MOVE, workerId, move));
+    if ((encoded & HAS_BUILD_BIT) != 0) {
+      Direction build = Direction.fromIndex(encoded >>> BUILD_SHIFT & DIRECTION_MASK);
+      turn.add(new Action(ActionType.BUILD, workerId, build));
+    }
+    return turn;
+  }
+
+  /**
+   * Returns the code of every cell of the given board, row-major, for comparing boards sent.
+   *
+   * @param board the board
+   * @param playerName name of the player being asked, other workers are their opponent's
+   * @return one code per cell
+   */
+  public static byte[] cellCodes(IReadonlyBoard board, String playerName) {
+    byte[] codes = new byte[CELLS];
+    for (int cell = 0; cell < CELLS; cell += 1) {
+      ICell cellAt = board.getCell(cell / COLUMNS, cell % COLUMNS);
+      int code = cellAt.getHeight();
+      if (cellAt.isWorker()) {
+        int number = cellAt.getWorkerNumber();
+        if (number != 1 && number != 2) {
+          throw new IllegalArgumentException(String.format("%d is not a legal worker number", number));
+        }
+        code |= CODE_WORKER_BIT;
+        code |= number == 1 ? 0 : CODE_NUMBER_BIT;
+        code |= cellAt.getPlayerName().equals(playerName) ? 0 : CODE_OPPONENT_BIT;
+      }
+      codes[cell] = (byte) code;
+    }
+    return codes;
+  }
+
+  /**
+   * Returns the delta frame listing the cells whose codes changed.
+   *
+   * @param previous codes of the board sent last
+   * @param current codes of the board to send
+   * @param checksum the board's hash, or null to send none
+   * @return the frame
+   */
+  public static byte[] deltaFrame(byte[] previous, byte[] current, Long checksum) {
+    int changed = 0;
+    for (int cell = 0; cell < CELLS; cell += 1) {
+      if (previous[cell] != current[cell]) {
+        changed += 1;
+      }
+    }
+
+    ByteBuffer frame = start(TURN_DELTA, 1 + 2 * changed + (checksum == null ? 0 : CHECKSUM_BYTES));
+    frame.put((byte) changed);
+    for (int cell = 0; cell < CELLS; cell += 1) {
+      if (previous[cell] != current[cell]) {
+        frame.put((byte) cell);
+        frame.put(current[cell]);
+      }
+    }
+    if (checksum != null) {
+      frame.putLong(checksum);
+    }
+    return frame.array();
+  }
+
+  /**
+   * Applies the cells listed in a TURN_DELTA body to the given grid.
+   *
+   * @param body body of the frame
+   * @param cells grid to update, row-major
+   * @param playerName name of the player being asked
+   * @param opponentName name of their opponent
+   * @return the board's hash if the delta carries one, or null
+   */
+  public static Long applyDelta(ByteBuffer body, ICell[][] cells, String playerName, String opponentName) {
+    byte type = body.get();
+    if (type != TURN_DELTA) {
+      throw new IllegalArgumentException(String.format("%d is not a legal delta message", type));
+    }
+
+    int count = body.get() & 0xFF;
+    for (int i = 0; i < count; i += 1) {
+      int cell = body.get() & 0xFF;
+      if (cell >= CELLS) {
+        throw new IllegalArgumentException(String.format("%d is not a legal cell", cell));
+      }
+      cells[cell / COLUMNS][cell % COLUMNS] = toCell(body.get(), playerName, opponentName);
+    }
+    return body.remaining() >= CHECKSUM_BYTES ? body.getLong() : null;
+  }
+
+  /**
+   * Returns the frame asking for the whole board, sent in answer to a delta that does not match.
+   *
+   * @return the frame
+   */
+  public static byte[] resyncFrame() {
+    return start(RESYNC, 0).array();
+  }
+
+  /**
+   * Returns the inform frame listing the results of a tournament. Each result is a flag byte,
+   * set if the loser cheated, then the winner's and loser's names each after a length byte.
+   *
+   * @param tournamentResults the list of game results of the tournament
+   * @return the frame
+   */
+  public static byte[] informFrame(List<GameResult> tournamentResults) {
+    List<byte[]> names = new ArrayList<>();
+    int length = 4;
+    for (GameResult result : tournamentResults) {
+      byte[] winner = nameBytes(result.getWinner().getPlayerName());
+      byte[] loser = nameBytes(result.getLoser().getPlayerName());
+      names.add(winner);
+      names.add(loser);
+      length += 3 + winner.length + loser.length;
+    }
+
+    ByteBuffer frame = start(INFORM, length);
+    frame.putInt(tournamentResults.size());
+    for (int i = 0; i < tournamentResults.size(); i += 1) {
+      frame.put((byte) (tournamentResults.get(i).didLoserCheat() ? 1 : 0));
+      for (byte[] name : names.subList(2 * i, 2 * i + 2)) {
+        frame.put((byte) name.length);
+        frame.put(name);
+      }
+    }
+    return frame.array();
+  }
+
+  private static ICell toCell(byte code, String playerName, String opponentName) {
+    int height = code & HEIGHT_MASK;
+    if ((code & CODE_WORKER_BIT) == 0) {
+      return new Height(height);
+    }
+    String name = (code & CODE_OPPONENT_BIT) == 0 ? playerName : opponentName;
+    return new BuildingWorker(name, (code & CODE_NUMBER_BIT) == 0 ? 1 : 2, height);
+  }
+
+  // Allocates a frame for a body of the given kind with the given number of bytes after the kind
+  private static ByteBuffer start(byte type, int length) {
+    ByteBuffer frame = ByteBuffer.allocate(LENGTH_BYTES + 1 + length);
+    frame.putInt(1 + length);
+    frame.put(type);
+    return frame;
+  }
+
+  // Lists the player's workers, then their opponent's
+  private static List<Worker> workers(IReadonlyBoard board, String playerName, String opponentName) {
+    List<Worker> workers = new ArrayList<>(board.getPlayerWorkers(playerName));
+    if (opponentName != null && !opponentName.equals(playerName)) {
+      workers.addAll(board.getPlayerWorkers(opponentName));
+    }
+    return workers;
+  }
+
+  private static void putWorkers(ByteBuffer frame, List<Worker> workers, String playerName) {
+    frame.put((byte) workers.size());
+    for (Worker worker : workers) {
+      int number = worker.getWorkerNumber();
+      if (number != 1 && number != 2) {
+        throw new IllegalArgumentException(String.format("%d is not a legal worker number", number));
+      }
+      int encoded = cellOf(worker.getRow(), worker.getColumn());
+      encoded |= number == 1 ? 0 : WORKER_NUMBER_BIT;
+      encoded |= worker.getPlayerName().equals(playerName) ? 0 : OPPONENT_BIT;
+      frame.put((byte) encoded);
+    }
+  }
+
+  private static int cellOf(int row, int column) {
+    if (row < 0 || row >= ROWS || column < 0 || column >= COLUMNS) {
+      throw new IllegalArgumentException(String.format("%d, %d is not a legal cell", row, column));
+    }
+    return row * COLUMNS + column;
+  }
+
+  private static int workerNumberOf(String workerId) {
+    int number = workerId.charAt(workerId.length() - 1) - '0';
+    if (number != 1 && number != 2) {
+      throw new IllegalArgumentException(String.format("%d is not a legal worker number", number));
+    }
+    return number;
+  }
+
+  private static int indexOf(Direction direction) {
+    int index = direction.getIndex();
+    if (index == Direction.NO_INDEX) {
+      throw new IllegalArgumentException(String.format("%d is not a legal direction", index));
+    }
+    return index;
+  }
+
+  private static byte[] nameBytes(String name) {
+    byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length > MAX_NAME_BYTES) {
+      throw new IllegalArgumentException(String.format("%d is not a legal name length", bytes.length));
+    }
+    return bytes;
+  }
+}
@@ -0,0 +1,62 @@
+package protocol;
+
+import common.board.Board;
+import common.board.IBoard;
+import common.board.ICell;
+import java.nio.ByteBuffer;
+
+/**
+ * Keeps a client's board in sync with the take turn messages of the delta protocol, see
+ * DeltaEncoder. The cells are kept between turns, so a delta only replaces the cells it lists
+ * instead of the whole board being read again. Cells are never changed once made, boards replace
+ * them, so the grid can be shared with the boards handed out.
+ */
+public class DeltaDecoder {
+
+  private static final int ROWS = 6;
+  private static final int COLUMNS = 6;
+
+  // cells of the board last received, or null if there is none to apply a delta to
+  private ICell[][] cells;
+
+  /**
+   * Builds the board held by a TAKE_TURN or TURN_DELTA body.
+   *
+   * @param body body of the frame
+   * @param playerName name of the player being asked
+   * @param opponentName name of their opponent
+   * @return the board, or null if the delta cannot be applied or its hash does not match, in
+   *     which case the client should answer with a resync message
+   */
+  public IBoard toBoard(ByteBuffer body, String playerName, String opponentName) {
+    if (BinaryMessage.typeOf(body) == BinaryMessage.TAKE_TURN) {
+      IBoard board = BinaryMessage.toBoard(body, playerName, opponentName);
+      cells = new ICell[ROWS][COLUMNS];
+      for (int row = 0; row < ROWS; row += 1) {
+        for (int column = 0; column < COLUMNS; column += 1) {
+          cells[row][column] = board.getCell(row, column);
+        }
+      }
+      return board;
+    }
+
+    if (cells == null) {
+      return null;
+    }
+    Long checksum = BinaryMessage.applyDelta(body, cells, playerName, opponentName);
+    IBoard board = new Board(cells);
+    if (checksum != null && checksum != board.getHash()) {
+      reset();
+      return null;
+    }
+    return board;
+  }
+
+  /**
+   * Forgets the board, so the next one must be sent whole. Called when a game starts and when
+   * either name changes, like DeltaEncoder.reset.
+   */
+  public void reset() {
+    cells = null;
+  }
+}
@@ -0,0 +1,54 @@
+package protocol;
+
+import common.board.IReadonlyBoard;
+
+/**
+ * Builds the take turn messages of the delta protocol for one player. Remembers the board last
+ * sent to them, so a turn only sends the cells that changed since, which are the cells of the
+ * player's last turn and their opponent's. The first board of a game is sent whole.
+ *
+ * Every CHECKSUM_INTERVAL-th delta also carries the board's hash, so a client whose board drifted
+ * finds out within a few turns and asks for the whole board again.
+ */
+public class DeltaEncoder {
+
+  // number of deltas sent for each one carrying the board's hash
+  public static final int CHECKSUM_INTERVAL = 8;
+
+  // codes of the board last sent, or null if the next board must be sent whole
+  private byte[] lastSent;
+  // deltas sent since the last board sent whole
+  private int deltas;
+
+  /**
+   * Returns the take turn frame for the given board: the whole board if the player has none to
+   * compare it to, or the cells that changed otherwise.
+   *
+   * @param board the current board
+   * @param playerName name of the player being asked
+   * @param opponentName name of their opponent
+   * @return the frame
+   */
+  public byte[] takeTurnFrame(IReadonlyBoard board, String playerName, String opponentName) {
+    byte[] codes = BinaryMessage.cellCodes(board, playerName);
+    byte[] frame;
+    if (lastSent == null) {
+      frame = BinaryMessage.takeTurnFrame(board, playerName, opponentName);
+      deltas = 0;
+    } else {
+      deltas += 1;
+      Long checksum = deltas % CHECKSUM_INTERVAL == 0 ? board.getHash() : null;
+      frame = BinaryMessage.deltaFrame(lastSent, codes, checksum);
+    }
+    lastSent = codes;
+    return frame;
+  }
+
+  /**
+   * Forgets the board last sent, so the next one is sent whole. Called when a game starts, when
+   * either name changes, and when the player asks to resync.
+   */
+  public void reset() {
+    lastSent = null;
+  }
+}
@@ -0,0 +1,56 @@
+package server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import protocol.BinaryMessage;
+
+/**
+ * Splits a stream of bytes into the bodies of the binary protocol's frames, each sent after its
+ * length, so messages can be read as they arrive. See BinaryMessage.
+ */
+class BinaryFramer {
+
+  private byte[] buffer = new byte[64];
+  // number of bytes in the buffer
+  private int length;
+
+  /**
+   * Adds the remaining bytes of the given buffer, and returns the body of every frame they
+   * complete.
+   *
+   * @param bytes bytes read from the connection
+   * @return the completed bodies, in order, possibly none
+   * @throws IOException if a frame is empty or longer than JsonFramer.MAX_FRAME_BYTES
+   */
+  List<ByteBuffer> feed(ByteBuffer bytes) throws IOException {
+    if (length + bytes.remaining() > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + bytes.remaining()));
+    }
+    int count = bytes.remaining();
+    bytes.get(buffer, length, count);
+    length += count;
+
+    List<ByteBuffer> bodies = new ArrayList<>();
+    int start = 0;
+    while (length - start >= BinaryMessage.LENGTH_BYTES) {
+      int bodyLength = ByteBuffer.wrap(buffer, start, BinaryMessage.LENGTH_BYTES).getInt();
+      if (bodyLength < 1 || bodyLength > JsonFramer.MAX_FRAME_BYTES) {
+        throw new IOException(String.format("%d is not a legal message length", bodyLength));
+      }
+      int end = start + BinaryMessage.LENGTH_BYTES + bodyLength;
+      if (end > length) {
+        break;
+      }
+      bodies.add(ByteBuffer.wrap(Arrays.copyOfRange(buffer, start + BinaryMessage.LENGTH_BYTES, end)));
+      start = end;
+    }
+
+    // Drops the bytes of completed frames from the front of the buffer
+    System.arraycopy(buffer, start, buffer, 0, length - start);
+    length -= start;
+    return bodies;
+  }
+}
@@ -0,0 +1,200 @@
+package server;
+
+import admin.result.GameResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import common.board.IReadonlyBoard;
+import common.data.Action;
+import common.data.PlaceWorkerAction;
+import common.exceptions.PlayerFailedException;
+import common.interfaces.IPlayer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import protocol.BinaryMessage;
+import protocol.DeltaEncoder;
+
+/**
+ * Remote player proxy for a connection to a SelectorServer. Sends the same messages as
+ * RemotePlayer, but every reply is a request with a deadline, so a player who does not reply or
+ * disconnects makes the call throw a PlayerFailedException once the deadline passes instead of
+ * holding a thread forever.
+ *
+ * A player who starts with a hello message instead of their name can ask for the binary protocol,
+ * or the delta protocol which only sends the cells that changed each turn, see BinaryMessage.
+ * Otherwise they are spoken to in Json.
+ */
+public class ChannelPlayer implements IPlayer {
+
+  // Longest time to wait for a reply by default, matching the referee's timeout
+  public static final long DEFAULT_TIMEOUT_MILLIS = 2000;
+  // Protocols a player can ask for
+  private static final List<String> PROTOCOLS = Arrays.asList(BinaryMessage.DELTA, BinaryMessage.BINARY, BinaryMessage.JSON);
+
+  private final PlayerConnection connection;
+  private final long timeoutMillis;
+  // whether the player asked for the binary protocol, known once their name has been read
+  private boolean binary;
+  // set if the player asked for the delta protocol
+  private DeltaEncoder deltas;
+
+  private Optional<String> name = Optional.empty();
+  private String opponentName;
+
+  public ChannelPlayer(PlayerConnection connection) {
+    this(connection, DEFAULT_TIMEOUT_MILLIS);
+  }
+
+  /**
+   * Creates a player that waits at most the given time for each reply.
+   *
+   * @param connection connection to the player
+   * @param timeoutMillis longest time to wait for a reply, more than 0
+   */
+  public ChannelPlayer(PlayerConnection connection, long timeoutMillis) {
+    if (timeoutMillis <= 0) {
+      throw new IllegalArgumentException(String.format("%d is not a legal timeout", timeoutMillis));
+    }
+    this.connection = connection;
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  @Override
+  public PlaceWorkerAction getPlaceWorker(IReadonlyBoard b) {
+    if (deltas != null) {
+      // A new game, its first board is sent whole
+      deltas.reset();
+    }
+    if (binary) {
+      return BinaryMessage.toPlacement(requestFrame(BinaryMessage.placementFrame(b, name.get(), opponentName)));
+    }
+    return Message.toPlacement(request(Message.workerPlacementMessage(b, name.get(), opponentName)));
+  }
+
+  @Override
+  public List<Action> getTurn(IReadonlyBoard b) {
+    if (deltas != null) {
+      ByteBuffer reply = requestFrame(deltas.takeTurnFrame(b, name.get(), opponentName));
+      if (BinaryMessage.typeOf(reply) == BinaryMessage.RESYNC) {
+        deltas.reset();
+        reply = requestFrame(deltas.takeTurnFrame(b, name.get(), opponentName));
+      }
+      return BinaryMessage.toTurn(reply, name.get());
+    }
+    if (binary) {
+      return BinaryMessage.toTurn(requestFrame(BinaryMessage.takeTurnFrame(b, name.get(), opponentName)), name.get());
+    }
+    return Message.toTurn(request(Message.takeTurnMessage(b)));
+  }
+
+  @Override
+  public String getPlayerName() {
+    if (name.isPresent()) {
+      return name.get();
+    }
+
+    // The player sends their name as soon as they connect, unless they say hello first
+    JsonNode nameNode = request(null);
+    if (BinaryMessage.isHello(nameNode)) {
+      String protocol = BinaryMessage.chooseProtocol(nameNode, PROTOCOLS);
+      if (protocol.equals(BinaryMessage.BINARY) || protocol.equals(BinaryMessage.DELTA)) {
+        connection.useBinary(BinaryMessage.protocolMessage(protocol));
+        this.binary = true;
+        if (protocol.equals(BinaryMessage.DELTA)) {
+          this.deltas = new DeltaEncoder();
+        }
+        this.name = Optional.of(BinaryMessage.toName(requestFrame(null)));
+        return name.get();
+      }
+      connection.send(BinaryMessage.protocolMessage(protocol));
+      nameNode = request(null);
+    }
+    if (!nameNode.isTextual()) {
+      throw new PlayerFailedException(String.format("%s is not a legal name", nameNode));
+    }
+    this.name = Optional.of(nameNode.asText());
+    return name.get();
+  }
+
+  @Override
+  public void setPlayerName(String newName) {
+    this.name = Optional.of(newName);
+
+    if (deltas != null) {
+      deltas.reset();
+    }
+    if (binary) {
+      connection.sendFrame(BinaryMessage.nameFrame(BinaryMessage.PLAYING_AS, newName));
+    } else {
+      connection.send(Message.playingAsMessage(newName));
+    }
+  }
+
+  @Override
+  public void setOpponentName(String opponentName) {
+    this.opponentName = opponentName;
+
+    if (deltas != null) {
+      deltas.reset();
+    }
+    if (binary) {
+      connection.sendFrame(BinaryMessage.nameFrame(BinaryMessage.OTHER, opponentName));
+    } else {
+      connection.send(Message.otherMessage(opponentName));
+    }
+  }
+
+  /**
+   * Informs the player of the results of the tournament.
+   *
+   * @param results List of game results
+   */
+  public void inform(List<GameResult> results) {
+    if (binary) {
+      connection.sendFrame(BinaryMessage.informFrame(results));
+    } else {
+      connection.send(Message.informMessage(results));
+    }
+  }
+
+  // returns the connection to this player
+  public PlayerConnection getConnection() {
+    return connection;
+  }
+
+  /**
+   * Sends the given message and waits for the reply.
+   *
+   * @param message Json text of the message, or null to wait for the player's next message
+   * @return the reply
+   * @throws PlayerFailedException if the player does not reply in time or disconnects
+   */
+  private JsonNode request(String message) {
+    return await(connection.request(message, timeoutMillis, TimeUnit.MILLISECONDS));
+  }
+
+  /**
+   * Sends the given binary frame and waits for the reply.
+   *
+   * @param frame the frame, or null to wait for the player's next message
+   * @return the body of the reply
+   * @throws PlayerFailedException if the player does not reply in time or disconnects
+   */
+  private ByteBuffer requestFrame(byte[] frame) {
+    return await(connection.requestFrame(frame, timeoutMillis, TimeUnit.MILLISECONDS));
+  }
+
+  private static <T> T await(CompletableFuture<T> reply) {
+    try {
+      return reply.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new PlayerFailedException("Interrupted waiting for reply", e);
+    } catch (ExecutionException e) {
+      throw new PlayerFailedException("No reply from player", e.getCause());
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splits a stream of bytes into the JSON texts it holds, so messages can be read as they arrive
+ * without a blocking parser per connection.
+ *
+ * Arrays, objects and strings end at their closing character. Numbers and literals such as true
+ * end at the next whitespace or structural character, so one sent last is only framed once
+ * something follows it; the protocol ends every message with a newline. Only the framing is
+ * checked, a frame can still fail to parse.
+ */
+class JsonFramer {
+
+  // Longest frame accepted, no message of the protocol comes close
+  static final int MAX_FRAME_BYTES = 1 << 16;
+
+  private byte[] buffer = new byte[256];
+  // number of bytes in the buffer, and number of them scanned
+  private int length;
+  private int scanned;
+
+  // start of the frame being scanned, or -1 between frames
+  private int start = -1;
+  private int depth;
+  private boolean inString;
+  private boolean escaped;
+
+  /**
+   * Adds the remaining bytes of the given buffer, and returns every frame they complete.
+   *
+   * @param bytes bytes read from the connection
+   * @return the completed frames, in order, possibly none
+   * @throws IOException if a frame grows longer than MAX_FRAME_BYTES
+   */
+  List<String> feed(ByteBuffer bytes) throws IOException {
+    if (length + bytes.remaining() > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + bytes.remaining()));
+    }
+    int count = bytes.remaining();
+    bytes.get(buffer, length, count);
+    length += count;
+
+    List<String> frames = new ArrayList<>();
+    for (; scanned < length; scanned += 1) {
+      scan(buffer[scanned], frames);
+    }
+
+    compact();
+    if (start >= 0 && length > MAX_FRAME_BYTES) {
+      throw new IOException(String.format("Message longer than %d bytes", MAX_FRAME_BYTES));
+    }
+    return frames;
+  }
+
+  private void scan(byte b, List<String> frames) {
+    if (start < 0) {
+      if (!isWhitespace(b)) {
+        start = scanned;
+        begin(b, frames);
+      }
+    } else if (inString) {
+      if (escaped) {
+        escaped = false;
+      } else if (b == '\\') {
+        escaped = true;
+      } else if (b == '"') {
+        inString = false;
+        if (depth == 0) {
+          endFrame(scanned + 1, frames);
+        }
+      }
+    } else if (depth == 0) {
+      // A number or literal, which ends at whatever follows it
+      if (isWhitespace(b) || isStructural(b)) {
+        endFrame(scanned, frames);
+        scan(b, frames);
+      }
+    } else if (b == '"') {
+      inString = true;
+    } else if (b == '[' || b == '{') {
+      depth += 1;
+    } else if (b == ']' || b == '}') {
+      depth -= 1;
+      if (depth == 0) {
+        endFrame(scanned + 1, frames);
+      }
+    }
+  }
+
+  // Starts a frame with its first byte
+  private void begin(byte b, List<String> frames) {
+    if (b == '"') {
+      inString = true;
+    } else if (b == '[' || b == '{') {
+      depth = 1;
+    } else if (b == ']' || b == '}' || b == ',' || b == ':') {
+      // Cannot start a JSON text, pass it on alone for the parser to reject
+      endFrame(scanned + 1, frames);
+    }
+  }
+
+  private void endFrame(int end, List<String> frames) {
+    frames.add(new String(buffer, start, end - start, StandardCharsets.UTF_8));
+    start = -1;
+    depth = 0;
+    inString = false;
+    escaped = false;
+  }
+
+  // Drops the bytes of completed frames from the front of the buffer
+  private void compact() {
+    int keep = start < 0 ? length : start;
+    if (keep > 0) {
+      System.arraycopy(buffer, keep, buffer, 0, length - keep);
+      length -= keep;
+      scanned -= keep;
+      if (start >= 0) {
+        start -= keep;
+      }
+    }
+  }
+
+  private static boolean isWhitespace(byte b) {
+    return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+  }
+
+  private static boolean isStructural(byte b) {
+    return b == '[' || b == ']' || b == '{' || b == '}' || b == ',' || b == ':' || b == '"';
+  }
+}
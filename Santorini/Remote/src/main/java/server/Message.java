@@ -14,6 +14,7 @@ import common.data.ActionType;
 import common.data.Direction;
 import common.data.PlaceWorkerAction;
 import common.data.Worker;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.io.Reader;
@@ -31,11 +32,21 @@ public class Message {
 
    */
   public static void playingAs(PrintStream out, String name) {
+    out.println(playingAsMessage(name));
+  }
+
+  /**
+   * Returns the playing as message telling a player the given name is theirs.
+   *
+   * @param name the new name of the player
+   * @return the message as Json text
+   */
+  public static String playingAsMessage(String name) {
     ArrayNode message = mapper.createArrayNode();
     message.add("playing-as");
     message.add(name);
 
-    out.println(message);
+    return message.toString();
   }
 
   /**
@@ -46,14 +57,22 @@ public class Message {
 
    */
   public static void other(PrintStream out, String name) {
-    String message;
+    out.println(otherMessage(name));
+  }
+
+  /**
+   * Returns the other message telling a player the name of their opponent.
+   *
+   * @param name the name of the opponent
+   * @return the message as Json text
+   */
+  public static String otherMessage(String name) {
     try {
-      message = mapper.writeValueAsString(name);
+      return mapper.writeValueAsString(name);
     } catch (JsonProcessingException e) {
       // If there is an error processing the Json, do it manually.
-      message = "\"" + name + "\"";
+      return "\"" + name + "\"";
     }
-    out.println(message);
   }
 
   /**
@@ -67,6 +86,20 @@ public class Message {
    * @param p2Name the name of player 2
    */
   public static PlaceWorkerAction workerPlacement(Reader in, PrintStream out, IReadonlyBoard board, String p1Name, String p2Name) throws IOException {
+    out.println(workerPlacementMessage(board, p1Name, p2Name));
+
+    return place(in);
+  }
+
+  /**
+   * Returns the placement message listing the workers already on the board.
+   *
+   * @param board the current board
+   * @param p1Name the name of player 1
+   * @param p2Name the name of player 2
+   * @return the message as Json text
+   */
+  public static String workerPlacementMessage(IReadonlyBoard board, String p1Name, String p2Name) {
     ArrayNode message = mapper.createArrayNode();
     List<Worker> workers = new ArrayList<Worker>();
     workers.addAll(board.getPlayerWorkers(p1Name));
@@ -79,9 +112,7 @@ public class Message {
       workerPlace.add(w.getColumn());
       message.add(workerPlace);
     }
-    out.println(message.toString());
-
-    return place(in);
+    return message.toString();
   }
 
 
@@ -95,10 +126,16 @@ public class Message {
    * @throws IOException throw an exception if the input unexpectedly closes
    */
   private static PlaceWorkerAction place(Reader reader) throws IOException {
-    JsonParser parser = new JsonFactory().createParser(reader);
-
+    return toPlacement(readReply(reader));
+  }
 
-    ArrayNode node = mapper.readTree(parser);
+  /**
+   * Translates a player's reply to a placement message into a placement.
+   *
+   * @param node the reply
+   * @return a PlaceWorkerAction representing the desired location for the worker to be placed
+   */
+  public static PlaceWorkerAction toPlacement(JsonNode node) {
     int row = node.get(0).asInt();
     int col = node.get(1).asInt();
 
@@ -119,6 +156,17 @@ public class Message {
    * @throws IOException if the stream unexpectedly closes
    */
   public static List<Action> takeTurn(Reader in, PrintStream out, IReadonlyBoard board) throws IOException {
+    out.println(takeTurnMessage(board));
+    return getTurn(in);
+  }
+
+  /**
+   * Returns the take turn message holding the current board.
+   *
+   * @param board the current board
+   * @return the message as Json text
+   */
+  public static String takeTurnMessage(IReadonlyBoard board) {
     ArrayNode message = mapper.createArrayNode();
     for(int row = 0; row < board.getMaxRows(); row++) {
       ArrayNode singleColumn = mapper.createArrayNode();
@@ -127,8 +175,7 @@ public class Message {
       }
       message.add(singleColumn);
     }
-    out.println(message.toString());
-    return getTurn(in);
+    return message.toString();
   }
 
 
@@ -142,21 +189,45 @@ public class Message {
    * @throws IOException if the stream unexpectedly closes
    */
   private static List<Action> getTurn(Reader reader) throws IOException {
+    return toTurn(readReply(reader));
+  }
+
+  /**
+   * Reads the next reply from the client.
+   *
+   * @param reader the input stream from the client
+   * @return the reply
+   * @throws IOException if the stream unexpectedly closes
+   */
+  private static JsonNode readReply(Reader reader) throws IOException {
     JsonParser parser = new JsonFactory().createParser(reader);
-    List<Action> turn = new ArrayList<>();
     JsonNode node = mapper.readTree(parser);
+    if (node == null) {
+      throw new EOFException("Connection closed before reply");
+    }
+    return node;
+  }
+
+  /**
+   * Translates a player's reply to a take turn message into a turn.
+   *
+   * @param node the reply
+   * @return a list of actions representing a move request, can also be a give up request
+   */
+  public static List<Action> toTurn(JsonNode node) {
+    List<Action> turn = new ArrayList<>();
     if(!node.isArray()) {
       // For a give up action, return an empty list
       return turn;
     }
     String workerName = node.get(0).asText();
-    Direction d1 = new Direction(node.get(1).asText(), node.get(2).asText());
+    Direction d1 = Direction.of(node.get(1).asText(), node.get(2).asText());
     Action move = new Action(ActionType.MOVE, workerName, d1);
     turn.add(move);
     if(node.size() == 3) {
      return turn;
     } else if(node.size() == 5) {
-      Direction d2 = new Direction(node.get(3).asText(), node.get(4).asText());
+      Direction d2 = Direction.of(node.get(3).asText(), node.get(4).asText());
       Action build = new Action(ActionType.BUILD, workerName, d2);
       turn.add(build);
     } else {
@@ -172,6 +243,16 @@ public class Message {
    * @param tournamentResults the list of game results of the tournament
    */
   public static void inform(PrintStream out, List<GameResult> tournamentResults) {
+    out.println(informMessage(tournamentResults));
+  }
+
+  /**
+   * Returns the inform message listing the results of a tournament.
+   *
+   * @param tournamentResults the list of game results of the tournament
+   * @return the message as Json text
+   */
+  public static String informMessage(List<GameResult> tournamentResults) {
     ArrayNode message = mapper.createArrayNode();
     for(GameResult result : tournamentResults) {
       ArrayNode message2 = mapper.createArrayNode();
@@ -182,6 +263,6 @@ public class Message {
       }
       message.add(message2);
     }
-    out.println(message.toString());
+    return message.toString();
   }
 }
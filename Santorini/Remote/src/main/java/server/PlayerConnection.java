@@ -0,0 +1,288 @@
+package server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A player's connection to a SelectorServer. Messages are sent and replies read by the server's
+ * selector threads, so no thread waits on the connection: each request returns a future that
+ * completes with the reply, or fails once its deadline passes or the connection closes.
+ *
+ * Replies are matched to requests in order. Messages the player sends before they are asked for,
+ * like their name, are kept for the next request. A reply that arrives after its request timed out
+ * is dropped, so it is not taken as the reply to a later request.
+ *
+ * Messages are Json until useBinary is called, and frames of the binary protocol after, see
+ * BinaryMessage.
+ *
+ * Every field is only used on the connection's selector thread.
+ */
+public class PlayerConnection {
+
+  private static final ObjectMapper mapper = new ObjectMapper();
+  private static final int READ_BUFFER_BYTES = 4096;
+
+  private final SocketChannel channel;
+  private final SelectorServer.SelectorLoop loop;
+  private SelectionKey key;
+
+  private final JsonFramer framer = new JsonFramer();
+  // set once the connection speaks the binary protocol
+  private BinaryFramer binaryFramer;
+  private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+  private final Deque<ByteBuffer> writes = new ArrayDeque<>();
+  // messages received before they were asked for
+  private final Deque<Object> inbox = new ArrayDeque<>();
+  // requests waiting for a reply, oldest first
+  private final Deque<Request> waiting = new ArrayDeque<>();
+  // replies still owed to requests that timed out
+  private int lateReplies;
+  private boolean closeWhenWritten;
+  private boolean closed;
+
+  PlayerConnection(SocketChannel channel, SelectorServer.SelectorLoop loop) {
+    this.channel = channel;
+    this.loop = loop;
+  }
+
+  /**
+   * Sends the given message, one that expects no reply.
+   *
+   * @param message Json text of the message
+   */
+  public void send(String message) {
+    loop.execute(() -> write(message));
+  }
+
+  /**
+   * Sends the given binary frame, one that expects no reply.
+   *
+   * @param frame the frame, length included
+   */
+  public void sendFrame(byte[] frame) {
+    loop.execute(() -> write(frame));
+  }
+
+  /**
+   * Sends the given message and returns the player's reply as a future.
+   *
+   * @param message Json text of the message, or null to only wait for the player's next message
+   * @param timeout longest time to wait for the reply
+   * @param unit unit of the timeout
+   * @return future completed with the reply, or failed with a SocketTimeoutException if the
+   *     timeout passes first, or another IOException if the connection closes first
+   */
+  public CompletableFuture<JsonNode> request(String message, long timeout, TimeUnit unit) {
+    return enqueue(message == null ? null : () -> write(message), timeout, unit).thenApply(JsonNode.class::cast);
+  }
+
+  /**
+   * Sends the given binary frame and returns the body of the player's reply as a future. Only
+   * for a connection that speaks the binary protocol.
+   *
+   * @param frame the frame, length included, or null to only wait for the player's next message
+   * @param timeout longest time to wait for the reply
+   * @param unit unit of the timeout
+   * @return future completed with the body of the reply, or failed like request
+   */
+  public CompletableFuture<ByteBuffer> requestFrame(byte[] frame, long timeout, TimeUnit unit) {
+    return enqueue(frame == null ? null : () -> write(frame), timeout, unit).thenApply(ByteBuffer.class::cast);
+  }
+
+  /**
+   * Sends the given message, the last one in Json, and switches the connection to the binary
+   * protocol: whatever the player sends after the messages read so far is read as binary frames.
+   *
+   * @param message Json text of the message
+   */
+  public void useBinary(String message) {
+    loop.execute(() -> {
+      write(message);
+      binaryFramer = new BinaryFramer();
+    });
+  }
+
+  private CompletableFuture<Object> enqueue(Runnable write, long timeout, TimeUnit unit) {
+    Request request = new Request(System.nanoTime() + unit.toNanos(timeout));
+    loop.execute(() -> {
+      if (write != null) {
+        write.run();
+      }
+      if (closed) {
+        request.future.completeExceptionally(new IOException("Connection closed"));
+      } else if (!inbox.isEmpty()) {
+        request.future.complete(inbox.poll());
+      } else {
+        waiting.add(request);
+        loop.schedule(this, request);
+      }
+    });
+    return request.future;
+  }
+
+  /**
+   * Closes the connection once every message sent has been written, failing every request
+   * waiting for a reply.
+   */
+  public void close() {
+    loop.execute(() -> {
+      closeWhenWritten = true;
+      if (writes.isEmpty()) {
+        closeNow();
+      }
+    });
+  }
+
+  // Called once the channel is registered with the loop's selector
+  void registered(SelectionKey key) {
+    this.key = key;
+  }
+
+  private void write(String message) {
+    write((message + "\n").getBytes(StandardCharsets.UTF_8));
+  }
+
+  private void write(byte[] bytes) {
+    if (closed) {
+      return;
+    }
+    writes.add(ByteBuffer.wrap(bytes));
+    flushWrites();
+  }
+
+  /**
+   * Writes as much as the channel takes, and asks the selector to say when it can take more.
+   */
+  void flushWrites() {
+    try {
+      while (!writes.isEmpty()) {
+        ByteBuffer next = writes.peek();
+        channel.write(next);
+        if (next.hasRemaining()) {
+          break;
+        }
+        writes.poll();
+      }
+    } catch (IOException e) {
+      closeNow();
+      return;
+    }
+
+    if (closeWhenWritten && writes.isEmpty()) {
+      closeNow();
+      return;
+    }
+    int ops = writes.isEmpty() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE;
+    if (key.interestOps() != ops) {
+      key.interestOps(ops);
+    }
+  }
+
+  /**
+   * Reads what has arrived on the channel and hands every complete message to its request.
+   */
+  void read() {
+    List<String> frames;
+    try {
+      readBuffer.clear();
+      if (channel.read(readBuffer) < 0) {
+        closeNow();
+        return;
+      }
+      readBuffer.flip();
+      if (binaryFramer != null) {
+        for (ByteBuffer body : binaryFramer.feed(readBuffer)) {
+          receive(body);
+        }
+        return;
+      }
+      frames = framer.feed(readBuffer);
+    } catch (IOException e) {
+      closeNow();
+      return;
+    }
+
+    for (String frame : frames) {
+      JsonNode message;
+      try {
+        message = mapper.readTree(frame);
+      } catch (IOException e) {
+        // A player sending something other than Json cannot be understood again
+        closeNow();
+        return;
+      }
+      receive(message);
+    }
+  }
+
+  private void receive(Object message) {
+    if (lateReplies > 0) {
+      lateReplies -= 1;
+      return;
+    }
+
+    Request request = waiting.poll();
+    if (request == null) {
+      inbox.add(message);
+    } else {
+      request.future.complete(message);
+    }
+  }
+
+  /**
+   * Fails the given request if it is still waiting, called once its deadline passes.
+   */
+  void expire(Request request) {
+    if (waiting.remove(request)) {
+      lateReplies += 1;
+      request.future.completeExceptionally(new SocketTimeoutException("Player took too long to reply"));
+    }
+  }
+
+  void closeNow() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (key != null) {
+      key.cancel();
+    }
+    try {
+      channel.close();
+    } catch (IOException e) {
+      // do nothing, closing anyway
+    }
+
+    IOException closedException = new IOException("Connection closed");
+    for (Request request : waiting) {
+      request.future.completeExceptionally(closedException);
+    }
+    waiting.clear();
+    writes.clear();
+  }
+
+  /**
+   * A request waiting for its reply until a deadline.
+   */
+  static class Request {
+    // completed with a JsonNode, or the ByteBuffer body of a binary frame
+    final CompletableFuture<Object> future = new CompletableFuture<>();
+    // System.nanoTime by which the reply must arrive
+    final long deadline;
+
+    Request(long deadline) {
+      this.deadline = deadline;
+    }
+  }
+}
@@ -8,6 +8,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import common.board.IReadonlyBoard;
 import common.data.Action;
 import common.data.PlaceWorkerAction;
+import common.exceptions.PlayerFailedException;
 import common.interfaces.IPlayer;
 import java.io.IOException;
 import java.io.InputStreamReader;
@@ -19,6 +20,9 @@ import java.util.Optional;
 /**
  * Remote player proxy that sends the appropriate message to the socket
  * upon method calls.
+ *
+ * If the connection fails or the player sends something that is not a reply, the call throws a
+ * PlayerFailedException, which the referee takes as cheating.
  */
 public class RemotePlayer implements IPlayer {
 
@@ -47,10 +51,8 @@ public class RemotePlayer implements IPlayer {
     JsonParser parser = new JsonFactory().createParser(in);
     JsonNode nameNode = mapper.readTree(parser);
 
-    if (!nameNode.isTextual()) {
-      while (true) {
-        // loop infinitely
-      }
+    if (nameNode == null || !nameNode.isTextual()) {
+      throw new PlayerFailedException(String.format("%s is not a legal name", nameNode));
     }
 
     return nameNode.asText();
@@ -61,10 +63,7 @@ public class RemotePlayer implements IPlayer {
     try {
       return Message.workerPlacement(clientIn, clientOut, b, name.get(), opponentName);
     } catch (IOException e) {
-      // loop infinitely because worker placement failed.
-      while (true) {
-
-      }
+      throw new PlayerFailedException("Connection failed during worker placement", e);
     }
   }
 
@@ -73,9 +72,7 @@ public class RemotePlayer implements IPlayer {
     try {
       return Message.takeTurn(clientIn, clientOut, b);
     } catch (IOException e) {
-      while (true) {
-
-      }
+      throw new PlayerFailedException("Connection failed during turn", e);
     }
   }
 
@@ -89,10 +86,7 @@ public class RemotePlayer implements IPlayer {
     try {
       playerName = findName(clientIn);
     } catch (IOException e) {
-      // error with connection, loop so player "cheated"
-      while (true) {
-
-      }
+      throw new PlayerFailedException("Connection failed sending name", e);
     }
     this.name = Optional.of(playerName);
     return playerName;
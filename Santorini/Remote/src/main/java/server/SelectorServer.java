@@ -0,0 +1,304 @@
+package server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A non-blocking server for remote players. A few selector threads accept connections and read and
+ * write every player's messages, so the number of players connected does not decide the number
+ * of threads, and a player who stops replying only costs the requests that time out.
+ *
+ * Connections are only accepted while accept is running, and are spread across the selector
+ * threads in turn.
+ */
+public class SelectorServer implements AutoCloseable {
+
+  public static final int DEFAULT_SELECTOR_THREADS = 1;
+
+  private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+  private final ServerSocketChannel serverChannel;
+  private final List<SelectorLoop> loops = new ArrayList<>();
+  // loop the next accepted connection goes to
+  private int nextLoop;
+  // connections accepted by the current call to accept
+  private List<PlayerConnection> accepted = new ArrayList<>();
+
+  public SelectorServer(int port) throws IOException {
+    this(port, DEFAULT_SELECTOR_THREADS);
+  }
+
+  /**
+   * Opens a server on the given port, with the given number of selector threads.
+   *
+   * @param port port to listen on, or 0 for any free port
+   * @param selectorThreads number of threads serving connections, at least 1
+   * @throws IOException if the port cannot be opened
+   */
+  public SelectorServer(int port, int selectorThreads) throws IOException {
+    if (selectorThreads < 1) {
+      throw new IllegalArgumentException(String.format("%d is not a legal number of threads", selectorThreads));
+    }
+
+    serverChannel = ServerSocketChannel.open();
+    try {
+      serverChannel.bind(new InetSocketAddress(port));
+      serverChannel.configureBlocking(false);
+      for (int i = 0; i < selectorThreads; i += 1) {
+        loops.add(new SelectorLoop());
+      }
+    } catch (IOException e) {
+      close();
+      throw e;
+    }
+    for (SelectorLoop loop : loops) {
+      loop.start();
+    }
+  }
+
+  // returns the port this server listens on
+  public int getPort() {
+    return serverChannel.socket().getLocalPort();
+  }
+
+  /**
+   * Accepts connections for the given time, and returns them in the order they connected.
+   *
+   * @param time time to accept connections for
+   * @param unit unit of the time
+   * @return the connections accepted
+   * @throws InterruptedException if interrupted while accepting
+   */
+  public List<PlayerConnection> accept(long time, TimeUnit unit) throws InterruptedException {
+    SelectorLoop acceptor = loops.get(0);
+    await(acceptor.submit(() -> {
+      accepted = new ArrayList<>();
+      return serverChannel.register(acceptor.selector, SelectionKey.OP_ACCEPT, this);
+    }));
+
+    unit.sleep(time);
+
+    return await(acceptor.submit(() -> {
+      serverChannel.keyFor(acceptor.selector).cancel();
+      return accepted;
+    }));
+  }
+
+  // Accepts every waiting connection, on the first loop's thread
+  private void acceptReady() {
+    while (true) {
+      SocketChannel channel;
+      try {
+        channel = serverChannel.accept();
+      } catch (IOException e) {
+        // do nothing, want to continue
+        return;
+      }
+      if (channel == null) {
+        return;
+      }
+
+      SelectorLoop loop = loops.get(nextLoop);
+      nextLoop = (nextLoop + 1) % loops.size();
+      PlayerConnection connection = new PlayerConnection(channel, loop);
+      accepted.add(connection);
+      loop.execute(() -> loop.register(channel, connection));
+    }
+  }
+
+  /**
+   * Stops the selector threads and closes every connection and the server socket.
+   */
+  @Override
+  public void close() {
+    for (SelectorLoop loop : loops) {
+      loop.stop();
+    }
+    try {
+      serverChannel.close();
+    } catch (IOException e) {
+      // do nothing, closing anyway
+    }
+  }
+
+  private static <T> T await(CompletableFuture<T> future) throws InterruptedException {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  /**
+   * A task to run on a selector thread that may fail with an IOException.
+   */
+  interface SelectorTask<T> {
+    T run() throws IOException;
+  }
+
+  /**
+   * A selector thread and the connections registered with it. Other threads hand it work with
+   * execute, which it runs between selects.
+   */
+  class SelectorLoop implements Runnable {
+    private final Selector selector;
+    private final Thread thread;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    // requests waiting for replies, soonest deadline first
+    private final PriorityQueue<Deadline> deadlines =
+        new PriorityQueue<>(Comparator.comparingLong(deadline -> deadline.request.deadline));
+    private volatile boolean running = true;
+
+    SelectorLoop() throws IOException {
+      selector = Selector.open();
+      thread = new Thread(this, "selector-" + THREAD_COUNT.incrementAndGet());
+      thread.setDaemon(true);
+    }
+
+    void start() {
+      thread.start();
+    }
+
+    /**
+     * Runs the given task on this loop's thread.
+     */
+    void execute(Runnable task) {
+      tasks.add(task);
+      selector.wakeup();
+    }
+
+    <T> CompletableFuture<T> submit(SelectorTask<T> task) {
+      CompletableFuture<T> future = new CompletableFuture<>();
+      execute(() -> {
+        try {
+          future.complete(task.run());
+        } catch (IOException | RuntimeException e) {
+          future.completeExceptionally(e);
+        }
+      });
+      return future;
+    }
+
+    // Called on this loop's thread when a request starts waiting for its reply
+    void schedule(PlayerConnection connection, PlayerConnection.Request request) {
+      deadlines.add(new Deadline(connection, request));
+    }
+
+    void register(SocketChannel channel, PlayerConnection connection) {
+      try {
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        connection.registered(channel.register(selector, SelectionKey.OP_READ, connection));
+      } catch (IOException e) {
+        connection.closeNow();
+      }
+    }
+
+    @Override
+    public void run() {
+      while (running) {
+        try {
+          selector.select(millisToNextDeadline());
+        } catch (IOException e) {
+          // do nothing, select again
+        }
+
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+          task.run();
+        }
+
+        for (SelectionKey key : selector.selectedKeys()) {
+          handle(key);
+        }
+        selector.selectedKeys().clear();
+
+        expireDeadlines();
+      }
+
+      for (SelectionKey key : selector.keys()) {
+        if (key.attachment() instanceof PlayerConnection) {
+          ((PlayerConnection) key.attachment()).closeNow();
+        }
+      }
+      try {
+        selector.close();
+      } catch (IOException e) {
+        // do nothing, stopping anyway
+      }
+    }
+
+    private void handle(SelectionKey key) {
+      if (!key.isValid()) {
+        return;
+      }
+      if (key.isAcceptable()) {
+        acceptReady();
+        return;
+      }
+
+      PlayerConnection connection = (PlayerConnection) key.attachment();
+      if (key.isReadable()) {
+        connection.read();
+      }
+      if (key.isValid() && key.isWritable()) {
+        connection.flushWrites();
+      }
+    }
+
+    // returns how long select may wait before a deadline passes, 0 for no limit
+    private long millisToNextDeadline() {
+      Deadline next = deadlines.peek();
+      if (next == null) {
+        return 0;
+      }
+      long millis = TimeUnit.NANOSECONDS.toMillis(next.request.deadline - System.nanoTime());
+      return Math.max(1, millis + 1);
+    }
+
+    private void expireDeadlines() {
+      long now = System.nanoTime();
+      while (!deadlines.isEmpty() && deadlines.peek().request.deadline - now <= 0) {
+        Deadline deadline = deadlines.poll();
+        deadline.connection.expire(deadline.request);
+      }
+    }
+
+    void stop() {
+      running = false;
+      selector.wakeup();
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * A request and the connection it was sent on.
+   */
+  private static class Deadline {
+    private final PlayerConnection connection;
+    private final PlayerConnection.Request request;
+
+    Deadline(PlayerConnection connection, PlayerConnection.Request request) {
+      this.connection = connection;
+      this.request = request;
+    }
+  }
+}
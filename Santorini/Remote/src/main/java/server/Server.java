@@ -13,12 +13,11 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintStream;
 import java.io.Reader;
-import java.net.ServerSocket;
 import java.net.Socket;
-import java.net.SocketException;
 import java.net.SocketTimeoutException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implements the server for the tournament manager.
@@ -76,23 +75,48 @@ public class Server {
    * @param repeat 0 or 1 for repeat
    */
   private static void serverHelper(int minPlayers, int portNumber, int waitingFor, int repeat) {
-    ServerSocket serverSocket;
-    try {
-      serverSocket = new ServerSocket(portNumber);
+    // Players are served by a selector thread rather than a thread per connection
+    try (SelectorServer server = new SelectorServer(portNumber)) {
+      do {
+        List<PlayerConnection> connections = server.accept(waitingFor, TimeUnit.SECONDS);
+        runChannelServer(minPlayers, connections);
+      } while (repeat == 1);
     } catch (IOException e) {
       // IO error occurred when opening socket. Want to shut down and throw exception
       throw new RuntimeException(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted accepting connections", e);
     }
+  }
 
-    do {
-      List<Socket> connections = acceptConnections(waitingFor, serverSocket);
-      runServer(minPlayers, connections);
-    } while (repeat == 1);
+  /**
+   * Runs the server with the given connections of a SelectorServer and minimum number of players.
+   *
+   * **package-private for testing**
+   *
+   * @param minPlayers minimum number of connections
+   * @param connections list of connections
+   */
+  static void runChannelServer(int minPlayers, List<PlayerConnection> connections) {
+    // Run the tournament if enough players connected.
+    if (connections.size() >= minPlayers) {
+      List<ChannelPlayer> players = new ArrayList<>();
+      for (PlayerConnection connection : connections) {
+        players.add(new ChannelPlayer(connection));
+      }
+      ITournamentManager tm = runTournament(players);
 
-    try {
-      serverSocket.close();
-    } catch (IOException e) {
-      throw new RuntimeException("Unable to close server socket", e);
+      // A tournament has been run, so results is not empty
+      List<GameResult> results = tm.getResults().get();
+      for (ChannelPlayer player : players) {
+        player.inform(results);
+      }
+      Message.inform(new PrintStream(System.out), results);
+    }
+
+    for (PlayerConnection connection : connections) {
+      connection.close();
     }
   }
 
@@ -186,34 +210,6 @@ public class Server {
     return players;
   }
 
-  /**
-   * Accepts connections to this server and adds them to a list.
-   *
-   * @param waitingFor time to wait for (in seconds)
-   * @param serverSocket ServerSockets for this server
-   * @return List of Sockets that contain the connections
-   */
-  private static List<Socket> acceptConnections(int waitingFor, ServerSocket serverSocket) {
-    List<Socket> connections = new ArrayList<>();
-    long endTime = System.currentTimeMillis() + (waitingFor * 1000);
-    long currentTime;
-    while ((currentTime = System.currentTimeMillis()) < endTime) {
-      try {
-        serverSocket.setSoTimeout((int) (endTime - currentTime));
-      } catch (SocketException e) {
-        // Throws if TCP error. Want to throw exception
-        throw new RuntimeException(e);
-      }
-      try {
-        Socket connection = serverSocket.accept();
-        connections.add(connection);
-      } catch (IOException e) {
-        // do nothing, want to continue
-      }
-    }
-    return connections;
-  }
-
   /**
    * Read the config from this server's reader
    */
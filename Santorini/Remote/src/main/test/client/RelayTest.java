@@ -7,10 +7,16 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import common.board.Board;
 import common.board.IBoard;
+import common.data.Action;
+import common.data.Direction;
 import common.interfaces.IPlayer;
+import java.nio.ByteBuffer;
+import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 import player.AIPlayer;
+import protocol.BinaryMessage;
+import protocol.DeltaEncoder;
 import strategy.DiagonalPlacementStrategy;
 import strategy.IPlacementStrategy;
 import strategy.ITurnStrategy;
@@ -131,4 +137,69 @@ public class RelayTest {
     assertThat(action.get(4).asText()).isEqualTo("PUT");
   }
 
+  /**
+   * Tests that a binary take turn message gets the same action as its Json one, in one byte
+   */
+  @Test
+  public void testBinaryTakeTurn() {
+    String player2 = "two";
+
+    IBoard board = new Board();
+
+    board.createWorker(name, 0, 0);
+    board.createWorker(player2, 1, 1);
+    board.createWorker(name, 2, 2);
+    board.createWorker(player2, 3, 3);
+
+    relay.respond(frameBody(BinaryMessage.nameFrame(BinaryMessage.OTHER, player2)));
+    ByteBuffer prompt = frameBody(BinaryMessage.takeTurnFrame(board, name, player2));
+    ByteBuffer reply = frameBody(relay.respond(prompt).get());
+
+    assertThat(reply.remaining()).isEqualTo(2);
+    List<Action> turn = BinaryMessage.toTurn(reply, name);
+    assertThat(turn).hasSize(2);
+    assertThat(turn.get(0).getWorkerId()).isEqualTo("one1");
+    assertThat(turn.get(0).getDirection().getEastWest()).isEqualTo("EAST");
+    assertThat(turn.get(0).getDirection().getNorthSouth()).isEqualTo("PUT");
+    assertThat(turn.get(1).getDirection().getEastWest()).isEqualTo("EAST");
+  }
+
+  /**
+   * Tests that a relay keeps its board between delta take turn messages, and asks to resync when
+   * it has no board to apply a delta to
+   */
+  @Test
+  public void testDeltaTakeTurn() {
+    String player2 = "two";
+
+    IBoard board = new Board();
+    board.createWorker(name, 0, 0);
+    board.createWorker(player2, 1, 1);
+    board.createWorker(name, 2, 2);
+    board.createWorker(player2, 3, 3);
+
+    DeltaEncoder encoder = new DeltaEncoder();
+    encoder.takeTurnFrame(board, name, player2);
+    board.move(player2 + "1", Direction.of("WEST", "PUT"));
+    byte[] delta = encoder.takeTurnFrame(board, name, player2);
+
+    relay.respond(frameBody(BinaryMessage.nameFrame(BinaryMessage.OTHER, player2)));
+    ByteBuffer reply = frameBody(relay.respond(frameBody(delta)).get());
+    assertThat(BinaryMessage.typeOf(reply)).isEqualTo(BinaryMessage.RESYNC);
+
+    encoder.reset();
+    relay.respond(frameBody(encoder.takeTurnFrame(board, name, player2)));
+    board.move(player2 + "1", Direction.of("EAST", "PUT"));
+    reply = frameBody(relay.respond(frameBody(encoder.takeTurnFrame(board, name, player2))).get());
+    assertThat(BinaryMessage.typeOf(reply)).isEqualTo(BinaryMessage.TURN);
+    assertThat(BinaryMessage.toTurn(reply, name)).hasSize(2);
+  }
+
+  // returns the body of the given frame
+  private ByteBuffer frameBody(byte[] frame) {
+    ByteBuffer buffer = ByteBuffer.wrap(frame);
+    buffer.position(BinaryMessage.LENGTH_BYTES);
+    return buffer.slice();
+  }
+
 }
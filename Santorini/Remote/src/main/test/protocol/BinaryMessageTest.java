@@ -0,0 +1,154 @@
+package protocol;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import common.board.Board;
+import common.board.IBoard;
+import common.data.Action;
+import common.data.ActionType;
+import common.data.Direction;
+import common.data.PlaceWorkerAction;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class BinaryMessageTest {
+
+  private static final String BOARD_JSON = "[[0,\"1one1\",2,3,4,0],"
+      + "[0,0,0,0,0,0],"
+      + "[0,\"2two1\",0,0,0,0],"
+      + "[0,0,0,\"0one2\",0,0],"
+      + "[0,0,0,0,0,0],"
+      + "[\"3two2\",0,0,0,0,1]]";
+
+  private static ObjectMapper mapper = new ObjectMapper();
+
+  // returns the body of the given frame, checking its length
+  private ByteBuffer body(byte[] frame) {
+    ByteBuffer buffer = ByteBuffer.wrap(frame);
+    assertThat(buffer.getInt()).isEqualTo(frame.length - BinaryMessage.LENGTH_BYTES);
+    return buffer.slice();
+  }
+
+  /**
+   * Tests that a board survives a take turn frame, from either player's side.
+   */
+  @Test
+  public void testTakeTurnRoundTrip() throws IOException {
+    JsonNode json = mapper.readTree(BOARD_JSON);
+    Board board = new Board(json);
+
+    byte[] frame = BinaryMessage.takeTurnFrame(board, "one", "two");
+    // 18 bytes of heights, a count and 4 workers after the kind
+    assertThat(frame).hasSize(BinaryMessage.LENGTH_BYTES + 1 + 18 + 1 + 4);
+    assertThat(BinaryMessage.toBoard(body(frame), "one", "two").toJson()).isEqualTo(json);
+
+    frame = BinaryMessage.takeTurnFrame(board, "two", "one");
+    assertThat(BinaryMessage.toBoard(body(frame), "two", "one").toJson()).isEqualTo(json);
+  }
+
+  /**
+   * Tests that a placement frame carries the workers already placed.
+   */
+  @Test
+  public void testPlacementRoundTrip() {
+    IBoard board = new Board();
+    board.createWorker("one", 0, 0);
+    board.createWorker("two", 5, 5);
+
+    ByteBuffer body = body(BinaryMessage.placementFrame(board, "two", "one"));
+    assertThat(BinaryMessage.typeOf(body)).isEqualTo(BinaryMessage.PLACEMENT);
+
+    IBoard placeBoard = BinaryMessage.toBoard(body, "two", "one");
+    assertThat(placeBoard.findWorker("one1").getRow()).isEqualTo(0);
+    assertThat(placeBoard.findWorker("two1").getColumn()).isEqualTo(5);
+    assertThat(placeBoard.getNumWorkers("one")).isEqualTo(1);
+
+    PlaceWorkerAction place = BinaryMessage.toPlacement(body(BinaryMessage.placeFrame(new PlaceWorkerAction(3, 4))));
+    assertThat(place.getRow()).isEqualTo(3);
+    assertThat(place.getColumn()).isEqualTo(4);
+  }
+
+  /**
+   * Tests that every turn fits in one byte and reads back the same.
+   */
+  @Test
+  public void testTurnRoundTrip() {
+    for (Direction move : Direction.getAllDirections()) {
+      for (Direction build : Direction.getAllDirections()) {
+        List<Action> turn = Arrays.asList(
+            new Action(ActionType.MOVE, "one2", move),
+            new Action(ActionType.BUILD, "one2", build));
+
+        byte[] frame = BinaryMessage.turnFrame(turn);
+        assertThat(frame).hasSize(BinaryMessage.LENGTH_BYTES + 2);
+
+        List<Action> read = BinaryMessage.toTurn(body(frame), "one");
+        assertThat(read).hasSize(2);
+        assertThat(read.get(0).getWorkerId()).isEqualTo("one2");
+        assertThat(read.get(0).getDirection()).isSameAs(move);
+        assertThat(read.get(1).getType()).isEqualTo(ActionType.BUILD);
+        assertThat(read.get(1).getDirection()).isSameAs(build);
+      }
+    }
+  }
+
+  /**
+   * Tests a winning move without a build, and giving up.
+   */
+  @Test
+  public void testMoveOnlyAndGiveUp() {
+    List<Action> move = Arrays.asList(new Action(ActionType.MOVE, "one1", Direction.of("WEST", "PUT")));
+    List<Action> read = BinaryMessage.toTurn(body(BinaryMessage.turnFrame(move)), "one");
+    assertThat(read).hasSize(1);
+    assertThat(read.get(0).getWorkerId()).isEqualTo("one1");
+
+    ByteBuffer giveUp = body(BinaryMessage.turnFrame(new ArrayList<>()));
+    assertThat(BinaryMessage.typeOf(giveUp)).isEqualTo(BinaryMessage.GIVE_UP);
+    assertThat(BinaryMessage.toTurn(giveUp, "one")).isEmpty();
+  }
+
+  /**
+   * Tests that names survive their frames, whatever the characters.
+   */
+  @Test
+  public void testNameRoundTrip() {
+    String name = "caf\u00e9";
+    ByteBuffer body = body(BinaryMessage.nameFrame(BinaryMessage.OTHER, name));
+    assertThat(BinaryMessage.typeOf(body)).isEqualTo(BinaryMessage.OTHER);
+    assertThat(BinaryMessage.toName(body)).isEqualTo(name);
+  }
+
+  /**
+   * Tests that the server picks the first protocol offered that it speaks, or Json.
+   */
+  @Test
+  public void testChooseProtocol() throws IOException {
+    List<String> supported = Arrays.asList(BinaryMessage.BINARY, BinaryMessage.JSON);
+
+    JsonNode hello = mapper.readTree(BinaryMessage.helloMessage(Arrays.asList("binary", "json")));
+    assertThat(BinaryMessage.isHello(hello)).isTrue();
+    assertThat(BinaryMessage.chooseProtocol(hello, supported)).isEqualTo(BinaryMessage.BINARY);
+
+    hello = mapper.readTree(BinaryMessage.helloMessage(Arrays.asList("binary-2")));
+    assertThat(BinaryMessage.chooseProtocol(hello, supported)).isEqualTo(BinaryMessage.JSON);
+
+    JsonNode answer = mapper.readTree(BinaryMessage.protocolMessage(BinaryMessage.BINARY));
+    assertThat(BinaryMessage.toProtocol(answer)).isEqualTo(BinaryMessage.BINARY);
+    assertThat(BinaryMessage.toProtocol(mapper.readTree("\"one\""))).isEqualTo(BinaryMessage.JSON);
+    assertThat(BinaryMessage.isHello(mapper.readTree("\"one\""))).isFalse();
+  }
+
+  /**
+   * Tests that a body of the wrong kind is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongKind() {
+    BinaryMessage.toPlacement(body(BinaryMessage.nameFrame(BinaryMessage.NAME, "one")));
+  }
+}
@@ -0,0 +1,117 @@
+package protocol;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import common.board.Board;
+import common.board.IBoard;
+import common.data.Action;
+import common.data.ActionType;
+import common.data.Direction;
+import java.nio.ByteBuffer;
+import org.junit.Test;
+
+public class DeltaEncoderTest {
+
+  // returns the body of the given frame
+  private ByteBuffer body(byte[] frame) {
+    ByteBuffer buffer = ByteBuffer.wrap(frame);
+    buffer.position(BinaryMessage.LENGTH_BYTES);
+    return buffer.slice();
+  }
+
+  private IBoard startBoard() {
+    IBoard board = new Board();
+    board.createWorker("one", 0, 0);
+    board.createWorker("two", 5, 5);
+    board.createWorker("one", 0, 5);
+    board.createWorker("two", 5, 0);
+    return board;
+  }
+
+  // plays a turn for each player, stepping a worker off its row or back and building behind it
+  private void playRound(IBoard board, int round) {
+    boolean away = round / 2 % 2 == 0;
+    Direction south = Direction.of("PUT", away ? "SOUTH" : "NORTH");
+    Direction north = Direction.of("PUT", away ? "NORTH" : "SOUTH");
+    String worker = round % 2 == 0 ? "1" : "2";
+    board.apply(new Action(ActionType.MOVE, "one" + worker, south));
+    board.apply(new Action(ActionType.BUILD, "one" + worker, north));
+    board.apply(new Action(ActionType.MOVE, "two" + worker, north));
+    board.apply(new Action(ActionType.BUILD, "two" + worker, south));
+  }
+
+  /**
+   * Tests that the first board is sent whole and later ones as the few cells that changed, and
+   * that the decoder's board follows the encoder's through enough turns to check the hash.
+   */
+  @Test
+  public void testDeltasKeepBoardInSync() {
+    DeltaEncoder encoder = new DeltaEncoder();
+    DeltaDecoder decoder = new DeltaDecoder();
+    IBoard board = startBoard();
+
+    ByteBuffer first = body(encoder.takeTurnFrame(board, "one", "two"));
+    assertThat(BinaryMessage.typeOf(first)).isEqualTo(BinaryMessage.TAKE_TURN);
+    assertThat(decoder.toBoard(first, "one", "two").toJson()).isEqualTo(board.toJson());
+
+    for (int round = 0; round <= DeltaEncoder.CHECKSUM_INTERVAL; round += 1) {
+      playRound(board, round);
+      byte[] frame = encoder.takeTurnFrame(board, "one", "two");
+      // two workers moved and two floors were built, at most 6 cells changed
+      assertThat(frame.length).isLessThanOrEqualTo(BinaryMessage.LENGTH_BYTES + 2 + 6 * 2 + 8);
+
+      ByteBuffer delta = body(frame);
+      assertThat(BinaryMessage.typeOf(delta)).isEqualTo(BinaryMessage.TURN_DELTA);
+      IBoard synced = decoder.toBoard(delta, "one", "two");
+      assertThat(synced).isNotNull();
+      assertThat(synced.toJson()).isEqualTo(board.toJson());
+      assertThat(synced.getHash()).isEqualTo(board.getHash());
+    }
+  }
+
+  /**
+   * Tests that a client whose board drifted finds out at the next hash, and is back in sync after
+   * the encoder is reset.
+   */
+  @Test
+  public void testDriftFailsChecksum() {
+    DeltaEncoder encoder = new DeltaEncoder();
+    DeltaDecoder decoder = new DeltaDecoder();
+    IBoard board = startBoard();
+    encoder.takeTurnFrame(board, "one", "two");
+
+    // The client's board has a floor the server's does not, on a cell no turn touches
+    IBoard drifted = startBoard();
+    drifted.build("one1", Direction.of("EAST", "PUT"));
+    decoder.toBoard(body(new DeltaEncoder().takeTurnFrame(drifted, "one", "two")), "one", "two");
+
+    IBoard synced = null;
+    for (int round = 0; round < DeltaEncoder.CHECKSUM_INTERVAL - 1; round += 1) {
+      playRound(board, round);
+      synced = decoder.toBoard(body(encoder.takeTurnFrame(board, "one", "two")), "one", "two");
+      assertThat(synced).isNotNull();
+    }
+    assertThat(synced.toJson()).isNotEqualTo(board.toJson());
+
+    playRound(board, DeltaEncoder.CHECKSUM_INTERVAL - 1);
+    assertThat(decoder.toBoard(body(encoder.takeTurnFrame(board, "one", "two")), "one", "two")).isNull();
+
+    encoder.reset();
+    synced = decoder.toBoard(body(encoder.takeTurnFrame(board, "one", "two")), "one", "two");
+    assertThat(synced.toJson()).isEqualTo(board.toJson());
+  }
+
+  /**
+   * Tests that a delta cannot be applied without a board to apply it to.
+   */
+  @Test
+  public void testDeltaWithoutBoard() {
+    DeltaEncoder encoder = new DeltaEncoder();
+    IBoard board = startBoard();
+    encoder.takeTurnFrame(board, "one", "two");
+    playRound(board, 0);
+
+    DeltaDecoder decoder = new DeltaDecoder();
+    assertThat(decoder.toBoard(body(encoder.takeTurnFrame(board, "one", "two")), "one", "two")).isNull();
+  }
+}
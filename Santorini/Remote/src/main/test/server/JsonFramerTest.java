@@ -0,0 +1,76 @@
+package server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.Test;
+
+public class JsonFramerTest {
+
+  private List<String> feed(JsonFramer framer, String text) throws IOException {
+    return framer.feed(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  /**
+   * Tests that messages split across reads are framed once complete.
+   */
+  @Test
+  public void testSplitAcrossReads() throws IOException {
+    JsonFramer framer = new JsonFramer();
+
+    assertThat(feed(framer, "[1,[2")).isEmpty();
+    assertThat(feed(framer, ",3]]\n\"na")).containsExactly("[1,[2,3]]");
+    assertThat(feed(framer, "me\"\n")).containsExactly("\"name\"");
+  }
+
+  /**
+   * Tests that several messages in one read are all framed, in order.
+   */
+  @Test
+  public void testManyInOneRead() throws IOException {
+    JsonFramer framer = new JsonFramer();
+
+    assertThat(feed(framer, "\"one\"\n[\"one1\",\"EAST\",\"PUT\"]\n{\"a\":\"]\"}\n"))
+        .containsExactly("\"one\"", "[\"one1\",\"EAST\",\"PUT\"]", "{\"a\":\"]\"}");
+  }
+
+  /**
+   * Tests that brackets and escaped quotes inside strings do not end a message.
+   */
+  @Test
+  public void testStrings() throws IOException {
+    JsonFramer framer = new JsonFramer();
+
+    assertThat(feed(framer, "[\"a\\\"]\", \"[\\\\\"]")).containsExactly("[\"a\\\"]\", \"[\\\\\"]");
+    assertThat(feed(framer, "\"caf\u00e9 ]\"")).containsExactly("\"caf\u00e9 ]\"");
+  }
+
+  /**
+   * Tests that a number is only framed once something follows it.
+   */
+  @Test
+  public void testNumber() throws IOException {
+    JsonFramer framer = new JsonFramer();
+
+    assertThat(feed(framer, "42")).isEmpty();
+    assertThat(feed(framer, "\n[7]")).containsExactly("42", "[7]");
+    assertThat(feed(framer, "true,")).containsExactly("true", ",");
+  }
+
+  /**
+   * Tests that a message that never ends is rejected once too long.
+   */
+  @Test(expected = IOException.class)
+  public void testTooLong() throws IOException {
+    JsonFramer framer = new JsonFramer();
+    StringBuilder text = new StringBuilder("[");
+    while (text.length() <= JsonFramer.MAX_FRAME_BYTES) {
+      text.append("0,");
+    }
+
+    feed(framer, text.toString());
+  }
+}
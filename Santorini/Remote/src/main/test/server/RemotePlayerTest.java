@@ -5,6 +5,8 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import common.board.Board;
+import common.exceptions.PlayerFailedException;
 import common.interfaces.IPlayer;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -82,4 +84,40 @@ public class RemotePlayerTest {
     assertThat(remote.getPlayerName()).isEqualTo(playerName);
   }
 
+  /**
+   * Tests that a player who disconnects before sending a name fails instead of hanging
+   */
+  @Test(expected = PlayerFailedException.class)
+  public void testGetPlayerNameDisconnected() throws IOException {
+    when(mockClient.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[0]));
+
+    IPlayer remote = new RemotePlayer(mockClient);
+
+    remote.getPlayerName();
+  }
+
+  /**
+   * Tests that a player who sends something other than a name fails instead of hanging
+   */
+  @Test(expected = PlayerFailedException.class)
+  public void testGetPlayerNameNotText() throws IOException {
+    when(mockClient.getInputStream()).thenReturn(new ByteArrayInputStream("[1, 2]".getBytes()));
+
+    IPlayer remote = new RemotePlayer(mockClient);
+
+    remote.getPlayerName();
+  }
+
+  /**
+   * Tests that a player who disconnects during their turn fails instead of hanging
+   */
+  @Test(expected = PlayerFailedException.class)
+  public void testGetTurnDisconnected() throws IOException {
+    when(mockClient.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[0]));
+    when(mockClient.getOutputStream()).thenReturn(new ByteArrayOutputStream());
+
+    IPlayer remote = new RemotePlayer(mockClient);
+
+    remote.getTurn(new Board());
+  }
 }
@@ -0,0 +1,288 @@
+package server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import common.board.Board;
+import common.board.IBoard;
+import common.data.Action;
+import common.data.ActionType;
+import common.data.Direction;
+import common.exceptions.PlayerFailedException;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import protocol.BinaryMessage;
+
+public class SelectorServerTest {
+
+  private Socket connect(SelectorServer server, String name) throws IOException {
+    Socket socket = new Socket("localhost", server.getPort());
+    new PrintWriter(socket.getOutputStream(), true).println("\"" + name + "\"");
+    return socket;
+  }
+
+  /**
+   * Tests that a player's name and turn are read from their connection.
+   */
+  @Test
+  public void testNameAndTurn() throws Exception {
+    try (SelectorServer server = new SelectorServer(0)) {
+      Socket client = connect(server, "one");
+      List<PlayerConnection> connections = server.accept(200, TimeUnit.MILLISECONDS);
+      assertThat(connections).hasSize(1);
+
+      ChannelPlayer player = new ChannelPlayer(connections.get(0));
+      assertThat(player.getPlayerName()).isEqualTo("one");
+
+      Thread reply = new Thread(() -> {
+        try {
+          BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream()));
+          // Skips the other message, then replies to the take turn message
+          in.readLine();
+          in.readLine();
+          new PrintWriter(client.getOutputStream(), true).println("[\"one1\",\"EAST\",\"PUT\",\"WEST\",\"PUT\"]");
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+      reply.start();
+
+      IBoard board = new Board();
+      board.createWorker("one", 2, 2);
+      player.setOpponentName("two");
+      List<Action> turn = player.getTurn(board);
+      reply.join();
+
+      assertThat(turn).hasSize(2);
+      assertThat(turn.get(0).getType()).isEqualTo(ActionType.MOVE);
+      assertThat(turn.get(0).getDirection().getEastWest()).isEqualTo("EAST");
+      client.close();
+    }
+  }
+
+  /**
+   * Tests that a player who does not reply in time fails the request, and that their late reply
+   * is not taken as the reply to the next request.
+   */
+  @Test
+  public void testTimeout() throws Exception {
+    try (SelectorServer server = new SelectorServer(0)) {
+      Socket client = new Socket("localhost", server.getPort());
+      PlayerConnection connection = server.accept(200, TimeUnit.MILLISECONDS).get(0);
+
+      try {
+        connection.request("\"ping\"", 100, TimeUnit.MILLISECONDS).get();
+        throw new AssertionError("request did not time out");
+      } catch (ExecutionException e) {
+        assertThat(e.getCause()).isInstanceOf(SocketTimeoutException.class);
+      }
+
+      PrintWriter out = new PrintWriter(client.getOutputStream(), true);
+      out.println("\"late\"");
+      out.println("\"next\"");
+      JsonNode next = connection.request(null, 2, TimeUnit.SECONDS).get();
+      assertThat(next.asText()).isEqualTo("next");
+      client.close();
+    }
+  }
+
+  /**
+   * Tests that a player who disconnects fails their request at once rather than at its deadline.
+   */
+  @Test
+  public void testDisconnect() throws Exception {
+    try (SelectorServer server = new SelectorServer(0)) {
+      Socket client = connect(server, "one");
+      ChannelPlayer player = new ChannelPlayer(server.accept(200, TimeUnit.MILLISECONDS).get(0), 60000);
+      assertThat(player.getPlayerName()).isEqualTo("one");
+
+      client.close();
+      long start = System.nanoTime();
+      try {
+        player.getTurn(new Board());
+        throw new AssertionError("request did not fail");
+      } catch (PlayerFailedException e) {
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(10));
+      }
+    }
+  }
+
+  /**
+   * Tests that many players are served by a couple of selector threads.
+   */
+  @Test
+  public void testManyPlayers() throws Exception {
+    try (SelectorServer server = new SelectorServer(0, 2)) {
+      List<Socket> clients = new ArrayList<>();
+      Set<String> expected = new HashSet<>();
+      for (int i = 0; i < 50; i += 1) {
+        clients.add(connect(server, "player" + i));
+        expected.add("player" + i);
+      }
+
+      List<PlayerConnection> connections = server.accept(500, TimeUnit.MILLISECONDS);
+      assertThat(connections).hasSize(50);
+
+      Set<String> names = new HashSet<>();
+      for (PlayerConnection connection : connections) {
+        names.add(new ChannelPlayer(connection).getPlayerName());
+      }
+      assertThat(names).isEqualTo(expected);
+
+      for (Socket client : clients) {
+        client.close();
+      }
+    }
+  }
+
+  /**
+   * Tests that a player who asks for the binary protocol gets it, and is asked for their turn in it.
+   */
+  @Test
+  public void testBinaryProtocol() throws Exception {
+    try (SelectorServer server = new SelectorServer(0)) {
+      Socket client = new Socket("localhost", server.getPort());
+      PrintWriter out = new PrintWriter(client.getOutputStream(), true);
+      out.println(BinaryMessage.helloMessage(Arrays.asList(BinaryMessage.BINARY, BinaryMessage.JSON)));
+      ChannelPlayer player = new ChannelPlayer(server.accept(200, TimeUnit.MILLISECONDS).get(0));
+
+      Thread reply = new Thread(() -> {
+        try {
+          DataInputStream in = new DataInputStream(client.getInputStream());
+          StringBuilder answer = new StringBuilder();
+          for (int next = in.read(); next != '\n'; next = in.read()) {
+            answer.append((char) next);
+          }
+          assertThat(answer.toString()).isEqualTo(BinaryMessage.protocolMessage(BinaryMessage.BINARY));
+          client.getOutputStream().write(BinaryMessage.nameFrame(BinaryMessage.NAME, "one"));
+
+          // Skips the other message, then replies to the take turn message
+          for (int i = 0; i < 2; i += 1) {
+            byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            assertThat(body[0]).isEqualTo(i == 0 ? BinaryMessage.OTHER : BinaryMessage.TAKE_TURN);
+          }
+          List<Action> turn = Arrays.asList(
+              new Action(ActionType.MOVE, "one1", Direction.of("EAST", "PUT")),
+              new Action(ActionType.BUILD, "one1", Direction.of("WEST", "PUT")));
+          client.getOutputStream().write(BinaryMessage.turnFrame(turn));
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+      reply.start();
+
+      assertThat(player.getPlayerName()).isEqualTo("one");
+      IBoard board = new Board();
+      board.createWorker("one", 2, 2);
+      player.setOpponentName("two");
+      List<Action> turn = player.getTurn(board);
+      reply.join();
+
+      assertThat(turn).hasSize(2);
+      assertThat(turn.get(0).getWorkerId()).isEqualTo("one1");
+      assertThat(turn.get(0).getDirection().getEastWest()).isEqualTo("EAST");
+      assertThat(turn.get(1).getDirection().getEastWest()).isEqualTo("WEST");
+      client.close();
+    }
+  }
+
+  /**
+   * Tests that a player of the delta protocol gets the whole board first and then only the cells
+   * that changed, and gets the whole board again when they ask to resync.
+   */
+  @Test
+  public void testDeltaProtocolResync() throws Exception {
+    try (SelectorServer server = new SelectorServer(0)) {
+      Socket client = new Socket("localhost", server.getPort());
+      PrintWriter out = new PrintWriter(client.getOutputStream(), true);
+      out.println(BinaryMessage.helloMessage(Arrays.asList(BinaryMessage.DELTA, BinaryMessage.JSON)));
+      ChannelPlayer player = new ChannelPlayer(server.accept(200, TimeUnit.MILLISECONDS).get(0));
+
+      List<Byte> received = new ArrayList<>();
+      Thread reply = new Thread(() -> {
+        try {
+          DataInputStream in = new DataInputStream(client.getInputStream());
+          for (int next = in.read(); next != '\n'; next = in.read()) {
+            // skips the answer to the hello message
+          }
+          client.getOutputStream().write(BinaryMessage.nameFrame(BinaryMessage.NAME, "one"));
+
+          byte[] turn = BinaryMessage.turnFrame(Arrays.asList(
+              new Action(ActionType.MOVE, "one1", Direction.of("EAST", "PUT"))));
+          while (received.size() < 4) {
+            byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            received.add(body[0]);
+            if (body[0] == BinaryMessage.TURN_DELTA) {
+              client.getOutputStream().write(BinaryMessage.resyncFrame());
+            } else if (body[0] == BinaryMessage.TAKE_TURN) {
+              client.getOutputStream().write(turn);
+            }
+          }
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+      reply.start();
+
+      assertThat(player.getPlayerName()).isEqualTo("one");
+      IBoard board = new Board();
+      board.createWorker("one", 2, 2);
+      player.setOpponentName("two");
+      assertThat(player.getTurn(board)).hasSize(1);
+      board.move("one1", Direction.of("EAST", "PUT"));
+      assertThat(player.getTurn(board)).hasSize(1);
+      reply.join();
+
+      assertThat(received).containsExactly(
+          BinaryMessage.OTHER, BinaryMessage.TAKE_TURN, BinaryMessage.TURN_DELTA, BinaryMessage.TAKE_TURN);
+      client.close();
+    }
+  }
+
+  /**
+   * Tests that a player who only offers protocols the server does not speak is answered in Json.
+   */
+  @Test
+  public void testHelloFallsBackToJson() throws Exception {
+    try (SelectorServer server = new SelectorServer(0)) {
+      Socket client = new Socket("localhost", server.getPort());
+      PrintWriter out = new PrintWriter(client.getOutputStream(), true);
+      out.println(BinaryMessage.helloMessage(Arrays.asList("binary-2")));
+      out.println("\"one\"");
+      ChannelPlayer player = new ChannelPlayer(server.accept(200, TimeUnit.MILLISECONDS).get(0));
+
+      assertThat(player.getPlayerName()).isEqualTo("one");
+      BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream()));
+      assertThat(in.readLine()).isEqualTo(BinaryMessage.protocolMessage(BinaryMessage.JSON));
+
+      player.setOpponentName("two");
+      assertThat(in.readLine()).isEqualTo("\"two\"");
+      client.close();
+    }
+  }
+
+  /**
+   * Tests that a server needs at least one selector thread.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoThreads() throws IOException {
+    new SelectorServer(0, 0);
+  }
+}
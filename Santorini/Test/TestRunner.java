@@ -1,7 +1,15 @@
+import admin.rating.RatingEngineTest;
+import admin.referee.AsyncObserverTest;
 import admin.referee.RefereeTest;
+import admin.tournament.EliminationTournamentManagerTest;
+import admin.tournament.RoundExecutorTest;
+import admin.tournament.RoundRobinSchedulerTest;
+import admin.tournament.SwissTournamentManagerTest;
+import common.board.BitBoardTest;
 import common.board.BoardTest;
 import common.board.HeightTest;
 import common.board.ViewModelBoardTest;
+import common.data.DirectionTest;
 import common.rules.TestStandardSantoriniRulesEngine;
 import java.util.ArrayList;
 import java.util.List;
@@ -12,8 +20,17 @@ import org.junit.runner.notification.Failure;
 import player.TestAIPlayer;
 import player.TestBreakerPlayer;
 import player.TestInfinitePlayer;
+import protocol.BinaryMessageTest;
+import protocol.DeltaEncoderTest;
+import server.JsonFramerTest;
+import server.SelectorServerTest;
+import strategy.AlphaBetaStrategyTests;
+import strategy.MonteCarloStrategyTests;
 import strategy.StayAliveStrategyTests;
 import strategy.TestDiagonalPlacementStrategy;
+import strategy.TranspositionTableTest;
+import utils.TimedCallServiceTest;
+import utils.VirtualThreadsTest;
 
 
 /**
@@ -23,15 +40,32 @@ public class TestRunner {
   public static void main(String[] args) {
     List<Class> classesToTest = new ArrayList<>();
     classesToTest.add(BoardTest.class);
+    classesToTest.add(BitBoardTest.class);
     classesToTest.add(HeightTest.class);
     classesToTest.add(ViewModelBoardTest.class);
+    classesToTest.add(DirectionTest.class);
     classesToTest.add(RefereeTest.class);
+    classesToTest.add(RoundRobinSchedulerTest.class);
+    classesToTest.add(RoundExecutorTest.class);
+    classesToTest.add(SwissTournamentManagerTest.class);
+    classesToTest.add(EliminationTournamentManagerTest.class);
+    classesToTest.add(RatingEngineTest.class);
+    classesToTest.add(AsyncObserverTest.class);
     classesToTest.add(StayAliveStrategyTests.class);
+    classesToTest.add(AlphaBetaStrategyTests.class);
+    classesToTest.add(MonteCarloStrategyTests.class);
     classesToTest.add(TestDiagonalPlacementStrategy.class);
+    classesToTest.add(TranspositionTableTest.class);
     classesToTest.add(TestStandardSantoriniRulesEngine.class);
     classesToTest.add(TestAIPlayer.class);
     classesToTest.add(TestBreakerPlayer.class);
     classesToTest.add(TestInfinitePlayer.class);
+    classesToTest.add(TimedCallServiceTest.class);
+    classesToTest.add(VirtualThreadsTest.class);
+    classesToTest.add(JsonFramerTest.class);
+    classesToTest.add(SelectorServerTest.class);
+    classesToTest.add(BinaryMessageTest.class);
+    classesToTest.add(DeltaEncoderTest.class);
 
 
     int ran = 0;